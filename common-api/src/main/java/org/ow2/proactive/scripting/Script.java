@@ -54,7 +54,7 @@ import javax.script.Bindings;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
-import javax.script.ScriptEngineManager;
+import javax.script.SimpleScriptContext;
 
 import org.objectweb.proactive.annotation.PublicAPI;
 import org.ow2.proactive.utils.BoundedStringWriter;
@@ -281,17 +281,21 @@ public abstract class Script<E> implements Serializable {
      */
     public ScriptResult<E> execute(Map<String, Object> aBindings, PrintStream outputSink,
             PrintStream errorSink) {
-        ScriptEngine engine = createScriptEngine();
-
-        if (engine == null)
+        ScriptEnginePool.PooledEngine pooledEngine = getScriptEngine();
+        if (pooledEngine == null)
             return new ScriptResult<>(
               new Exception("No Script Engine Found for name or extension " + scriptEngineLookup));
+        ScriptEngine engine = pooledEngine.getEngine();
+
+        // each execution has its own context so that pooled engines do not keep previous bindings
+        ScriptContext context = new SimpleScriptContext();
+        context.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
 
         // SCHEDULING-1532: redirect script output to a buffer (keep the latest DEFAULT_OUTPUT_MAX_SIZE)
         BoundedStringWriter outputBoundedWriter = new BoundedStringWriter(outputSink, DEFAULT_OUTPUT_MAX_SIZE);
         BoundedStringWriter errorBoundedWriter = new BoundedStringWriter(errorSink, DEFAULT_OUTPUT_MAX_SIZE);
-        engine.getContext().setWriter(new PrintWriter(outputBoundedWriter));
-        engine.getContext().setErrorWriter(new PrintWriter(errorBoundedWriter));
+        context.setWriter(new PrintWriter(outputBoundedWriter));
+        context.setErrorWriter(new PrintWriter(errorBoundedWriter));
         Reader closedInput = new Reader() {
             @Override
             public int read(char[] cbuf, int off, int len) throws IOException {
@@ -303,11 +307,11 @@ public abstract class Script<E> implements Serializable {
 
             }
         };
-        engine.getContext().setReader(closedInput);
-        engine.getContext().setAttribute(ScriptEngine.FILENAME, scriptName, ScriptContext.ENGINE_SCOPE);
+        context.setReader(closedInput);
+        context.setAttribute(ScriptEngine.FILENAME, scriptName, ScriptContext.ENGINE_SCOPE);
 
         try {
-            Bindings bindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
+            Bindings bindings = context.getBindings(ScriptContext.ENGINE_SCOPE);
             //add additional bindings
             if (aBindings != null) {
                 for (Entry<String, Object> e : aBindings.entrySet()) {
@@ -315,22 +319,25 @@ public abstract class Script<E> implements Serializable {
                 }
             }
             prepareBindings(bindings);
-            Object evalResult = engine.eval(getReader());
+            Object evalResult = pooledEngine.eval(scriptName, script, getReader(), context);
 
-            engine.getContext().getErrorWriter().flush();
-            engine.getContext().getWriter().flush();
+            context.getErrorWriter().flush();
+            context.getWriter().flush();
 
             // Add output to the script result
             ScriptResult<E> result = this.getResult(evalResult, bindings);
             result.setOutput(outputBoundedWriter.toString());
 
+            ScriptEnginePool.release(pooledEngine);
             return result;
         } catch (javax.script.ScriptException e) {
+            ScriptEnginePool.release(pooledEngine);
             // drop exception cause as it might not be serializable
             ScriptException scriptException = new ScriptException(e.getMessage());
             scriptException.setStackTrace(e.getStackTrace());
             return new ScriptResult<>(scriptException);
         } catch (Throwable t) {
+            // the engine is not given back to the pool as it might be left in an unknown state
             String stack = Throwables.getStackTraceAsString(t);
             if (t.getMessage() != null) {
                 stack = t.getMessage() + System.lineSeparator() + stack;
@@ -349,20 +356,51 @@ public abstract class Script<E> implements Serializable {
 
     /** The Script Engine used to evaluate the script. */
     protected ScriptEngine createScriptEngine() {
-        for (ScriptEngineFactory factory : new ScriptEngineManager().getEngineFactories()) {
-            for (String name : factory.getNames()) {
-                if (name.equalsIgnoreCase(scriptEngineLookup)) {
-                    return factory.getScriptEngine();
-                }
+        ScriptEngineFactory factory = ScriptEnginePool.findFactory(scriptEngineLookup);
+        return factory == null ? null : createScriptEngine(factory);
+    }
+
+    /** Create a Script Engine with the factory matching the script, the engine may be reused. */
+    protected ScriptEngine createScriptEngine(ScriptEngineFactory factory) {
+        return factory.getScriptEngine();
+    }
+
+    /**
+     * Get an engine of the pool or create a new one. Engines created by a subclass overriding
+     * {@link #createScriptEngine()} are not pooled.
+     *
+     * @return the engine or null if no engine matches the script
+     */
+    private ScriptEnginePool.PooledEngine getScriptEngine() {
+        if (overridesCreateScriptEngine()) {
+            ScriptEngine engine = createScriptEngine();
+            return engine == null ? null : ScriptEnginePool.unpooled(engine);
+        }
+        ScriptEngineFactory factory = ScriptEnginePool.findFactory(scriptEngineLookup);
+        if (factory == null) {
+            return null;
+        }
+        ScriptEnginePool.PooledEngine pooledEngine = ScriptEnginePool.borrow(factory);
+        if (pooledEngine == null) {
+            ScriptEngine engine = createScriptEngine(factory);
+            if (engine == null) {
+                return null;
             }
-            for (String ext : factory.getExtensions()) {
-                String scriptEngineLookupLowercase = scriptEngineLookup.toLowerCase();
-                if (scriptEngineLookupLowercase.endsWith(ext.toLowerCase())) {
-                    return factory.getScriptEngine();
-                }
+            pooledEngine = ScriptEnginePool.add(factory, engine);
+        }
+        return pooledEngine;
+    }
+
+    private boolean overridesCreateScriptEngine() {
+        for (Class<?> type = getClass(); type != Script.class; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod("createScriptEngine");
+                return true;
+            } catch (NoSuchMethodException notOverridden) {
+                // looking at the parent class
             }
         }
-        return null;
+        return false;
     }
 
     /** Specify the variable awaited from the script execution */
@@ -0,0 +1,303 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive.scripting;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+
+/**
+ * Pool of script engines reused between script executions.
+ * <p>
+ * The engine factories are discovered once per context class loader instead of scanning
+ * the classpath at each execution, and engines are pooled per context class loader and factory.
+ * Factories and engines reference the class loader they were created with, so they are only
+ * kept for the class loaders which live as long as this class, the class loaders of tasks
+ * being left to the garbage collector. A borrowed engine is confined to the calling thread until
+ * it is released, and each execution runs in its own {@link ScriptContext} so that bindings
+ * do not leak from one script to the next. Scripts evaluated by {@link Compilable} engines
+ * are compiled once per engine and cached by content digest.
+ * <p>
+ * Engines such as Groovy keep the classes of the scripts they compiled, so an engine is
+ * discarded once it has run {@link #MAX_SCRIPTS_PER_ENGINE} different scripts.
+ */
+final class ScriptEnginePool {
+
+    /** Maximum number of idle engines kept for each engine factory */
+    static final int MAX_IDLE_ENGINES = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /** Number of different scripts after which an engine is not reused anymore */
+    static final int MAX_SCRIPTS_PER_ENGINE = 100;
+
+    private static final ConcurrentMap<ClassLoader, List<ScriptEngineFactory>> factories =
+        new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<ClassLoader, ConcurrentMap<ScriptEngineFactory, Pool>> pools =
+        new ConcurrentHashMap<>();
+
+    private ScriptEnginePool() {
+    }
+
+    /**
+     * Find the engine factory matching the given engine name or script file name.
+     *
+     * @param scriptEngineLookup name of the engine or path of a script file
+     * @return the matching factory or null if none is available
+     */
+    static ScriptEngineFactory findFactory(String scriptEngineLookup) {
+        if (scriptEngineLookup == null) {
+            return null;
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (!isKept(classLoader)) {
+            return findFactory(new ScriptEngineManager().getEngineFactories(), scriptEngineLookup);
+        }
+        List<ScriptEngineFactory> available = factories.get(classLoader);
+        if (available == null) {
+            available = new ScriptEngineManager().getEngineFactories();
+            factories.put(classLoader, available);
+        }
+        ScriptEngineFactory factory = findFactory(available, scriptEngineLookup);
+        if (factory == null) {
+            // engines may have been made available since the last scan
+            available = new ScriptEngineManager().getEngineFactories();
+            factories.put(classLoader, available);
+            factory = findFactory(available, scriptEngineLookup);
+        }
+        return factory;
+    }
+
+    private static ScriptEngineFactory findFactory(List<ScriptEngineFactory> available,
+            String scriptEngineLookup) {
+        String scriptEngineLookupLowercase = scriptEngineLookup.toLowerCase();
+        for (ScriptEngineFactory factory : available) {
+            for (String name : factory.getNames()) {
+                if (name.equalsIgnoreCase(scriptEngineLookup)) {
+                    return factory;
+                }
+            }
+            for (String ext : factory.getExtensions()) {
+                if (scriptEngineLookupLowercase.endsWith(ext.toLowerCase())) {
+                    return factory;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the factories and engines of the given class loader can be kept: the class loader
+     * of this class and its parents are never collected before this class.
+     */
+    private static boolean isKept(ClassLoader classLoader) {
+        if (classLoader == null) {
+            return false;
+        }
+        for (ClassLoader cl = ScriptEnginePool.class.getClassLoader(); cl != null; cl = cl.getParent()) {
+            if (cl == classLoader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Borrow an idle engine created by the given factory with the current context class loader.
+     * It must be given back with {@link #release(PooledEngine)} once the script is evaluated.
+     *
+     * @return the engine or null if none is idle, a new engine must be added with
+     *         {@link #add(ScriptEngineFactory, ScriptEngine)}
+     */
+    static PooledEngine borrow(ScriptEngineFactory factory) {
+        Pool pool = getPool(factory);
+        if (pool == null) {
+            return null;
+        }
+        PooledEngine engine = pool.idle.poll();
+        if (engine != null) {
+            pool.idleCount.decrementAndGet();
+        }
+        return engine;
+    }
+
+    /**
+     * Add a new engine created by the given factory with the current context class loader.
+     * It is borrowed and must be given back with {@link #release(PooledEngine)}, it is
+     * dropped then if the class loader is not kept.
+     */
+    static PooledEngine add(ScriptEngineFactory factory, ScriptEngine engine) {
+        return new PooledEngine(getPool(factory), engine);
+    }
+
+    /**
+     * Wrap an engine which is not pooled, it is dropped when given back with {@link #release(PooledEngine)}.
+     */
+    static PooledEngine unpooled(ScriptEngine engine) {
+        return new PooledEngine(null, engine);
+    }
+
+    private static Pool getPool(ScriptEngineFactory factory) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (!isKept(classLoader)) {
+            return null;
+        }
+        ConcurrentMap<ScriptEngineFactory, Pool> classLoaderPools = pools.get(classLoader);
+        if (classLoaderPools == null) {
+            ConcurrentMap<ScriptEngineFactory, Pool> newPools = new ConcurrentHashMap<>();
+            classLoaderPools = pools.putIfAbsent(classLoader, newPools);
+            if (classLoaderPools == null) {
+                classLoaderPools = newPools;
+            }
+        }
+        Pool pool = classLoaderPools.get(factory);
+        if (pool == null) {
+            Pool newPool = new Pool();
+            pool = classLoaderPools.putIfAbsent(factory, newPool);
+            if (pool == null) {
+                pool = newPool;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Give back an engine to the pool, it is dropped if it ran too many different scripts
+     * or if enough engines are already idle.
+     */
+    static void release(PooledEngine engine) {
+        Pool pool = engine.pool;
+        if (pool == null || engine.retired()) {
+            return;
+        }
+        if (pool.idleCount.incrementAndGet() > MAX_IDLE_ENGINES) {
+            pool.idleCount.decrementAndGet();
+            return;
+        }
+        pool.idle.offer(engine);
+    }
+
+    /** Number of idle engines of the given factory for the context class loader, for testing purposes */
+    static int idleEngines(ScriptEngineFactory factory) {
+        ConcurrentMap<ScriptEngineFactory, Pool> classLoaderPools = pools.get(Thread.currentThread()
+                .getContextClassLoader());
+        Pool pool = classLoaderPools == null ? null : classLoaderPools.get(factory);
+        return pool == null ? 0 : pool.idleCount.get();
+    }
+
+    private static final class Pool {
+
+        private final Queue<PooledEngine> idle = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger idleCount = new AtomicInteger();
+    }
+
+    /**
+     * An engine of the pool along with the scripts it compiled.
+     * Only accessed by the thread which borrowed it.
+     */
+    static final class PooledEngine {
+
+        private final Pool pool;
+
+        private final ScriptEngine engine;
+
+        /** Compiled scripts by digest of their name and content */
+        private final Map<HashCode, CompiledScript> compiled = new HashMap<>();
+
+        private int scriptCount;
+
+        private PooledEngine(Pool pool, ScriptEngine engine) {
+            this.pool = pool;
+            this.engine = engine;
+        }
+
+        ScriptEngine getEngine() {
+            return engine;
+        }
+
+        /**
+         * Evaluate the script read from the given reader in the given context, compiling it first
+         * if the engine supports it.
+         *
+         * @param scriptName name of the script, used in the stack traces
+         * @param script content of the script, used to find an already compiled script
+         * @param reader reader of the script to evaluate
+         * @param context the context of this evaluation
+         */
+        Object eval(String scriptName, String script, Reader reader, ScriptContext context)
+                throws ScriptException {
+            if (!(engine instanceof Compilable) || script == null) {
+                return engine.eval(reader, context);
+            }
+            HashCode digest = Hashing.sha1().newHasher().putString(String.valueOf(scriptName),
+                    StandardCharsets.UTF_8).putChar('\0').putString(script, StandardCharsets.UTF_8).hash();
+            CompiledScript compiledScript = compiled.get(digest);
+            if (compiledScript == null) {
+                compiledScript = ((Compilable) engine).compile(reader);
+                scriptCount++;
+                if (!retired()) {
+                    compiled.put(digest, compiledScript);
+                }
+            }
+            return compiledScript.eval(context);
+        }
+
+        private boolean retired() {
+            return scriptCount >= MAX_SCRIPTS_PER_ENGINE;
+        }
+    }
+
+}
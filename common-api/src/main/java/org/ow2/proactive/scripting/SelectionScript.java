@@ -87,6 +87,9 @@ public class SelectionScript extends Script<Boolean> {
      */
     protected byte[] id_;
 
+    /** MD5 hash value of the script id, computed on first use */
+    private transient byte[] digest;
+
     /** ProActive needed constructor */
     public SelectionScript() {
     }
@@ -206,6 +209,7 @@ public class SelectionScript extends Script<Boolean> {
             }
         }
 
+        this.digest = null;
         try {
             this.id_ = MessageDigest.getInstance("SHA-1").digest(stringId.getBytes());
         } catch (NoSuchAlgorithmException e) {
@@ -302,7 +306,10 @@ public class SelectionScript extends Script<Boolean> {
      * @throws NoSuchAlgorithmException
      */
     public byte[] digest() throws NoSuchAlgorithmException {
-        return MessageDigest.getInstance("MD5").digest(id_);
+        if (digest == null) {
+            digest = MessageDigest.getInstance("MD5").digest(id_);
+        }
+        return digest.clone();
     }
 
     /**
@@ -34,13 +34,22 @@
  */
 package org.ow2.proactive.scripting;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.Reader;
+import java.io.Serializable;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.script.Bindings;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
 
 import org.junit.Test;
 
@@ -91,6 +100,81 @@ public class ScriptTest {
         assertNull(result.getException());
     }
 
+    @Test
+    public void testJavaScriptEngine_Reused_Without_Previous_Bindings() throws Exception {
+        TaskScript script = new TaskScript(new SimpleScript(
+            "var firstRun = (typeof previous === 'undefined'); previous = true; firstRun", "javascript"));
+
+        ScriptResult<Serializable> first = script.execute();
+        assertTrue(ScriptEnginePool.idleEngines(ScriptEnginePool.findFactory("javascript")) > 0);
+        ScriptResult<Serializable> second = script.execute();
+
+        assertNull(first.getException());
+        assertNull(second.getException());
+        assertEquals(Boolean.TRUE, first.getResult());
+        assertEquals(Boolean.TRUE, second.getResult());
+    }
+
+    @Test
+    public void testJavaScriptEngine_Compiled_Script_Uses_Bindings() throws Exception {
+        TaskScript script = new TaskScript(new SimpleScript("args[0]", "javascript",
+            new String[] { "first" }));
+        TaskScript sameContent = new TaskScript(new SimpleScript("args[0]", "javascript",
+            new String[] { "second" }));
+
+        assertEquals("first", script.execute().getResult());
+        assertEquals("second", sameContent.execute().getResult());
+    }
+
+    @Test
+    public void testJavaScriptEngine_Not_Pooled_For_Task_Class_Loader() throws Exception {
+        TaskScript script = new TaskScript(new SimpleScript("1+1", "javascript"));
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        URLClassLoader taskClassLoader = new URLClassLoader(new URL[0], contextClassLoader);
+        thread.setContextClassLoader(taskClassLoader);
+        try {
+            assertNull(script.execute().getException());
+            assertEquals(0, ScriptEnginePool.idleEngines(ScriptEnginePool.findFactory("javascript")));
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+            taskClassLoader.close();
+        }
+    }
+
+    @Test
+    public void testJavaScriptEngine_Created_By_Subclass_Is_Always_Used() throws Exception {
+        final AtomicInteger createdEngines = new AtomicInteger();
+        SimpleScript script = new SimpleScript("1+1", "javascript") {
+            @Override
+            protected ScriptEngine createScriptEngine() {
+                createdEngines.incrementAndGet();
+                return super.createScriptEngine();
+            }
+        };
+        // an idle engine is available in the pool
+        new SimpleScript("1+1", "javascript").execute();
+
+        assertNull(script.execute().getException());
+        assertNull(script.execute().getException());
+        assertEquals(2, createdEngines.get());
+    }
+
+    @Test
+    public void testJavaScriptEngine_Reused_Without_File_Name() throws Exception {
+        new TaskScript(new SimpleScript("1+1", "javascript")).execute();
+
+        ScriptEngineFactory factory = ScriptEnginePool.findFactory("javascript");
+        ScriptEnginePool.PooledEngine engine = ScriptEnginePool.borrow(factory);
+        assertNotNull(engine);
+        try {
+            assertNull(engine.getEngine().getContext().getAttribute(ScriptEngine.FILENAME,
+                    ScriptContext.ENGINE_SCOPE));
+        } finally {
+            ScriptEnginePool.release(engine);
+        }
+    }
+
     class ScriptForTests extends Script<Object> {
 
         @Override
@@ -38,8 +38,10 @@ package org.ow2.proactive.scripting;
 
 import java.io.PrintStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.objectweb.proactive.annotation.PublicAPI;
@@ -93,6 +95,31 @@ public class ScriptHandler implements Serializable {
         return script.execute(additionalBindings, System.out, System.err);
     }
 
+    /**
+     * Execute selection scripts one after the other, in a single call.
+     * The execution stops at the first script which fails or does not select the node,
+     * as the node cannot be selected anymore. Results of static scripts are kept by the node
+     * and returned without executing them again.
+     * @param scripts the selection scripts to execute
+     * @return the results of the executed scripts, in the order of the scripts.
+     */
+    public List<ScriptResult<Boolean>> handleSelectionScripts(List<SelectionScript> scripts) {
+        SelectionScriptResultCache cache = SelectionScriptResultCache.getInstance();
+        List<ScriptResult<Boolean>> results = new ArrayList<>(scripts.size());
+        for (SelectionScript script : scripts) {
+            ScriptResult<Boolean> result = cache.get(script, additionalBindings);
+            if (result == null) {
+                result = handle(script, System.out, System.err);
+                cache.put(script, additionalBindings, result);
+            }
+            results.add(result);
+            if (result.errorOccured() || !Boolean.TRUE.equals(result.getResult())) {
+                break;
+            }
+        }
+        return results;
+    }
+
     /**
      * Add a binding to the script that will be handle by this handler.
      *
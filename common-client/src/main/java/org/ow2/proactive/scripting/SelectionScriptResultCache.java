@@ -0,0 +1,198 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2011 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive.scripting;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * Cache of the static selection scripts results, kept by the JVM of a node.
+ * <p>
+ * A static selection script is supposed to test properties of the node that do not change,
+ * so its result is kept and returned without executing the script again. Results are kept
+ * per script digest and bindings of the script, along with a snapshot of the node environment
+ * (system properties and environment variables), and are all discarded when this environment
+ * changes. Only the most recently used results are kept.
+ *
+ * @author The ProActive Team
+ */
+public class SelectionScriptResultCache {
+
+    private static final Logger logger = Logger.getLogger(SelectionScriptResultCache.class);
+
+    /** Maximum number of results kept */
+    private static final int MAX_SIZE = 256;
+
+    private static final SelectionScriptResultCache instance = new SelectionScriptResultCache();
+
+    /** script digest and bindings => result, in access order */
+    private final Map<Key, ScriptResult<Boolean>> results = new LinkedHashMap<Key, ScriptResult<Boolean>>(
+        16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ScriptResult<Boolean>> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    /** environment in which the results were computed */
+    private Map<String, String> environment = environment();
+
+    SelectionScriptResultCache() {
+    }
+
+    public static SelectionScriptResultCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the result of the given static script if it has already been executed
+     * with the same bindings in the current environment of the node.
+     *
+     * @param script a selection script
+     * @param bindings the additional bindings of the script, may be null
+     * @return the cached result or null if the script is dynamic or has not been executed
+     */
+    public ScriptResult<Boolean> get(SelectionScript script, Map<String, Object> bindings) {
+        Key key = key(script, bindings);
+        if (key == null) {
+            return null;
+        }
+        Map<String, String> current = environment();
+        ScriptResult<Boolean> result;
+        synchronized (this) {
+            checkEnvironment(current);
+            result = results.get(key);
+        }
+        if (result != null) {
+            logger.debug("Returning cached result of selection script " + script.hashCode());
+        }
+        return result;
+    }
+
+    /**
+     * Keeps the result of the given static script. Results of failed executions are not kept.
+     *
+     * @param script an executed selection script
+     * @param bindings the additional bindings the script was executed with, may be null
+     * @param result the result of its execution
+     */
+    public void put(SelectionScript script, Map<String, Object> bindings, ScriptResult<Boolean> result) {
+        if (result == null || result.errorOccured() || result.getResult() == null) {
+            return;
+        }
+        Key key = key(script, bindings);
+        if (key == null) {
+            return;
+        }
+        Map<String, String> current = environment();
+        synchronized (this) {
+            checkEnvironment(current);
+            results.put(key, result);
+        }
+    }
+
+    private void checkEnvironment(Map<String, String> current) {
+        if (!current.equals(environment)) {
+            logger.debug("Node environment changed, discarding the cached selection scripts results");
+            results.clear();
+            environment = current;
+        }
+    }
+
+    private static Key key(SelectionScript script, Map<String, Object> bindings) {
+        if (script.isDynamic()) {
+            return null;
+        }
+        try {
+            return new Key(script.digest(), bindings);
+        } catch (NoSuchAlgorithmException e) {
+            logger.warn("Cannot compute the digest of selection script " + script.hashCode(), e);
+            return null;
+        }
+    }
+
+    private static Map<String, String> environment() {
+        Map<String, String> environment = new HashMap<>();
+        for (Map.Entry<String, String> variable : System.getenv().entrySet()) {
+            environment.put("env." + variable.getKey(), variable.getValue());
+        }
+        Properties properties = System.getProperties();
+        for (String name : properties.stringPropertyNames()) {
+            environment.put("property." + name, properties.getProperty(name));
+        }
+        return environment;
+    }
+
+    private static final class Key {
+
+        private final byte[] digest;
+
+        private final Map<String, Object> bindings;
+
+        Key(byte[] digest, Map<String, Object> bindings) {
+            this.digest = digest;
+            this.bindings = bindings == null ? Collections.<String, Object> emptyMap()
+                    : new HashMap<>(bindings);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Arrays.equals(digest, other.digest) && bindings.equals(other.bindings);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(digest) + bindings.hashCode();
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.ow2.proactive.scripting;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class ScriptHandlerTest {
+
+    @Test
+    public void selection_scripts_are_executed_in_order() throws Exception {
+        ScriptHandler handler = new ScriptHandler();
+
+        List<ScriptResult<Boolean>> results = handler.handleSelectionScripts(Arrays.asList(
+                new SelectionScript("selected = true", "javascript", false), new SelectionScript(
+                    "selected = true", "javascript", true)));
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).getResult());
+        assertTrue(results.get(1).getResult());
+    }
+
+    @Test
+    public void selection_scripts_execution_stops_when_node_is_not_selected() throws Exception {
+        ScriptHandler handler = new ScriptHandler();
+
+        List<ScriptResult<Boolean>> results = handler.handleSelectionScripts(Arrays.asList(
+                new SelectionScript("selected = false", "javascript", false), new SelectionScript(
+                    "selected = true", "javascript", false)));
+
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).getResult());
+    }
+
+    @Test
+    public void selection_scripts_execution_stops_on_error() throws Exception {
+        ScriptHandler handler = new ScriptHandler();
+
+        List<ScriptResult<Boolean>> results = handler.handleSelectionScripts(Arrays.asList(
+                new SelectionScript("throw 'failure'", "javascript", false), new SelectionScript(
+                    "selected = true", "javascript", false)));
+
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).errorOccured());
+    }
+}
@@ -0,0 +1,79 @@
+package org.ow2.proactive.scripting;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class SelectionScriptResultCacheTest {
+
+    @Test
+    public void static_script_result_is_cached() throws Exception {
+        SelectionScriptResultCache cache = new SelectionScriptResultCache();
+        SelectionScript script = new SelectionScript("selected = true", "javascript", false);
+
+        assertNull(cache.get(script, null));
+        ScriptResult<Boolean> executed = new ScriptResult<>(true);
+        executed.setOutput("checked");
+        cache.put(script, null, executed);
+
+        ScriptResult<Boolean> result = cache.get(new SelectionScript("selected = true", "javascript", false),
+                null);
+        assertNotNull(result);
+        assertTrue(result.getResult());
+        assertEquals("checked", result.getOutput());
+    }
+
+    @Test
+    public void results_are_kept_per_bindings() throws Exception {
+        SelectionScriptResultCache cache = new SelectionScriptResultCache();
+        SelectionScript script = new SelectionScript("selected = value", "javascript", false);
+        Map<String, Object> selecting = Collections.<String, Object> singletonMap("value", true);
+        Map<String, Object> notSelecting = Collections.<String, Object> singletonMap("value", false);
+
+        cache.put(script, selecting, new ScriptResult<>(true));
+
+        assertNull(cache.get(script, notSelecting));
+        assertNull(cache.get(script, null));
+        assertTrue(cache.get(script, Collections.<String, Object> singletonMap("value", true)).getResult());
+    }
+
+    @Test
+    public void dynamic_script_result_is_not_cached() throws Exception {
+        SelectionScriptResultCache cache = new SelectionScriptResultCache();
+        SelectionScript script = new SelectionScript("selected = true", "javascript", true);
+
+        cache.put(script, null, new ScriptResult<>(true));
+
+        assertNull(cache.get(script, null));
+    }
+
+    @Test
+    public void failed_execution_is_not_cached() throws Exception {
+        SelectionScriptResultCache cache = new SelectionScriptResultCache();
+        SelectionScript script = new SelectionScript("selected = true", "javascript", false);
+
+        cache.put(script, null, new ScriptResult<Boolean>(new Exception("failure")));
+
+        assertNull(cache.get(script, null));
+    }
+
+    @Test
+    public void results_are_discarded_when_environment_changes() throws Exception {
+        SelectionScriptResultCache cache = new SelectionScriptResultCache();
+        SelectionScript script = new SelectionScript("selected = false", "javascript", false);
+        cache.put(script, null, new ScriptResult<>(false));
+        assertNotNull(cache.get(script, null));
+
+        System.setProperty("selection.script.result.cache.test", String.valueOf(System.nanoTime()));
+        try {
+            assertNull(cache.get(script, null));
+        } finally {
+            System.clearProperty("selection.script.result.cache.test");
+        }
+    }
+
+}
@@ -36,48 +36,151 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler;
 
-import org.objectweb.proactive.core.util.CircularArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 
+/**
+ * Buffer of the live logs of a job, shared by all the sessions reading them.
+ * <p>
+ * The logs are kept up to {@link #MAX_SIZE} characters, the oldest ones being dropped first.
+ * Each session reads the logs through its own {@link Cursor}: fetching the new logs only
+ * moves the cursor so that the logs are never copied between buffers and readers do not
+ * block the appender. The appenders of all the sessions receive the same logs, only one
+ * of them writes to the buffer at a time.
+ */
 public class JobOutput {
 
-    private CircularArrayList<String> currentLogs;
-    private CircularArrayList<String> allLogs;
+    /** Maximum number of characters of logs kept for a job */
+    static final int MAX_SIZE = 1024 * 1024;
+
+    private final int maxSize;
+
+    private final Queue<Entry> logs = new ConcurrentLinkedQueue<>();
+
+    /** Number of characters of the buffered logs */
+    private final AtomicLong size = new AtomicLong();
+
+    /** Sequence number of the last appended log */
+    private volatile long lastSequence;
+
+    /** Appender writing the logs, guarded by this */
+    private Object writer;
 
     public JobOutput() {
-        currentLogs = new CircularArrayList<>(50);
-        allLogs = new CircularArrayList<>(50);
+        this(MAX_SIZE);
+    }
+
+    JobOutput(int maxSize) {
+        this.maxSize = maxSize;
     }
 
     public synchronized void log(String message) {
-        currentLogs.add(message);
-        allLogs.add(message);
+        Entry entry = new Entry(lastSequence + 1, message);
+        logs.offer(entry);
+        lastSequence = entry.sequence;
+        size.addAndGet(message.length());
+        // the last log is always kept, even if it is larger than the buffer
+        Entry eldest = logs.peek();
+        while (size.get() > maxSize && eldest != entry) {
+            logs.poll();
+            size.addAndGet(-eldest.message.length());
+            eldest = logs.peek();
+        }
     }
 
     /**
-     * @return the logs appended since last call, i.e logs are removed when fetched
+     * @return true if the logs received by the given appender are to be written to this buffer,
+     * the appender becomes the writer if there is none
      */
-    public synchronized String fetchNewLogs() {
-        int size = currentLogs.size();
-        StringBuilder mes = new StringBuilder();
-        for (int i = 0; i < size; i++) {
-            mes.append(currentLogs.remove(0));
+    public synchronized boolean isWriter(Object appender) {
+        if (writer == null) {
+            writer = appender;
         }
-        return mes.toString();
+        return writer == appender;
     }
 
     /**
-     * @return all the logs since creation, i.e logs are not removed
+     * The given appender does not write to this buffer anymore, the next appender
+     * receiving a log becomes the writer.
      */
-    public synchronized String fetchAllLogs() {
+    public synchronized void stopWriting(Object appender) {
+        if (writer == appender) {
+            writer = null;
+        }
+    }
+
+    /**
+     * @return a cursor reading the logs from the oldest buffered one
+     */
+    public Cursor newCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * @return all the buffered logs, i.e logs are still returned by {@link Cursor#fetchNewLogs()}
+     */
+    public String fetchAllLogs() {
         StringBuilder mes = new StringBuilder();
-        for (String aSavedOutput : allLogs) {
-            mes.append(aSavedOutput);
+        for (Entry entry : logs) {
+            mes.append(entry.message);
         }
         return mes.toString();
     }
 
-    public synchronized int size() {
-        return currentLogs.size();
+    /**
+     * Read position of a session in the logs.
+     */
+    public final class Cursor {
+
+        /** Sequence number of the last fetched log */
+        private final AtomicLong readSequence = new AtomicLong();
+
+        private Cursor() {
+        }
+
+        /**
+         * @return the logs appended since last call, i.e logs are not returned twice
+         */
+        public String fetchNewLogs() {
+            while (true) {
+                long from = readSequence.get();
+                long to = from;
+                StringBuilder mes = new StringBuilder();
+                for (Entry entry : logs) {
+                    if (entry.sequence > from) {
+                        mes.append(entry.message);
+                        to = entry.sequence;
+                    }
+                }
+                if (readSequence.compareAndSet(from, to)) {
+                    return mes.toString();
+                }
+            }
+        }
+
+        /**
+         * @return the number of logs appended since last call to {@link #fetchNewLogs()}
+         */
+        public int size() {
+            Entry eldest = logs.peek();
+            if (eldest == null) {
+                return 0;
+            }
+            return (int) (lastSequence - Math.max(readSequence.get(), eldest.sequence - 1));
+        }
+    }
+
+    private static final class Entry {
+
+        private final long sequence;
+
+        private final String message;
+
+        private Entry(long sequence, String message) {
+            this.sequence = sequence;
+            this.message = message;
+        }
     }
 }
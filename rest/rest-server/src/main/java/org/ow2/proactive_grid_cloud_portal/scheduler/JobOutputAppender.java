@@ -44,19 +44,32 @@ import org.ow2.proactive.scheduler.common.exception.UnknownJobException;
 import org.ow2.proactive.scheduler.common.task.Log4JTaskLogs;
 
 
+/**
+ * Appender of the logs of a job for a session, writing to the buffer shared by the sessions
+ * and reading it with the cursor of the session.
+ */
 public class JobOutputAppender extends AppenderSkeleton {
 
-    private JobOutput jobOutput = new JobOutput();
+    private final JobOutput jobOutput;
+
+    private final JobOutput.Cursor cursor;
 
-    public JobOutputAppender() throws NotConnectedException, UnknownJobException, PermissionException {
+    public JobOutputAppender(JobOutput jobOutput) throws NotConnectedException, UnknownJobException,
+            PermissionException {
         this.name = "Appender for job output";
+        this.jobOutput = jobOutput;
+        this.cursor = jobOutput.newCursor();
 
         this.setLayout(Log4JTaskLogs.getTaskLogLayout());
     }
 
+    JobOutput getJobOutput() {
+        return jobOutput;
+    }
+
     @Override
     protected void append(LoggingEvent event) {
-        if (!super.closed) {
+        if (!super.closed && jobOutput.isWriter(this)) {
             jobOutput.log(this.layout.format(event));
         }
     }
@@ -64,6 +77,7 @@ public class JobOutputAppender extends AppenderSkeleton {
     @Override
     public void close() {
         super.closed = true;
+        jobOutput.stopWriting(this);
     }
 
     @Override
@@ -72,7 +86,7 @@ public class JobOutputAppender extends AppenderSkeleton {
     }
 
     public String fetchNewLogs() {
-        return jobOutput.fetchNewLogs();
+        return cursor.fetchNewLogs();
     }
 
     public String fetchAllLogs() {
@@ -80,6 +94,6 @@ public class JobOutputAppender extends AppenderSkeleton {
     }
 
     public int size() {
-        return jobOutput.size();
+        return cursor.size();
     }
 }
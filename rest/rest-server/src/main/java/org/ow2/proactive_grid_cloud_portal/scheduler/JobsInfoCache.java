@@ -0,0 +1,123 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2011 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+package org.ow2.proactive_grid_cloud_portal.scheduler;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ow2.proactive_grid_cloud_portal.scheduler.dto.UserJobData;
+
+
+/**
+ * Cache of the pages of jobs returned to the clients.
+ * <p>
+ * The pages are shared by all the sessions of a user and are only valid for the revision of the
+ * scheduler state they were retrieved at: the revision is incremented at each scheduler event
+ * received by {@link SchedulerStateListener} and at each job submitted, killed or removed through
+ * the REST server, so a page is never served once a job changed. The pages are not cached while
+ * the events are not received.
+ * The number of cached pages is bounded, the least recently used being removed first.
+ */
+class JobsInfoCache {
+
+    /** Maximum number of cached pages */
+    static final int MAX_PAGES = 1000;
+
+    private final Map<String, Page> pages = new LinkedHashMap<String, Page>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Page> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+
+    /**
+     * @return the key of a page of jobs as requested by the given user
+     */
+    static String key(String user, int index, int range, boolean myJobs, boolean pending, boolean running,
+            boolean finished) {
+        return user + '|' + index + '|' + range + '|' + myJobs + '|' + pending + '|' + running + '|' +
+            finished;
+    }
+
+    /**
+     * @return the page having the given key retrieved at the given revision of the scheduler state,
+     *         or null if it is not cached
+     */
+    synchronized List<UserJobData> get(String key, long revision) {
+        Page page = pages.get(key);
+        if (page == null) {
+            return null;
+        }
+        if (page.revision != revision) {
+            pages.remove(key);
+            return null;
+        }
+        return page.jobs;
+    }
+
+    /**
+     * Cache a page of jobs.
+     *
+     * @param key the key of the page
+     * @param revision the revision of the scheduler state read before retrieving the jobs
+     * @param jobs the jobs of the page
+     * @return the cached (unmodifiable) page
+     */
+    synchronized List<UserJobData> put(String key, long revision, List<UserJobData> jobs) {
+        List<UserJobData> cached = Collections.unmodifiableList(jobs);
+        pages.put(key, new Page(revision, cached));
+        return cached;
+    }
+
+    synchronized int size() {
+        return pages.size();
+    }
+
+    private static final class Page {
+
+        private final long revision;
+
+        private final List<UserJobData> jobs;
+
+        private Page(long revision, List<UserJobData> jobs) {
+            this.revision = revision;
+            this.jobs = jobs;
+        }
+    }
+
+}
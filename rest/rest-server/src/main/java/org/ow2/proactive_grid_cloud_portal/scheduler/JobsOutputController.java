@@ -37,10 +37,12 @@
 package org.ow2.proactive_grid_cloud_portal.scheduler;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.objectweb.proactive.core.util.log.ProActiveLogger;
 import org.ow2.proactive.scheduler.common.exception.NotConnectedException;
@@ -55,7 +57,11 @@ import org.apache.log4j.Logger;
 
 
 /**
- * Create, show and remove jobs output
+ * Create, show and remove jobs output.
+ * <p>
+ * Reading the logs does not lock the controller, only the creation and the removal
+ * of the appenders are serialized. The logs of a job are buffered once for all the
+ * sessions, each session reading them from its own position.
  *
  * @author The ProActive Team
  * @since ProActive Scheduling 0.9
@@ -63,27 +69,31 @@ import org.apache.log4j.Logger;
 public class JobsOutputController {
     private static final Logger LOGGER = ProActiveLogger.getLogger(JobsOutputController.class);
 
+    /** Logs of the jobs read by at least one session, by job id, guarded by itself */
+    private static final Map<String, SharedJobOutput> jobOutputs = new HashMap<>();
+
     private LogForwardingService logForwardingService;
 
-    private Map<String, JobOutputAppender> appenders = new HashMap<>();
-    private Set<String> listeningTo = new HashSet<>();
+    private final ConcurrentMap<String, JobOutputAppender> appenders = new ConcurrentHashMap<>();
+    private final Set<String> listeningTo = Collections
+            .newSetFromMap(new ConcurrentHashMap<String, Boolean>());
     private final Session session;
 
     public JobsOutputController(Session session) {
         this.session = session;
     }
 
-    public synchronized String getNewLogs(String jobId) throws LogForwardingException, NotConnectedException,
+    public String getNewLogs(String jobId) throws LogForwardingException, NotConnectedException,
             UnknownJobException, PermissionException, IOException {
         return getJobOutputAppender(jobId).fetchNewLogs();
     }
 
-    public synchronized String getAllLogs(String jobId) throws LogForwardingException, NotConnectedException,
+    public String getAllLogs(String jobId) throws LogForwardingException, NotConnectedException,
             UnknownJobException, PermissionException, IOException {
         return getJobOutputAppender(jobId).fetchAllLogs();
     }
 
-    public synchronized int availableLinesCount(String jobId) {
+    public int availableLinesCount(String jobId) {
         JobOutputAppender appender = appenders.get(jobId);
         if (appender != null) {
             return appender.size();
@@ -92,14 +102,20 @@ public class JobsOutputController {
     }
 
     public synchronized void removeAppender(String jobId) {
-        if (appenders.containsKey(jobId)) {
-            JobOutputAppender appender = appenders.remove(jobId);
+        JobOutputAppender appender = appenders.remove(jobId);
+        if (appender != null) {
             getLogForwardingService().removeAllAppenders(Log4JTaskLogs.getLoggerName(jobId));
             appender.close();
+            releaseJobOutput(jobId, appender.getJobOutput());
         }
     }
 
     public synchronized void terminate() {
+        for (Map.Entry<String, JobOutputAppender> entry : appenders.entrySet()) {
+            entry.getValue().close();
+            releaseJobOutput(entry.getKey(), entry.getValue().getJobOutput());
+        }
+        appenders.clear();
         try {
             if (logForwardingService != null) {
                 logForwardingService.terminate();
@@ -109,7 +125,7 @@ public class JobsOutputController {
         }
     }
 
-    private LogForwardingService getLogForwardingService() {
+    private synchronized LogForwardingService getLogForwardingService() {
         if (logForwardingService == null) {
             logForwardingService = new LogForwardingService(PortalConfiguration.getProperties().getProperty(
                     PortalConfiguration.scheduler_logforwardingservice_provider));
@@ -132,14 +148,57 @@ public class JobsOutputController {
         return jobOutputAppender;
     }
 
-    private JobOutputAppender createJobOutputAppender(String jobId) throws NotConnectedException,
+    private synchronized JobOutputAppender createJobOutputAppender(String jobId) throws NotConnectedException,
             UnknownJobException, PermissionException, LogForwardingException, IOException {
 
-        JobOutputAppender jobOutputAppender = new JobOutputAppender();
-        addJobOutputAppender(jobId, jobOutputAppender);
+        JobOutputAppender jobOutputAppender = appenders.get(jobId);
+        if (jobOutputAppender != null) {
+            // created by a concurrent request
+            return jobOutputAppender;
+        }
+        JobOutput jobOutput = acquireJobOutput(jobId);
+        boolean added = false;
+        try {
+            jobOutputAppender = new JobOutputAppender(jobOutput);
+            addJobOutputAppender(jobId, jobOutputAppender);
+            added = true;
+        } finally {
+            if (!added) {
+                releaseJobOutput(jobId, jobOutput);
+            }
+        }
         return jobOutputAppender;
     }
 
+    private static JobOutput acquireJobOutput(String jobId) {
+        synchronized (jobOutputs) {
+            SharedJobOutput shared = jobOutputs.get(jobId);
+            if (shared == null) {
+                shared = new SharedJobOutput();
+                jobOutputs.put(jobId, shared);
+            }
+            shared.sessions++;
+            return shared.output;
+        }
+    }
+
+    private static void releaseJobOutput(String jobId, JobOutput jobOutput) {
+        synchronized (jobOutputs) {
+            SharedJobOutput shared = jobOutputs.get(jobId);
+            if (shared != null && shared.output == jobOutput && --shared.sessions == 0) {
+                jobOutputs.remove(jobId);
+            }
+        }
+    }
+
+    /** Buffer of the logs of a job along with the number of sessions reading it */
+    private static final class SharedJobOutput {
+
+        private final JobOutput output = new JobOutput();
+
+        private int sessions;
+    }
+
     // public for tests
     public synchronized void addJobOutputAppender(String jobId, JobOutputAppender jobOutputAppender)
             throws NotConnectedException, UnknownJobException, PermissionException, LogForwardingException {
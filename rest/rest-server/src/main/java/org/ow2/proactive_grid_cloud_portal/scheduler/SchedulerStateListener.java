@@ -21,6 +21,9 @@ public class SchedulerStateListener {
 
     private static final SchedulerStateListener instance = new SchedulerStateListener();
 
+    /** Period of the check of the connection to the scheduler, in milliseconds */
+    private static final long CONNECTION_CHECK_PERIOD = 10000;
+
     public static SchedulerStateListener getInstance() {
         return instance;
     }
@@ -54,18 +57,21 @@ public class SchedulerStateListener {
 
     private final State state = new State();
 
-    private SchedulerProxyUserInterface scheduler;
+    private volatile SchedulerProxyUserInterface scheduler;
 
     private EventListener eventListener;
 
     private volatile boolean killed;
 
+    private volatile boolean listening;
+
     public void start() {
         Thread connectThread = new Thread(new Runnable() {
             @Override
             public void run() {
                 try {
                     connect();
+                    checkConnection();
                 } catch (InterruptedException e) {
                 }
             }
@@ -75,6 +81,7 @@ public class SchedulerStateListener {
 
     public void kill() {
         killed = true;
+        listening = false;
         if (scheduler != null) {
             try {
                 scheduler.disconnect();
@@ -113,6 +120,7 @@ public class SchedulerStateListener {
                     eventListener = PAActiveObject.turnActive(eventListener);
                 }
                 scheduler.addEventListener(eventListener, false, false);
+                listening = true;
             } catch (Exception e) {
                 logger.warn("no scheduler found on " + url + " retrying in 8 seconds", e);
                 if (scheduler != null) {
@@ -125,10 +133,62 @@ public class SchedulerStateListener {
         }
     }
 
+    /**
+     * The scheduler drops the listeners which do not keep up with the events or cannot be
+     * reached, disconnecting their client. Once disconnected, the revision is not incremented
+     * anymore, so the connection is checked periodically and restored.
+     */
+    private void checkConnection() throws InterruptedException {
+        while (!killed) {
+            Thread.sleep(CONNECTION_CHECK_PERIOD);
+            SchedulerProxyUserInterface connected = scheduler;
+            if (killed || connected == null || isConnected(connected)) {
+                continue;
+            }
+            logger.warn("Lost the connection to the scheduler, reconnecting");
+            listening = false;
+            // the events received meanwhile are lost
+            state.incrementRevision();
+            state.setStatus(null);
+            try {
+                PAActiveObject.terminateActiveObject(connected, true);
+            } catch (Exception e) {
+                logger.debug("Failed to terminate the scheduler proxy", e);
+            }
+            scheduler = null;
+            connect();
+        }
+    }
+
+    private static boolean isConnected(SchedulerProxyUserInterface scheduler) {
+        try {
+            return scheduler.isConnected();
+        } catch (Exception e) {
+            logger.debug("Failed to check the connection to the scheduler", e);
+            return false;
+        }
+    }
+
+    /**
+     * Increment the revision of the scheduler state after a change made through the REST server,
+     * so that the clients see the change before the corresponding event is received.
+     */
+    public void stateChanged() {
+        state.incrementRevision();
+    }
+
     public long getSchedulerStateRevision() {
         return state.getRevision();
     }
 
+    /**
+     * @return true if the events of the scheduler are received, the revision of the scheduler state
+     *         being incremented at each event
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
     public SchedulerStatus getSchedulerStatus(Scheduler scheduler) throws PermissionException,
             NotConnectedException {
         SchedulerStatus status = state.getStatus();
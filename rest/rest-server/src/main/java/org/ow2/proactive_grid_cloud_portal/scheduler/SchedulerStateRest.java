@@ -54,14 +54,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import javax.security.auth.login.LoginException;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -75,6 +79,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
@@ -199,6 +204,16 @@ public class SchedulerStateRest implements SchedulerRestInterface {
 
     private final SessionStore sessionStore = SharedSessionStore.getInstance();
 
+    /** Pages of jobs shared by the sessions of the users */
+    private static final JobsInfoCache jobsInfoCache = new JobsInfoCache();
+
+    /** Current request and response, only injected when this resource is deployed */
+    @Context
+    private HttpServletRequest httpRequest;
+
+    @Context
+    private HttpServletResponse httpResponse;
+
     private static FileSystemManager fsManager = null;
 
     static {
@@ -299,15 +314,9 @@ public class SchedulerStateRest implements SchedulerRestInterface {
     int range) throws PermissionRestException, NotConnectedRestException {
         try {
             Scheduler s = checkAccess(sessionId, "/scheduler/jobsinfo");
+            String user = sessionStore.get(sessionId).getUserName();
 
-            List<JobInfo> jobInfoList = s.getJobs(index, range,
-                    new JobFilterCriteria(false, true, true, true), DEFAULT_JOB_SORT_PARAMS);
-            List<UserJobData> userJobInfoList = new ArrayList<>(jobInfoList.size());
-            for (JobInfo jobInfo : jobInfoList) {
-                userJobInfoList.add(new UserJobData(mapper.map(jobInfo, JobInfoData.class)));
-            }
-
-            return userJobInfoList;
+            return getJobsInfo(s, user, index, range, false, true, true, true);
         } catch (NotConnectedException e) {
             throw new NotConnectedRestException(e);
         } catch (PermissionException e) {
@@ -364,15 +373,17 @@ public class SchedulerStateRest implements SchedulerRestInterface {
 
             boolean onlyUserJobs = (myJobs && user != null && user.trim().length() > 0);
 
-            List<JobInfo> jobsInfo = s.getJobs(index, range, new JobFilterCriteria(onlyUserJobs, pending,
-                running, finished), DEFAULT_JOB_SORT_PARAMS);
-            List<UserJobData> jobs = new ArrayList<>(jobsInfo.size());
-            for (JobInfo jobInfo : jobsInfo) {
-                jobs.add(new UserJobData(mapper.map(jobInfo, JobInfoData.class)));
+            // read before retrieving the jobs, so that the jobs are at least as recent as the revision
+            long revision = SchedulerStateListener.getInstance().getSchedulerStateRevision();
+            if (SchedulerStateListener.getInstance().isListening()) {
+                checkNotModified(revision, JobsInfoCache.key(user, index, range, onlyUserJobs, pending,
+                        running, finished));
             }
+            List<UserJobData> jobs = getJobsInfo(s, user, index, range, onlyUserJobs, pending, running,
+                    finished);
 
             HashMap<Long, List<UserJobData>> map = new HashMap<>(1);
-            map.put(SchedulerStateListener.getInstance().getSchedulerStateRevision(), jobs);
+            map.put(revision, jobs);
             return map;
         } catch (PermissionException e) {
             throw new PermissionRestException(e);
@@ -381,6 +392,49 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    /**
+     * Returns a page of jobs, from the cache if the scheduler state did not change since it was
+     * retrieved for the given user.
+     */
+    private List<UserJobData> getJobsInfo(Scheduler s, String user, int index, int range,
+            boolean onlyUserJobs, boolean pending, boolean running, boolean finished)
+            throws NotConnectedException, PermissionException {
+        SchedulerStateListener stateListener = SchedulerStateListener.getInstance();
+        // without the events of the scheduler the revision cannot be relied on
+        boolean cacheable = stateListener.isListening();
+        long revision = stateListener.getSchedulerStateRevision();
+        String key = JobsInfoCache.key(user, index, range, onlyUserJobs, pending, running, finished);
+        if (cacheable) {
+            List<UserJobData> cached = jobsInfoCache.get(key, revision);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        List<JobInfo> jobsInfo = s.getJobs(index, range, new JobFilterCriteria(onlyUserJobs, pending,
+            running, finished), DEFAULT_JOB_SORT_PARAMS);
+        List<UserJobData> jobs = new ArrayList<>(jobsInfo.size());
+        for (JobInfo jobInfo : jobsInfo) {
+            jobs.add(new UserJobData(mapper.map(jobInfo, JobInfoData.class)));
+        }
+        return cacheable ? jobsInfoCache.put(key, revision, jobs) : jobs;
+    }
+
+    /**
+     * Answer with HTTP 304 if the client already has the page of jobs at the given revision,
+     * otherwise set the ETag of the response.
+     */
+    private void checkNotModified(long revision, String key) {
+        if (httpRequest == null || httpResponse == null) {
+            return;
+        }
+        String etag = "\"" + revision + "-" + Integer.toHexString(key.hashCode()) + "\"";
+        if (etag.equals(httpRequest.getHeader("If-None-Match"))) {
+            throw new WebApplicationException(Response.notModified(etag).build());
+        }
+        httpResponse.setHeader("ETag", etag);
+    }
+
     /**
      * Returns the revision number of the scheduler state
      *
@@ -613,7 +667,9 @@ public class SchedulerStateRest implements SchedulerRestInterface {
     String jobId) throws NotConnectedRestException, UnknownJobRestException, PermissionRestException {
         try {
             Scheduler s = checkAccess(sessionId, "DELETE jobs/" + jobId);
-            return s.removeJob(jobId);
+            boolean removed = s.removeJob(jobId);
+            SchedulerStateListener.getInstance().stateChanged();
+            return removed;
         } catch (PermissionException e) {
             throw new PermissionRestException(e);
         } catch (UnknownJobException e) {
@@ -667,7 +723,9 @@ public class SchedulerStateRest implements SchedulerRestInterface {
     String jobId) throws NotConnectedRestException, UnknownJobRestException, PermissionRestException {
         try {
             Scheduler s = checkAccess(sessionId, "PUT jobs/" + jobId + "/kill");
-            return s.killJob(jobId);
+            boolean killed = s.killJob(jobId);
+            SchedulerStateListener.getInstance().stateChanged();
+            return killed;
         } catch (PermissionException e) {
             throw new PermissionRestException(e);
         } catch (UnknownJobException e) {
@@ -883,44 +941,14 @@ public class SchedulerStateRest implements SchedulerRestInterface {
             JobState jobState = scheduler.getJobState(jobId);
 
             List<TaskState> tasks = jobState.getTasks();
-            List<InputStream> streams = new ArrayList<>(tasks.size());
-
             Collections.sort(tasks, TaskState.COMPARE_BY_FINISHED_TIME_ASC);
 
-            for (TaskState taskState : tasks) {
-
-                InputStream inputStream = null;
-
-                try {
-                    if (taskState.isPreciousLogs()) {
-                        inputStream =
-                                retrieveTaskLogsUsingDataspaces(sessionId, jobId, taskState.getId());
-                    } else {
-                        String taskLogs = retrieveTaskLogsUsingDatabase(sessionId, jobId,
-                                taskState.getName());
-
-                        if (!taskLogs.isEmpty()) {
-                            inputStream =
-                                    IOUtils.toInputStream(taskLogs);
-                        }
-
-                        logger.warn("Retrieving truncated logs for task '" + taskState.getId() + "'");
-                    }
-                } catch (Exception e) {
-                    logger.info(
-                            "Could not retrieve logs for task " + taskState.getId()
-                                    + " (could be a non finished or killed task)", e);
-                }
-
-                if (inputStream != null) {
-                    streams.add(inputStream);
-                }
-            }
-
-            if (streams.isEmpty()) {
+            // the logs of a task are only retrieved once the logs of the previous tasks are sent
+            TaskLogsEnumeration taskLogs = new TaskLogsEnumeration(sessionId, jobId, tasks);
+            if (!taskLogs.hasMoreElements()) {
                 return null; // will produce HTTP 204 code
             } else {
-                return new SequenceInputStream(Collections.enumeration(streams));
+                return new SequenceInputStream(taskLogs);
             }
         } catch (PermissionException e) {
             throw new PermissionRestException(e);
@@ -931,6 +959,71 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    /**
+     * Retrieve the logs of a task
+     *
+     * @return the logs of the task or null if they are not available
+     */
+    private InputStream retrieveTaskLogs(String sessionId, String jobId, TaskState taskState) {
+        try {
+            if (taskState.isPreciousLogs()) {
+                return retrieveTaskLogsUsingDataspaces(sessionId, jobId, taskState.getId());
+            } else {
+                String taskLogs = retrieveTaskLogsUsingDatabase(sessionId, jobId, taskState.getName());
+
+                logger.warn("Retrieving truncated logs for task '" + taskState.getId() + "'");
+
+                if (!taskLogs.isEmpty()) {
+                    return IOUtils.toInputStream(taskLogs);
+                }
+            }
+        } catch (Exception e) {
+            logger.info(
+                    "Could not retrieve logs for task " + taskState.getId()
+                            + " (could be a non finished or killed task)", e);
+        }
+        return null;
+    }
+
+    /**
+     * Lazily retrieves the logs of the given tasks, in order, skipping the tasks without logs.
+     * Only the logs of the task being sent are kept in memory.
+     */
+    private class TaskLogsEnumeration implements Enumeration<InputStream> {
+
+        private final String sessionId;
+
+        private final String jobId;
+
+        private final Iterator<TaskState> tasks;
+
+        private InputStream next;
+
+        TaskLogsEnumeration(String sessionId, String jobId, List<TaskState> tasks) {
+            this.sessionId = sessionId;
+            this.jobId = jobId;
+            this.tasks = tasks.iterator();
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            while (next == null && tasks.hasNext()) {
+                next = retrieveTaskLogs(sessionId, jobId, tasks.next());
+            }
+            return next != null;
+        }
+
+        @Override
+        public InputStream nextElement() {
+            if (!hasMoreElements()) {
+                throw new NoSuchElementException();
+            }
+            InputStream element = next;
+            next = null;
+            return element;
+        }
+    }
+
     public InputStream retrieveTaskLogsUsingDataspaces(String sessionId, String jobId, TaskId taskId) throws PermissionRestException, IOException, NotConnectedRestException {
         String fullTaskLogsFile = "TaskLogs-" + jobId + "-" + taskId + ".log";
         return pullFile(sessionId, SchedulerConstants.USERSPACE_NAME, fullTaskLogsFile);
@@ -1512,6 +1605,7 @@ public class SchedulerStateRest implements SchedulerRestInterface {
             Job j = FlatJobFactory.getFactory().createNativeJobFromCommandsFile(command.getAbsolutePath(),
                     jobName, selectionPath, null);
             JobId id = s.submit(j);
+            SchedulerStateListener.getInstance().stateChanged();
 
             command.delete();
             if (selection != null) {
@@ -1567,6 +1661,7 @@ public class SchedulerStateRest implements SchedulerRestInterface {
             JobId jobId = workflowSubmitter.submit(
                     tmpWorkflowFile,
                     getWorkflowVariablesFromPathSegment(pathSegment));
+            SchedulerStateListener.getInstance().stateChanged();
 
             return mapper.map(jobId, JobIdData.class);
         } catch (IOException e) {
@@ -1622,6 +1717,7 @@ public class SchedulerStateRest implements SchedulerRestInterface {
                 WorkflowSubmitter workflowSubmitter = new WorkflowSubmitter(scheduler);
 
                 JobId jobId = workflowSubmitter.submit(tmpJobFile, jobVariables);
+                SchedulerStateListener.getInstance().stateChanged();
 
                 return mapper.map(jobId, JobIdData.class);
 
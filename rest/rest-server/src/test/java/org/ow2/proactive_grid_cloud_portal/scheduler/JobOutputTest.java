@@ -0,0 +1,74 @@
+package org.ow2.proactive_grid_cloud_portal.scheduler;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class JobOutputTest {
+
+    @Test
+    public void new_logs_are_fetched_once_and_all_logs_are_kept() {
+        JobOutput output = new JobOutput();
+        JobOutput.Cursor cursor = output.newCursor();
+        output.log("a");
+        output.log("b");
+
+        assertEquals(2, cursor.size());
+        assertEquals("ab", cursor.fetchNewLogs());
+        assertEquals(0, cursor.size());
+        assertEquals("", cursor.fetchNewLogs());
+
+        output.log("c");
+        assertEquals(1, cursor.size());
+        assertEquals("c", cursor.fetchNewLogs());
+        assertEquals("abc", output.fetchAllLogs());
+    }
+
+    @Test
+    public void each_cursor_fetches_the_new_logs_once() {
+        JobOutput output = new JobOutput();
+        JobOutput.Cursor first = output.newCursor();
+        output.log("a");
+        assertEquals("a", first.fetchNewLogs());
+
+        JobOutput.Cursor second = output.newCursor();
+        output.log("b");
+        assertEquals("b", first.fetchNewLogs());
+        assertEquals(2, second.size());
+        assertEquals("ab", second.fetchNewLogs());
+        assertEquals("", first.fetchNewLogs());
+    }
+
+    @Test
+    public void one_appender_writes_at_a_time() {
+        JobOutput output = new JobOutput();
+        Object first = new Object();
+        Object second = new Object();
+
+        assertTrue(output.isWriter(first));
+        assertFalse(output.isWriter(second));
+        output.stopWriting(second);
+        assertTrue(output.isWriter(first));
+        output.stopWriting(first);
+        assertTrue(output.isWriter(second));
+    }
+
+    @Test
+    public void oldest_logs_are_dropped_when_the_buffer_is_full() {
+        JobOutput output = new JobOutput(4);
+        JobOutput.Cursor cursor = output.newCursor();
+        output.log("aa");
+        output.log("bb");
+        output.log("cc");
+
+        assertEquals(2, cursor.size());
+        assertEquals("bbcc", cursor.fetchNewLogs());
+
+        output.log("dddddd");
+        assertEquals("dddddd", output.fetchAllLogs());
+        assertEquals("dddddd", cursor.fetchNewLogs());
+    }
+}
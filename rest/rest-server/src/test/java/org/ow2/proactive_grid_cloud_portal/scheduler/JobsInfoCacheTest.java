@@ -0,0 +1,87 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2011 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+package org.ow2.proactive_grid_cloud_portal.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.ow2.proactive_grid_cloud_portal.scheduler.dto.UserJobData;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+
+public class JobsInfoCacheTest {
+
+    @Test
+    public void page_valid_for_its_revision_only() throws Exception {
+        JobsInfoCache cache = new JobsInfoCache();
+        String key = JobsInfoCache.key("admin", 0, 50, false, true, true, true);
+        List<UserJobData> jobs = new ArrayList<>(Collections.singletonList(new UserJobData()));
+
+        List<UserJobData> cached = cache.put(key, 1, jobs);
+
+        assertSame(cached, cache.get(key, 1));
+        assertEquals(jobs, cached);
+        assertNull(cache.get(key, 2));
+        assertNull(cache.get(key, 1));
+    }
+
+    @Test
+    public void pages_of_users_not_shared() throws Exception {
+        assertNotEquals(JobsInfoCache.key("admin", 0, 50, false, true, true, true), JobsInfoCache.key(
+                "user", 0, 50, false, true, true, true));
+        assertNotEquals(JobsInfoCache.key("admin", 0, 50, false, true, true, true), JobsInfoCache.key(
+                "admin", 0, 50, true, true, true, true));
+    }
+
+    @Test
+    public void number_of_pages_bounded() throws Exception {
+        JobsInfoCache cache = new JobsInfoCache();
+        for (int i = 0; i < JobsInfoCache.MAX_PAGES + 10; i++) {
+            cache.put(JobsInfoCache.key("admin", i, 50, false, true, true, true), 1,
+                    new ArrayList<UserJobData>());
+        }
+
+        assertEquals(JobsInfoCache.MAX_PAGES, cache.size());
+        assertNull(cache.get(JobsInfoCache.key("admin", 0, 50, false, true, true, true), 1));
+    }
+
+}
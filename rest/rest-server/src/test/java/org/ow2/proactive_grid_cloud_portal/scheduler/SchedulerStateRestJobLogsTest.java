@@ -56,6 +56,8 @@ import org.junit.rules.TemporaryFolder;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -154,6 +156,32 @@ public class SchedulerStateRestJobLogsTest {
         assertEquals("1032", IOUtils.toString(fullLogs));
     }
 
+    @Test
+    public void job_full_logs_retrieved_lazily() throws Exception {
+        InternalTaskFlowJob jobState = new InternalTaskFlowJob();
+        InternalScriptTask task1 = new InternalScriptTask();
+        task1.setName("task1");
+        task1.setFinishedTime(1);
+        jobState.addTask(task1);
+        InternalScriptTask task2 = new InternalScriptTask();
+        task2.setName("task2");
+        task2.setFinishedTime(2);
+        jobState.addTask(task2);
+
+        when(mockScheduler.getJobState("123")).thenReturn(jobState);
+        when(mockScheduler.getTaskResult("123", "task1")).thenReturn(
+                new TaskResultImpl(task1.getId(), "result", new SimpleTaskLogs("Hello", ""), 100));
+        when(mockScheduler.getTaskResult("123", "task2")).thenReturn(
+                new TaskResultImpl(task2.getId(), "result", new SimpleTaskLogs("World", ""), 100));
+
+        InputStream fullLogs = restScheduler.jobFullLogs(validSessionId, "123", validSessionId);
+
+        verify(mockScheduler).getTaskResult("123", "task1");
+        verify(mockScheduler, never()).getTaskResult("123", "task2");
+        assertEquals("HelloWorld", IOUtils.toString(fullLogs));
+        verify(mockScheduler).getTaskResult("123", "task2");
+    }
+
     private static void addTask(InternalTaskFlowJob jobState, long finishedTime, long id) {
         InternalScriptTask task = new InternalScriptTask();
         task.setPreciousLogs(true);
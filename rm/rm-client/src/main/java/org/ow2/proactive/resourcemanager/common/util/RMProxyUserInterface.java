@@ -324,6 +324,11 @@ public class RMProxyUserInterface extends RMListenerProxy implements ResourceMan
         return target.getNodes(criteria);
     }
 
+    @Override
+    public List<NodeSet> getNodes(List<Criteria> criteria) {
+        return target.getNodes(criteria);
+    }
+
     @Override
     public List<ScriptResult<Object>> executeScript(String script, String scriptEngine, String targetType,
             Set<String> targets) {
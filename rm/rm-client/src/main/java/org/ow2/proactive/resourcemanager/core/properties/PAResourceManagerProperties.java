@@ -201,6 +201,9 @@ public enum PAResourceManagerProperties {
 
     RM_TOPOLOGY_PINGER("pa.rm.topology.pinger.class", PropertyType.STRING),
 
+    /** Max number of threads measuring the distances of new hosts in parallel */
+    RM_TOPOLOGY_PINGER_MAX_THREAD_NUMBER("pa.rm.topology.pinger.maxthreadnumber", PropertyType.INTEGER),
+
     /** Resource Manager selection process logs*/
     RM_SELECTION_LOGS_LOCATION("pa.rm.logs.selection.location", PropertyType.STRING),
 
@@ -251,6 +254,14 @@ public enum PAResourceManagerProperties {
         propertiesLoader.getProperties().setProperty(key, value);
     }
 
+    /**
+     * unsets this property
+     *
+     */
+    public void unSet() {
+        propertiesLoader.getProperties().remove(key);
+    }
+
     /**
      * Load the properties from the given file.
      * This method will clean every loaded properties before.
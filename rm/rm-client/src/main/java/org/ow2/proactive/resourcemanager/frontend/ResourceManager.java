@@ -348,6 +348,22 @@ public interface ResourceManager {
      */
     NodeSet getNodes(Criteria criteria);
 
+    /**
+     * Finds and books nodes for several computations in a single request.
+     * Criteria are served in the given order and a node is booked for one criteria at most.
+     * <p>
+     * If the selection fails for the first criteria, the exception is thrown as for {@link #getNodes(Criteria)}.
+     * If it fails for another criteria, the node sets booked for the previous criteria are returned
+     * and the remaining criteria are not served, so the returned list may be shorter than the given one.
+     * Node sets which cannot be handed out, because the client disconnected or an error occurred,
+     * are released.
+     *
+     * @param criteria list of criteria to select nodes
+     * @see {@link Criteria}
+     * @return one list of nodes per served criteria, in the order of the given criteria
+     */
+    List<NodeSet> getNodes(List<Criteria> criteria);
+
     /**
      * Releases the node after computations. The specified node is marked as free and become
      * available to other users.
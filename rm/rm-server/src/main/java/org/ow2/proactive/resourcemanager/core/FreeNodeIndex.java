@@ -0,0 +1,172 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive.resourcemanager.core;
+
+import java.security.Permission;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+
+
+/**
+ * Index of the free nodes of the resource manager.
+ * <p>
+ * Nodes are stored by url and bucketed by node source and by user permission, so
+ * that adding or removing a node is done in constant time and that nodes a client
+ * is not allowed to get can be skipped by permission instead of being scanned.
+ * <p>
+ * Returned collections are read-only views, they must not be kept after the index is modified.
+ * This class is not thread safe, it is only accessed from the RMCore active object.
+ */
+public class FreeNodeIndex {
+
+    /** free nodes by url */
+    private final Map<String, RMNode> nodes = new LinkedHashMap<>();
+
+    /** free nodes by node source name and url */
+    private final Map<String, Map<String, RMNode>> nodesBySource = new HashMap<>();
+
+    /** free nodes by user permission and url */
+    private final Map<Permission, Map<String, RMNode>> nodesByPermission = new LinkedHashMap<>();
+
+    /**
+     * Adds a node to the index.
+     *
+     * @param node the free node
+     * @return true if the node was not already in the index
+     */
+    public boolean add(RMNode node) {
+        String url = node.getNodeURL();
+        if (nodes.containsKey(url)) {
+            return false;
+        }
+        nodes.put(url, node);
+        bucket(nodesBySource, node.getNodeSource().getName()).put(url, node);
+        bucket(nodesByPermission, node.getUserPermission()).put(url, node);
+        return true;
+    }
+
+    /**
+     * Removes a node from the index.
+     *
+     * @param node the node which is not free anymore
+     * @return true if the node was in the index
+     */
+    public boolean remove(RMNode node) {
+        RMNode removed = nodes.remove(node.getNodeURL());
+        if (removed == null) {
+            return false;
+        }
+        unbucket(nodesBySource, removed.getNodeSource().getName(), removed.getNodeURL());
+        unbucket(nodesByPermission, removed.getUserPermission(), removed.getNodeURL());
+        return true;
+    }
+
+    public boolean contains(RMNode node) {
+        return nodes.containsKey(node.getNodeURL());
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * @return all the free nodes, in the order they were freed
+     */
+    public Collection<RMNode> getNodes() {
+        return Collections.unmodifiableCollection(nodes.values());
+    }
+
+    /**
+     * @param nodeSourceName the name of a node source
+     * @return the free nodes of the given node source
+     */
+    public Collection<RMNode> getNodes(String nodeSourceName) {
+        return view(nodesBySource.get(nodeSourceName));
+    }
+
+    /**
+     * @param userPermission the permission required to get a node
+     * @return the free nodes protected by the given permission
+     */
+    public Collection<RMNode> getNodes(Permission userPermission) {
+        return view(nodesByPermission.get(userPermission));
+    }
+
+    /**
+     * @return the distinct user permissions protecting the free nodes
+     */
+    public Set<Permission> getUserPermissions() {
+        return Collections.unmodifiableSet(nodesByPermission.keySet());
+    }
+
+    private static <K> Map<String, RMNode> bucket(Map<K, Map<String, RMNode>> buckets, K key) {
+        Map<String, RMNode> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new LinkedHashMap<>();
+            buckets.put(key, bucket);
+        }
+        return bucket;
+    }
+
+    private static <K> void unbucket(Map<K, Map<String, RMNode>> buckets, K key, String url) {
+        Map<String, RMNode> bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.remove(url);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    private static Collection<RMNode> view(Map<String, RMNode> bucket) {
+        if (bucket == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableCollection(bucket.values());
+    }
+
+}
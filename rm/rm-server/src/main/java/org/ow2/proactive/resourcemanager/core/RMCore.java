@@ -49,6 +49,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -192,8 +193,15 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     /** HashMaps of nodes known by the RMCore */
     private HashMap<String, RMNode> allNodes;
 
-    /** list of all free nodes */
-    private ArrayList<RMNode> freeNodes;
+    /** index of all free nodes */
+    private FreeNodeIndex freeNodes;
+
+    /** urls of the nodes which are not down, read concurrently by immediate services */
+    private final Set<String> aliveNodeUrls = Collections
+            .newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /** nodes state updated on each node event, read concurrently by immediate services */
+    private volatile RMState state = new RMState(0, 0, 0);
 
     private SelectionManager selectionManager;
 
@@ -259,7 +267,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         nodeSources = new HashMap<>();
         brokenNodeSources = new ArrayList<>();
         allNodes = new HashMap<>();
-        freeNodes = new ArrayList<>();
+        freeNodes = new FreeNodeIndex();
 
         this.accountsManager = new RMAccountsManager();
         this.jmxHelper = new RMJMXHelper(this.accountsManager);
@@ -329,7 +337,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
             nodesCleaner = (NodesCleaner) PAActiveObject.newActive(NodesCleaner.class.getName(),
                     new Object[] { PAActiveObject.getStubOnThis() }, nodeRM);
 
-            topologyManager = new TopologyManager();
+            topologyManager = new TopologyManager(dataBaseManager);
 
             nodeConfigurator = (RMNodeConfigurator) PAActiveObject.newActive(RMNodeConfigurator.class
                     .getName(), new Object[] { PAActiveObject.getStubOnThis() }, nodeRM);
@@ -744,7 +752,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
 
         // temporary list to avoid concurrent modification
         List<RMNode> nodelList = new LinkedList<>();
-        nodelList.addAll(freeNodes);
+        nodelList.addAll(freeNodes.getNodes(nodeSourceName));
 
         logger.debug("Free nodes size " + nodelList.size());
         for (RMNode node : nodelList) {
@@ -753,10 +761,8 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
                 break;
             }
 
-            if (node.getNodeSource().getName().equals(nodeSourceName)) {
-                removeNode(node.getNodeURL(), preemptive);
-                numberOfRemovedNodes++;
-            }
+            removeNode(node.getNodeURL(), preemptive);
+            numberOfRemovedNodes++;
         }
 
         nodelList.clear();
@@ -945,6 +951,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         logger.info("RMCore shutdown request");
         this.monitoring.rmEvent(new RMEvent(RMEventType.SHUTTING_DOWN));
         this.toShutDown = true;
+        topologyManager.shutdown();
 
         if (nodeSources.size() == 0) {
             finalizeShutdown();
@@ -961,20 +968,6 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     // Methods called by RMUser, override RMCoreInterface
     // ----------------------------------------------------------------------
 
-    /**
-     * Gives total number of alive nodes handled by RM
-     * @return total number of alive nodes
-     */
-    private int getTotalAliveNodesNumber() {
-        // TODO get the number of alive nodes in a more effective way
-        int count = 0;
-        for (RMNode node : allNodes.values()) {
-            if (!node.isDown())
-                count++;
-        }
-        return count;
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -1113,6 +1106,26 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<NodeSet> getNodes(List<Criteria> criteria) {
+        for (Criteria c : criteria) {
+            if (c.getSize() <= 0) {
+                throw new IllegalArgumentException("Illegal node number " + c.getSize());
+            }
+            if (c.getTopology() == null) {
+                c.setTopology(TopologyDescriptor.ARBITRARY);
+            }
+        }
+        if (this.toShutDown) {
+            // if the resource manager is about to shutdown, do not provide any node
+            return new ArrayList<>();
+        }
+        return selectionManager.selectNodes(criteria, caller);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1150,7 +1163,9 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     /**
      * Gets RM monitoring stub
      */
+    @ImmediateService
     public RMMonitoring getMonitoring() {
+        checkImmediateServicePermission("getMonitoring");
         try {
             // return the stub on RMMonitoring interface to keep avoid using server class on client side
             return PAActiveObject.lookupActive(RMMonitoring.class, PAActiveObject.getUrl(monitoring));
@@ -1160,16 +1175,16 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * Served immediately from the alive nodes maintained on node events, so that
+     * it is not queued behind node selection requests.
+     */
     @Override
+    @ImmediateService
     public Set<String> listAliveNodeUrls() {
-        HashSet<String> aliveNodes = new HashSet<>();
-        for (String nodeurl : allNodes.keySet()) {
-            RMNode node = allNodes.get(nodeurl);
-            if (!node.isDown()) {
-                aliveNodes.add(nodeurl);
-            }
-        }
-        return aliveNodes;
+        checkImmediateServicePermission("listAliveNodeUrls");
+        return new HashSet<>(aliveNodeUrls);
     }
 
     @Override
@@ -1301,9 +1316,25 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     }
 
     private void registerAndEmitNodeEvent(final RMNodeEvent event) {
+        // updating the state read by immediate services before anybody is notified
+        if (event.getEventType() == RMEventType.NODE_REMOVED || event.getNodeState() == NodeState.DOWN) {
+            aliveNodeUrls.remove(event.getNodeUrl());
+        } else {
+            aliveNodeUrls.add(event.getNodeUrl());
+        }
+        state = new RMState(freeNodes.size(), aliveNodeUrls.size(), allNodes.size());
         this.monitoring.nodeEvent(event);
     }
 
+    /**
+     * Immediate services are not served by {@link #runActivity(Body)}, so the method call
+     * permission of the caller is checked here.
+     */
+    private void checkImmediateServicePermission(String methodName) {
+        checkMethodCallPermission(methodName, PAActiveObject.getContext().getCurrentRequest()
+                .getSourceBodyID());
+    }
+
     /**
      * Removed a node with given url from the internal structures of the core.
      *
@@ -1321,7 +1352,32 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     }
 
     public ArrayList<RMNode> getFreeNodes() {
-        return freeNodes;
+        return new ArrayList<>(freeNodes.getNodes());
+    }
+
+    /**
+     * Returns the distinct user permissions protecting the free nodes.
+     * The selection manager checks them once per request and then asks only
+     * for the free nodes the client is allowed to get.
+     *
+     * @return the user permissions of the free nodes
+     */
+    public ArrayList<Permission> getFreeNodesPermissions() {
+        return new ArrayList<>(freeNodes.getUserPermissions());
+    }
+
+    /**
+     * Returns the free nodes protected by one of the given user permissions.
+     *
+     * @param userPermissions permissions the client has been checked against
+     * @return the free nodes the client may get
+     */
+    public ArrayList<RMNode> getFreeNodes(List<Permission> userPermissions) {
+        ArrayList<RMNode> result = new ArrayList<>();
+        for (Permission permission : userPermissions) {
+            result.addAll(freeNodes.getNodes(permission));
+        }
+        return result;
     }
 
     /**
@@ -1396,8 +1452,9 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     /**
      * {@inheritDoc}
      */
+    @ImmediateService
     public RMState getState() {
-        RMState state = new RMState(freeNodes.size(), getTotalAliveNodesNumber(), allNodes.size());
+        checkImmediateServicePermission("getState");
         return state;
     }
 
@@ -0,0 +1,93 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s): ActiveEon Team - http://www.activeeon.com
+ *
+ * ################################################################
+ * $$ACTIVEEON_CONTRIBUTOR$$
+ */
+package org.ow2.proactive.resourcemanager.db;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+
+/**
+ * Distance measured between two hosts by the topology manager, kept to avoid
+ * pinging again at restart the hosts which were already known. There is one row
+ * per pair of hosts, the host address being lower than the other one.
+ */
+@Entity
+@Table(name = "HostDistance", uniqueConstraints = @UniqueConstraint(columnNames = { "host", "otherHost" }))
+public class HostDistance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "HOST_DISTANCE_ID_SEQUENCE")
+    @SequenceGenerator(name = "HOST_DISTANCE_ID_SEQUENCE", sequenceName = "HOST_DISTANCE_ID_SEQUENCE")
+    @SuppressWarnings("unused")
+    protected long id;
+
+    @Column(name = "host", nullable = false)
+    protected String host;
+
+    @Column(name = "otherHost", nullable = false)
+    protected String otherHost;
+
+    @Column(name = "distance")
+    protected long distance;
+
+    public HostDistance() {
+    }
+
+    public HostDistance(String host, String otherHost, long distance) {
+        this.host = host;
+        this.otherHost = otherHost;
+        this.distance = distance;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public String getOtherHost() {
+        return otherHost;
+    }
+
+    public long getDistance() {
+        return distance;
+    }
+}
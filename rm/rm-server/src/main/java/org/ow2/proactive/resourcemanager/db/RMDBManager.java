@@ -122,6 +122,7 @@ public class RMDBManager {
             configuration.addAnnotatedClass(NodeHistory.class);
             configuration.addAnnotatedClass(UserHistory.class);
             configuration.addAnnotatedClass(Alive.class);
+            configuration.addAnnotatedClass(HostDistance.class);
             if (drop) {
                 configuration.setProperty("hibernate.hbm2ddl.auto", "create");
 
@@ -357,6 +358,40 @@ public class RMDBManager {
         });
     }
 
+    public List<HostDistance> getHostDistances() {
+        return runWithoutTransaction(new SessionWork<List<HostDistance>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            List<HostDistance> executeWork(Session session) {
+                Query query = session.createQuery("from HostDistance");
+                return (List<HostDistance>) query.list();
+            }
+        });
+    }
+
+    /**
+     * Stores the distances, replacing the ones already stored for the same pairs of hosts.
+     * Synchronized so that concurrent measurements do not insert the same pair twice.
+     */
+    public synchronized void saveHostDistances(final Collection<HostDistance> hostDistances) {
+        runWithTransaction(new SessionWork<Void>() {
+            @Override
+            Void executeWork(Session session) {
+                for (HostDistance hostDistance : hostDistances) {
+                    int updated = session.createQuery(
+                            "update HostDistance set distance = :distance " +
+                                "where host = :host and otherHost = :otherHost").setParameter("distance",
+                            hostDistance.getDistance()).setParameter("host", hostDistance.getHost())
+                            .setParameter("otherHost", hostDistance.getOtherHost()).executeUpdate();
+                    if (updated == 0) {
+                        session.save(hostDistance);
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
     /**
      * @return prev alive time
      */
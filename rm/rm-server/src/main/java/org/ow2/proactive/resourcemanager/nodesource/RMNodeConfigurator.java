@@ -102,7 +102,7 @@ public class RMNodeConfigurator implements RunActive {
             rmnodeToAdd.setJMXUrl(JMXTransportProtocol.RO, nodeToAdd.getProperty(RMNodeStarter.JMX_URL +
                 JMXTransportProtocol.RO));
 
-            // blocking call involving running ping process on the node
+            // the distances to the other hosts are measured asynchronously
             if (PAResourceManagerProperties.RM_TOPOLOGY_ENABLED.getValueAsBoolean()) {
                 RMCore.topologyManager.addNode(nodeToAdd);
             }
@@ -54,6 +54,7 @@ import org.ow2.proactive.scripting.SelectionScript;
 import java.io.Serializable;
 import java.security.Permission;
 import java.util.HashMap;
+import java.util.List;
 
 
 /**
@@ -164,6 +165,13 @@ public final class RMDeployingNode implements RMNode, Serializable {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public List<ScriptResult<Boolean>> executeScripts(List<SelectionScript> scripts) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -38,6 +38,7 @@ package org.ow2.proactive.resourcemanager.rmnode;
 
 import java.security.Permission;
 import java.util.HashMap;
+import java.util.List;
 
 import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.node.NodeException;
@@ -83,6 +84,14 @@ public interface RMNode extends Comparable<RMNode> {
      */
     <T> ScriptResult<T> executeScript(Script<T> script);
 
+    /**
+     * Execute {@link SelectionScript}s one after the other on this {@link RMNode}, in a single call.
+     * The execution stops at the first script which fails or does not select the node.
+     * @param scripts the selection scripts to execute.
+     * @return the {@link ScriptResult}s of the executed scripts, in the order of the scripts.
+     */
+    List<ScriptResult<Boolean>> executeScripts(List<SelectionScript> scripts);
+
     /**
      * Get a map of all selection scripts already tested on this node,
      * and the responses given.
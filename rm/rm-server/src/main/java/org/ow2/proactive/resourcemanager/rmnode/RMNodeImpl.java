@@ -39,7 +39,9 @@ package org.ow2.proactive.resourcemanager.rmnode;
 import java.io.IOException;
 import java.io.Serializable;
 import java.security.Permission;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
 import org.objectweb.proactive.core.descriptor.data.VirtualNode;
 import org.objectweb.proactive.core.node.Node;
@@ -367,6 +369,21 @@ public class RMNodeImpl implements RMNode, Serializable {
         return this.handler.handle(script);
     }
 
+    /**
+     * Execute selection scripts in order to test the Node, with a single call to the script handler.
+     * If no script handler is defined, create one, and execute the scripts.
+     * @param scripts Selection scripts to execute
+     * @return Results of the executed scripts.
+     */
+    public List<ScriptResult<Boolean>> executeScripts(List<SelectionScript> scripts) {
+        try {
+            this.initHandler();
+        } catch (NodeException e) {
+            return Collections.singletonList(new ScriptResult<Boolean>(e));
+        }
+        return this.handler.handleSelectionScripts(scripts);
+    }
+
     /**
      * Clean the node.
      * kill all active objects on the node.
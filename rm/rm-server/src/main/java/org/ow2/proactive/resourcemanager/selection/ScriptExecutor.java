@@ -36,6 +36,7 @@
  */
 package org.ow2.proactive.resourcemanager.selection;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -81,84 +82,87 @@ public class ScriptExecutor implements Callable<Node> {
      * returns node if it matches, null otherwise
      */
     private Node executeScripts() {
-        //LinkedList<ScriptResult<Boolean>> scriptExecitionResults = new LinkedList<ScriptResult<Boolean>>();
         boolean selectionScriptSpecified = selectionScriptList != null && selectionScriptList.size() > 0;
         boolean nodeMatch = true;
         ScriptException exception = null;
 
         if (selectionScriptSpecified) {
-            // initializing parallel script execution
+            List<SelectionScript> scriptsToExecute = new ArrayList<>(selectionScriptList.size());
             for (SelectionScript script : selectionScriptList) {
                 if (manager.isPassed(script, rmnode)) {
                     // already executed static script
                     logger.info(rmnode.getNodeURL() + " : " + script.hashCode() +
                         " skipping script execution");
-                    //scriptExecitionResults.add(new ScriptResult<Boolean>(true));
                     continue;
                 }
+                scriptsToExecute.add(script);
+            }
 
-                logger.info(rmnode.getNodeURL() + " : " + script.hashCode() + " executing");
+            if (!scriptsToExecute.isEmpty()) {
+                logger.info(rmnode.getNodeURL() + " : executing " + scriptsToExecute.size() + " script(s)");
                 try {
-                    ScriptResult<Boolean> scriptResult = rmnode.executeScript(script);
-
-                    // SCHEDULING-883 : scripts must be executed sequentially to avoid unexpected script side effect
-                    //scriptExecitionResults.add(scriptResult);
+                    // SCHEDULING-883 : scripts must be executed sequentially to avoid unexpected
+                    // script side effect, the node executes them one after the other in a single call
+                    List<ScriptResult<Boolean>> scriptResults = rmnode.executeScripts(scriptsToExecute);
 
-                    // processing the results
-                    if (!MOP.isReifiedObject(scriptResult) && scriptResult.getException() != null) {
+                    if (!MOP.isReifiedObject(scriptResults) && !scriptResults.isEmpty() &&
+                        scriptResults.get(0).getException() != null) {
                         // could not create script execution handler
                         // probably the node id down
-                        logger.warn(rmnode.getNodeURL() + " : " + script.hashCode() + " exception",
-                                scriptResult.getException());
+                        logger.warn(rmnode.getNodeURL() + " : exception", scriptResults.get(0)
+                                .getException());
                         logger.warn(rmnode.getNodeURL() + " : pinging the node");
                         rmnode.getNodeSource().pingNode(rmnode.getNode());
 
                         nodeMatch = false;
-                        break;
                     } else {
-
                         try {
-                            PAFuture.waitFor(scriptResult,
-                                    PAResourceManagerProperties.RM_SELECT_SCRIPT_TIMEOUT.getValueAsInt());
+                            PAFuture.waitFor(scriptResults, (long) scriptsToExecute.size() *
+                                PAResourceManagerProperties.RM_SELECT_SCRIPT_TIMEOUT.getValueAsInt());
                         } catch (ProActiveTimeoutException e) {
                             // do not produce an exception here
                             nodeMatch = false;
-                            break;
-                        }
-
-                        if (scriptResult != null && scriptResult.errorOccured()) {
-                            nodeMatch = false;
-                            exception = new ScriptException(scriptResult.getException());
-                            logger.warn(rmnode.getNodeURL() + " : exception during the script execution",
-                                    scriptResult.getException());
-                            break;
                         }
 
-                        if (logger.isDebugEnabled()) {
-                            if (scriptResult.getResult()) {
-                                logger.debug(rmnode.getNodeURL() + " : " + script.hashCode() + " result " +
-                                    scriptResult.getResult());
-                            }
-                            if (scriptResult.getOutput() != null && scriptResult.getOutput().length() > 0) {
-                                logger.debug(rmnode.getNodeURL() + " : " + script.hashCode() + " output\n" +
-                                    scriptResult.getOutput());
+                        if (nodeMatch) {
+                            // the node stops at the first script which does not select it
+                            nodeMatch = scriptResults.size() == scriptsToExecute.size();
+                            for (int i = 0; i < scriptResults.size(); i++) {
+                                SelectionScript script = scriptsToExecute.get(i);
+                                ScriptResult<Boolean> scriptResult = scriptResults.get(i);
+
+                                if (scriptResult.errorOccured()) {
+                                    nodeMatch = false;
+                                    exception = new ScriptException(scriptResult.getException());
+                                    logger.warn(rmnode.getNodeURL() + " : exception during the script " +
+                                        "execution", scriptResult.getException());
+                                    break;
+                                }
+
+                                if (logger.isDebugEnabled()) {
+                                    logger.debug(rmnode.getNodeURL() + " : " + script.hashCode() +
+                                        " result " + scriptResult.getResult());
+                                    String output = scriptResult.getOutput();
+                                    if (output != null && output.length() > 0) {
+                                        logger.debug(rmnode.getNodeURL() + " : " + script.hashCode() +
+                                            " output\n" + output);
+                                    }
+                                }
+
+                                // processing script result and updating knowledge base of
+                                // selection manager at the same time. Returns whether node is selected.
+                                if (!manager.processScriptResult(script, scriptResult, rmnode)) {
+                                    nodeMatch = false;
+                                    break;
+                                }
                             }
                         }
-
-                        // processing script result and updating knowledge base of
-                        // selection manager at the same time. Returns whether node is selected.
-                        if (!manager.processScriptResult(script, scriptResult, rmnode)) {
-                            nodeMatch = false;
-                            break;
-                        }
-
                     }
                 } catch (Exception ex) {
-                    // proactive or network exception occurred when script was executed
-                    logger.warn(rmnode.getNodeURL() + " : " + script.hashCode() + " exception", ex);
+                    // proactive or network exception occurred when scripts were executed
+                    logger.warn(rmnode.getNodeURL() + " : exception", ex);
                     nodeMatch = false;
                     exception = new ScriptException(ex);
-                    break;
                 }
             }
         }
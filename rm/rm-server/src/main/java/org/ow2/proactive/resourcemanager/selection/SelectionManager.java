@@ -195,6 +195,63 @@ public abstract class SelectionManager {
 
     }
 
+    /**
+     * Selects nodes for several criteria in the order of the list.
+     * Nodes are marked busy as soon as they are selected for a criteria,
+     * so that they cannot be selected for the next ones.
+     * <p>
+     * If the selection fails for a criteria other than the first one, the node sets
+     * booked so far are returned to the client. If they cannot be handed out (the client
+     * disconnected or an error is thrown), they are released.
+     *
+     * @param criteria list of criteria to select nodes
+     * @param client the client requesting the nodes
+     * @return one node set per served criteria, the list is shorter than the given one
+     * if the selection failed for a criteria other than the first one, null if the client
+     * disconnected
+     */
+    public List<NodeSet> selectNodes(List<Criteria> criteria, Client client) {
+        ArrayList<NodeSet> result = new ArrayList<>(criteria.size());
+        for (Criteria c : criteria) {
+            NodeSet nodeSet;
+            try {
+                nodeSet = selectNodes(c, client);
+            } catch (RuntimeException e) {
+                if (result.isEmpty()) {
+                    throw e;
+                }
+                // the nodes booked so far are returned, the failing criteria
+                // will be requested again on its own by the client
+                logger.warn("Selection failed for " + client + ", returning " + result.size() +
+                    " node sets out of " + criteria.size(), e);
+                break;
+            } catch (Error e) {
+                releaseNodes(result);
+                throw e;
+            }
+            if (nodeSet == null) {
+                // client has disconnected during getNodes request
+                releaseNodes(result);
+                return null;
+            }
+            result.add(nodeSet);
+        }
+        return result;
+    }
+
+    /**
+     * Gives back node sets which were booked but cannot be handed out to the client.
+     */
+    private void releaseNodes(List<NodeSet> nodeSets) {
+        for (NodeSet nodeSet : nodeSets) {
+            try {
+                rmcore.releaseNodes(nodeSet);
+            } catch (RuntimeException e) {
+                logger.warn("Cannot release nodes " + nodeSet, e);
+            }
+        }
+    }
+
     static void maybeSetLoggingContext(Criteria criteria) {
         if (criteria.getComputationDescriptors() != null) {
             // logging selection script execution into tasks logs
@@ -231,10 +288,9 @@ public abstract class SelectionManager {
         // can throw Exception if topology is disabled
         TopologyHandler handler = RMCore.topologyManager.getHandler(criteria.getTopology());
 
-        List<RMNode> freeNodes = rmcore.getFreeNodes();
-        // filtering out the "free node list"
-        // removing exclusion and checking permissions
-        List<RMNode> filteredNodes = filterOut(freeNodes, criteria, client);
+        // getting the free nodes the client is allowed to get
+        // removing exclusion and nodes with other tokens
+        List<RMNode> filteredNodes = filterOut(criteria, client);
 
         if (filteredNodes.size() == 0) {
             if (loggerIsDebugEnabled) {
@@ -443,9 +499,11 @@ public abstract class SelectionManager {
     }
 
     /**
-     * Removes exclusion nodes and nodes not accessible for the client
+     * Gets the free nodes accessible for the client and removes exclusion nodes.
+     * Permissions are checked once per distinct user permission of the free nodes,
+     * so that nodes the client cannot access are neither transferred nor scanned.
      */
-    private List<RMNode> filterOut(List<RMNode> freeNodes, Criteria criteria, Client client) {
+    private List<RMNode> filterOut(Criteria criteria, Client client) {
 
         NodeSet exclusion = criteria.getBlackList();
 
@@ -461,22 +519,24 @@ public abstract class SelectionManager {
         }
 
         List<RMNode> filteredList = new ArrayList<>();
-        HashSet<Permission> clientPermissions = new HashSet<>();
-        for (RMNode node : freeNodes) {
+        ArrayList<Permission> clientPermissions = new ArrayList<>();
+        for (Permission permission : rmcore.getFreeNodesPermissions()) {
             // checking the permission
             try {
-                if (!clientPermissions.contains(node.getUserPermission())) {
-                    client.checkPermission(node.getUserPermission(), client +
-                        " is not authorized to get the node " + node.getNodeURL() + " from " +
-                        node.getNodeSource().getName());
-                    clientPermissions.add(node.getUserPermission());
-                }
+                client.checkPermission(permission, client + " is not authorized to get the nodes protected by " +
+                    permission);
+                clientPermissions.add(permission);
             } catch (SecurityException e) {
-                // client does not have an access to this node
+                // client does not have an access to these nodes
                 logger.debug(e.getMessage());
-                continue;
             }
+        }
+
+        if (clientPermissions.isEmpty()) {
+            return filteredList;
+        }
 
+        for (RMNode node : rmcore.getFreeNodes(clientPermissions)) {
             // if the node access token is specified we filtered out all nodes
             // with other tokens but must also filter out nodes without tokens
             if (nodeWithTokenRequested && !node.isProtectedByToken()) {
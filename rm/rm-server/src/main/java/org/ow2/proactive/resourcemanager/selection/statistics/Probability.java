@@ -36,9 +36,6 @@
  */
 package org.ow2.proactive.resourcemanager.selection.statistics;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
 
 
@@ -53,43 +50,40 @@ import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProper
  * 3. By calling "decrease" method it goes to 0 but never reach it. <BR>
  * 4. By calling "increase" method N times and then "decrease" method N times
  * it goes to the initial value.<BR>
+ *
+ * Instances are immutable, "increase" and "decrease" return the new probability,
+ * so they can be shared between threads without synchronization.
  */
 public class Probability {
 
     public static final Probability ZERO = new Probability(0);
     public static final Probability ONE = new Probability(1);
 
-    private static Timer timer = new Timer("resourcemanager.selection.statistics.Probability timer", true);
-    private int step = 0;
-    private double probability = calcProbability(step);
-
-    private class RestoreProbabilityTask extends TimerTask {
-
-        private final double probability;
-
-        private RestoreProbabilityTask(double probability) {
-            this.probability = probability;
-        }
-
-        @Override
-        public void run() {
-            synchronized (Probability.this) {
-                Probability.this.probability = probability;
-            }
-        }
-    }
+    private final int step;
+    private final double probability;
+    /** Time until which the probability is paused to zero, 0 if it is not paused */
+    private final long pausedUntil;
 
     /**
      * Creates an object with given probability
      */
     public Probability(double probability) {
+        this(0, probability, 0);
+    }
+
+    private Probability(int step, double probability, long pausedUntil) {
+        this.step = step;
         this.probability = probability;
+        this.pausedUntil = pausedUntil;
     }
 
     /**
      * Returns the probability value
      */
-    public synchronized double value() {
+    public double value() {
+        if (pausedUntil != 0 && System.currentTimeMillis() < pausedUntil) {
+            return 0;
+        }
         return probability;
     }
 
@@ -101,35 +95,35 @@ public class Probability {
     }
 
     /**
-     * Sets the probability to zero until the timer restores it.
+     * Returns a probability set to zero until the dynamicity period is elapsed, it is
+     * then restored to a decreased value when read.
      * It's done to pause the permanent execution of dynamic selection scripts
      */
-    public synchronized void decrease() {
-
-        if (probability > 0 && probability < 1) {
+    public Probability decrease() {
+        double value = value();
+        if (value > 0 && value < 1) {
             // setting the probability to 0 to timeout the script execution on this node
-            // and scheduling the timer
-            probability = calcProbability(--step);
-            timer.schedule(new RestoreProbabilityTask(probability),
-                    PAResourceManagerProperties.RM_SELECT_SCRIPT_NODE_DYNAMICITY.getValueAsInt());
+            return new Probability(step - 1, calcProbability(step - 1), System.currentTimeMillis() +
+                PAResourceManagerProperties.RM_SELECT_SCRIPT_NODE_DYNAMICITY.getValueAsInt());
+        } else if (value == 0) {
+            return this;
         }
-
-        probability = 0;
+        return ZERO;
     }
 
     /**
-     * Increases the probability
+     * Returns the increased probability
      */
-    public synchronized void increase() {
-        probability = calcProbability(++step);
+    public Probability increase() {
+        return new Probability(step + 1, calcProbability(step + 1), 0);
     }
 
     /**
      * Returns string probability representation
      */
     @Override
-    public synchronized String toString() {
-        return String.valueOf(probability);
+    public String toString() {
+        return String.valueOf(value());
     }
 
     private static double calcProbability(int step) {
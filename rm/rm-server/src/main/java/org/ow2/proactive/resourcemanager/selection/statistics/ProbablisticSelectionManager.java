@@ -40,8 +40,10 @@ import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.extensions.annotation.ActiveObject;
@@ -67,6 +69,7 @@ import org.ow2.proactive.scripting.SelectionScript;
  * gives an optimal strategy for scripts execution. For several scripts join probabilities
  * are calculated for each nodes.
  *
+ * Probabilities are read and updated concurrently by the script execution threads without locking.
  */
 @ActiveObject
 public class ProbablisticSelectionManager extends SelectionManager {
@@ -75,23 +78,20 @@ public class ProbablisticSelectionManager extends SelectionManager {
 
     // contains an information about already executed scripts
     // script digest => node => probability
-    private HashMap<String, HashMap<String, Probability>> probabilities;
+    private final ConcurrentHashMap<String, ScriptProbabilities> probabilities = new ConcurrentHashMap<>();
 
     // in order to avoid OOM when the number of scripts exceeds the limit
-    // we could :
-    // 1. Reset all the probabilities for all scripts (simple but long to recover performance)
-    // 2. Remove the oldest script execution results (too expensive and complicated)
-    //	  need to store the time, update it each time, then sort when removing
-    //    the system will be too CPU consuming working on the limit
-    // 3. Removed the oldest added script. For this we have this queue. 
-    private LinkedList<String> digestQueue = new LinkedList<>();
+    // the least recently used script is removed, scripts record the value
+    // of this clock each time they are used
+    private final AtomicLong clock = new AtomicLong();
+
+    private final Object evictionLock = new Object();
 
     public ProbablisticSelectionManager() {
     }
 
     public ProbablisticSelectionManager(RMCore rmcore) {
         super(rmcore);
-        this.probabilities = new HashMap<>();
     }
 
     /**
@@ -115,16 +115,22 @@ public class ProbablisticSelectionManager extends SelectionManager {
         }
 
         try {
+            // the probabilities of each script are looked up once for all the nodes
+            List<ScriptProbabilities> scriptsProbabilities = new ArrayList<>(scripts.size());
+            for (SelectionScript script : scripts) {
+                scriptsProbabilities.add(getScriptProbabilities(script));
+            }
+
             // finding intersection
             HashMap<RMNode, Probability> intersectionMap = new HashMap<>();
             for (RMNode rmnode : nodes) {
                 boolean intersection = true;
                 double intersectionProbability = 1;
-                for (SelectionScript script : scripts) {
-                    String digest = new String(script.digest());
-                    if (probabilities.containsKey(digest) &&
-                        probabilities.get(digest).containsKey(rmnode.getNodeURL())) {
-                        double probability = probabilities.get(digest).get(rmnode.getNodeURL()).value();
+                for (ScriptProbabilities scriptProbabilities : scriptsProbabilities) {
+                    Probability nodeProbability = scriptProbabilities == null ? null : scriptProbabilities
+                            .get(rmnode.getNodeURL());
+                    if (nodeProbability != null) {
+                        double probability = nodeProbability.value();
                         if (probability == 0) {
                             intersection = false;
                             break;
@@ -173,13 +179,12 @@ public class ProbablisticSelectionManager extends SelectionManager {
      * @return true if script will pass on the node
      */
     @Override
-    public synchronized boolean isPassed(SelectionScript script, RMNode rmnode) {
-        String digest;
+    public boolean isPassed(SelectionScript script, RMNode rmnode) {
         try {
-            digest = new String(script.digest());
-            if (probabilities.containsKey(digest) &&
-                probabilities.get(digest).containsKey(rmnode.getNodeURL())) {
-                Probability p = probabilities.get(digest).get(rmnode.getNodeURL());
+            ScriptProbabilities scriptProbabilities = getScriptProbabilities(script);
+            Probability p = scriptProbabilities == null ? null : scriptProbabilities.get(rmnode
+                    .getNodeURL());
+            if (p != null) {
                 String scriptType = script.isDynamic() ? "dynamic" : "static";
                 if (logger.isDebugEnabled())
                     logger.debug(rmnode.getNodeURL() + " : " + script.hashCode() + " known " + scriptType +
@@ -205,17 +210,17 @@ public class ProbablisticSelectionManager extends SelectionManager {
      * @return whether node is selected
      */
     @Override
-    public synchronized boolean processScriptResult(SelectionScript script,
-            ScriptResult<Boolean> scriptResult, RMNode rmnode) {
+    public boolean processScriptResult(SelectionScript script, ScriptResult<Boolean> scriptResult,
+            RMNode rmnode) {
 
         boolean result = false;
 
         try {
             String digest = new String(script.digest());
+            ScriptProbabilities scriptProbabilities = probabilities.get(digest);
             Probability probability = new Probability(Probability.defaultValue());
-            if (probabilities.containsKey(digest) &&
-                probabilities.get(digest).containsKey(rmnode.getNodeURL())) {
-                probability = probabilities.get(digest).get(rmnode.getNodeURL());
+            if (scriptProbabilities != null && scriptProbabilities.get(rmnode.getNodeURL()) != null) {
+                probability = scriptProbabilities.get(rmnode.getNodeURL());
                 assert (probability.value() >= 0 && probability.value() <= 1);
             }
 
@@ -224,7 +229,7 @@ public class ProbablisticSelectionManager extends SelectionManager {
             } else if (!scriptResult.getResult()) {
                 // script failed
                 if (script.isDynamic()) {
-                    probability.decrease();
+                    probability = probability.decrease();
                 } else {
                     probability = Probability.ZERO;
                 }
@@ -232,27 +237,14 @@ public class ProbablisticSelectionManager extends SelectionManager {
                 // script passed
                 result = true;
                 if (script.isDynamic()) {
-                    probability.increase();
+                    probability = probability.increase();
                 } else {
                     probability = Probability.ONE;
                 }
             }
 
-            if (!probabilities.containsKey(digest)) {
-                // checking if the number of selection script does not exceeded the maximum
-                if (probabilities.size() >= PAResourceManagerProperties.RM_SELECT_SCRIPT_CACHE_SIZE
-                        .getValueAsInt()) {
-                    String oldest = digestQueue.poll();
-                    probabilities.remove(oldest);
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Removing the script: " + script.hashCode() +
-                            " from the data base because the limit is reached");
-                    }
-                }
-                // adding a new script record
-                probabilities.put(digest, new HashMap<String, Probability>());
-                logger.debug("Scripts cache size " + probabilities.size());
-                digestQueue.offer(digest);
+            if (scriptProbabilities == null) {
+                scriptProbabilities = addScriptProbabilities(script, digest);
             }
 
             if (logger.isDebugEnabled()) {
@@ -260,7 +252,7 @@ public class ProbablisticSelectionManager extends SelectionManager {
                     probability);
             }
 
-            probabilities.get(digest).put(rmnode.getNodeURL().intern(), probability);
+            scriptProbabilities.put(rmnode.getNodeURL().intern(), probability);
 
         } catch (NoSuchAlgorithmException e) {
             logger.error(e.getMessage(), e);
@@ -269,6 +261,56 @@ public class ProbablisticSelectionManager extends SelectionManager {
         return result;
     }
 
+    /**
+     * Returns the probabilities of the given script and marks it as recently used,
+     * null if the script has never been executed.
+     */
+    private ScriptProbabilities getScriptProbabilities(SelectionScript script)
+            throws NoSuchAlgorithmException {
+        ScriptProbabilities scriptProbabilities = probabilities.get(new String(script.digest()));
+        if (scriptProbabilities != null) {
+            scriptProbabilities.lastUsed = clock.incrementAndGet();
+        }
+        return scriptProbabilities;
+    }
+
+    /**
+     * Adds a record for a new script, removing the least recently used script
+     * if the number of selection scripts reached the maximum.
+     */
+    private ScriptProbabilities addScriptProbabilities(SelectionScript script, String digest) {
+        synchronized (evictionLock) {
+            ScriptProbabilities scriptProbabilities = probabilities.get(digest);
+            if (scriptProbabilities != null) {
+                return scriptProbabilities;
+            }
+            // checking if the number of selection script does not exceeded the maximum
+            if (probabilities.size() >= PAResourceManagerProperties.RM_SELECT_SCRIPT_CACHE_SIZE
+                    .getValueAsInt()) {
+                String oldest = null;
+                long oldestUse = Long.MAX_VALUE;
+                for (Map.Entry<String, ScriptProbabilities> entry : probabilities.entrySet()) {
+                    if (entry.getValue().lastUsed < oldestUse) {
+                        oldest = entry.getKey();
+                        oldestUse = entry.getValue().lastUsed;
+                    }
+                }
+                if (oldest != null) {
+                    probabilities.remove(oldest);
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Removing the least recently used script from the data base " +
+                            "because the limit is reached, adding script " + script.hashCode());
+                    }
+                }
+            }
+            // adding a new script record
+            scriptProbabilities = new ScriptProbabilities(clock.incrementAndGet());
+            probabilities.put(digest, scriptProbabilities);
+            logger.debug("Scripts cache size " + probabilities.size());
+            return scriptProbabilities;
+        }
+    }
+
     /**
      * @see org.ow2.proactive.authentication.Loggable#getLogger()
      */
@@ -276,4 +318,26 @@ public class ProbablisticSelectionManager extends SelectionManager {
         return logger;
     }
 
+    /**
+     * Probabilities of a script on the nodes it has been executed on.
+     */
+    private static final class ScriptProbabilities {
+
+        private final ConcurrentHashMap<String, Probability> nodes = new ConcurrentHashMap<>();
+
+        private volatile long lastUsed;
+
+        ScriptProbabilities(long lastUsed) {
+            this.lastUsed = lastUsed;
+        }
+
+        Probability get(String nodeUrl) {
+            return nodes.get(nodeUrl);
+        }
+
+        void put(String nodeUrl, Probability probability) {
+            nodes.put(nodeUrl, probability);
+        }
+    }
+
 }
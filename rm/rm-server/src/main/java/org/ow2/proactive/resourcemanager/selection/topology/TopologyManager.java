@@ -37,13 +37,23 @@
 package org.ow2.proactive.resourcemanager.selection.topology;
 
 import java.net.InetAddress;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.ActiveObjectCreationException;
@@ -51,7 +61,10 @@ import org.objectweb.proactive.api.PAActiveObject;
 import org.objectweb.proactive.api.PAFuture;
 import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.node.NodeException;
+import org.objectweb.proactive.utils.NamedThreadFactory;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+import org.ow2.proactive.resourcemanager.db.HostDistance;
+import org.ow2.proactive.resourcemanager.db.RMDBManager;
 import org.ow2.proactive.resourcemanager.frontend.topology.Topology;
 import org.ow2.proactive.resourcemanager.frontend.topology.TopologyDisabledException;
 import org.ow2.proactive.resourcemanager.frontend.topology.TopologyException;
@@ -79,23 +92,39 @@ public class TopologyManager {
     // logger
     private final static Logger logger = Logger.getLogger(TopologyManager.class);
 
+    /** Default number of threads measuring the distances of new hosts */
+    private static final int DEFAULT_PINGER_THREADS = 10;
+
+    /** Delay before pinging again the hosts which were unreachable, in milliseconds */
+    private static final long UNREACHABLE_HOSTS_RETRY_DELAY = 60000;
+
     // hosts distances
     private TopologyImpl topology = new TopologyImpl();
     // this hash map allows to quickly find nodes on a single host (much faster than from the topology).
     private HashMap<InetAddress, List<Node>> nodesOnHost = new HashMap<>();
+    // hosts having nodes whose distances to the other hosts are being measured
+    private final Set<InetAddress> hostsBeingPinged = new HashSet<>();
     // list of handlers corresponded to topology descriptors
     private final HashMap<Class<? extends TopologyDescriptor>, TopologyHandler> handlers = new HashMap<>();
 
+    // distances already measured between hosts, including the hosts which are gone, by host pair
+    private final ConcurrentMap<String, Long> measuredDistances = new ConcurrentHashMap<>();
+    // data base storing the measured distances, can be null
+    private final RMDBManager dbManager;
+    // measures the distances of new hosts in parallel
+    private final ScheduledExecutorService pingerThreadPool;
+
     // class using for pinging
     private Class<? extends Pinger> pingerClass;
 
     /**
      * Constructs new instance of the topology descriptor.
+     * @param dbManager data base in which the measured distances are kept, can be null
      * @throws ClassNotFoundException when pinger class specified 
      * in the RM configuration file is not found
      */
     @SuppressWarnings(value = "unchecked")
-    public TopologyManager() throws ClassNotFoundException {
+    public TopologyManager(RMDBManager dbManager) throws ClassNotFoundException {
         handlers.put(ArbitraryTopologyDescriptor.class, new ArbitraryTopologyHandler());
         handlers.put(BestProximityDescriptor.class, new BestProximityHandler());
         handlers.put(ThresholdProximityDescriptor.class, new TresholdProximityHandler());
@@ -106,6 +135,25 @@ public class TopologyManager {
 
         pingerClass = (Class<? extends Pinger>) Class.forName(PAResourceManagerProperties.RM_TOPOLOGY_PINGER
                 .getValueAsString());
+
+        int pingerThreads = DEFAULT_PINGER_THREADS;
+        if (PAResourceManagerProperties.RM_TOPOLOGY_PINGER_MAX_THREAD_NUMBER.isSet()) {
+            pingerThreads = PAResourceManagerProperties.RM_TOPOLOGY_PINGER_MAX_THREAD_NUMBER.getValueAsInt();
+        }
+        pingerThreadPool = Executors.newScheduledThreadPool(pingerThreads, new NamedThreadFactory(
+            "Topology pinger threadpool"));
+
+        this.dbManager = dbManager;
+        if (dbManager != null && PAResourceManagerProperties.RM_TOPOLOGY_ENABLED.getValueAsBoolean()) {
+            List<HostDistance> hostDistances = dbManager.getHostDistances();
+            if (hostDistances != null) {
+                for (HostDistance hostDistance : hostDistances) {
+                    measuredDistances.put(distanceKey(hostDistance.getHost(), hostDistance.getOtherHost()),
+                            hostDistance.getDistance());
+                }
+                logger.debug(measuredDistances.size() + " distances between hosts restored");
+            }
+        }
     }
 
     /**
@@ -126,10 +174,11 @@ public class TopologyManager {
     }
 
     /**
-     * Updates the topology for new node. Executes the pinger on new node when this node belongs
-     * to unknow host.
+     * Updates the topology for new node. When this node belongs to an unknown host,
+     * the distances from this host to the other ones are measured asynchronously:
+     * the node can be selected meanwhile by requests which do not rely on distances.
      */
-    public synchronized void addNode(Node node) {
+    public void addNode(Node node) {
         if (!PAResourceManagerProperties.RM_TOPOLOGY_ENABLED.getValueAsBoolean()) {
             // do not do anything if topology disabled
             return;
@@ -137,37 +186,23 @@ public class TopologyManager {
 
         InetAddress host = node.getVMInformation().getInetAddress();
         synchronized (topology) {
-            if (topology.knownHost(host)) {
-                // host topology is already known
+            List<Node> nodes = nodesOnHost.get(host);
+            if (nodes == null) {
+                nodes = new LinkedList<>();
+                nodesOnHost.put(host, nodes);
+            }
+            nodes.add(node);
+
+            if (topology.knownHost(host) || hostsBeingPinged.contains(host)) {
+                // host topology is already known or being measured
                 logger.debug("The topology information has been already added for node " +
                     node.getNodeInformation().getURL());
-                nodesOnHost.get(host).add(node);
                 return;
             }
-        }
-
-        // lock the current node while pinging
-        synchronized (node.getNodeInformation().getURL().intern()) {
             // unknown host => start pinging process
-            NodeSet toPing = new NodeSet();
-            synchronized (topology) {
-                // adding one node from each host
-                for (InetAddress h : nodesOnHost.keySet()) {
-                    // always have at least one node on each host
-                    toPing.add(nodesOnHost.get(h).iterator().next());
-                }
-            }
-
-            HashMap<InetAddress, Long> hostsTopology = pingNode(node, toPing);
-            synchronized (topology) {
-                if (hostsTopology != null) {
-                    topology.addHostTopology(node.getVMInformation().getHostName(), host, hostsTopology);
-                    List<Node> nodesList = new LinkedList<>();
-                    nodesList.add(node);
-                    nodesOnHost.put(node.getVMInformation().getInetAddress(), nodesList);
-                }
-            }
+            hostsBeingPinged.add(host);
         }
+        pingerThreadPool.execute(new HostPinging(host, node.getVMInformation().getHostName()));
     }
 
     /**
@@ -179,32 +214,224 @@ public class TopologyManager {
             return;
         }
 
-        // if the node we're trying to remove is in process of pinging => wait
-        synchronized (node.getNodeInformation().getURL().intern()) {
-            synchronized (topology) {
-                InetAddress host = node.getVMInformation().getInetAddress();
-                if (!topology.knownHost(host)) {
-                    logger
-                            .warn("Topology info does not exist for node " +
-                                node.getNodeInformation().getURL());
-                } else {
+        InetAddress host = node.getVMInformation().getInetAddress();
+        synchronized (topology) {
+            List<Node> nodes = nodesOnHost.get(host);
+            if (nodes == null) {
+                logger.warn("Topology info does not exist for node " + node.getNodeInformation().getURL());
+                return;
+            }
+            nodes.remove(node);
+            if (nodes.size() > 0) {
+                return;
+            }
+            // no more nodes on the host, a pinging in progress will stop by itself
+            nodesOnHost.remove(host);
+            if (topology.knownHost(host)) {
+                topology.removeHostTopology(node.getVMInformation().getHostName(), host);
+            }
+        }
+        // the measured distances of the host are kept, to be reused if its nodes come back
+    }
+
+    /**
+     * Stops measuring the distances.
+     */
+    public void shutdown() {
+        pingerThreadPool.shutdownNow();
+    }
+
+    /**
+     * Delay before pinging again the hosts which were unreachable.
+     */
+    long getUnreachableHostsRetryDelay() {
+        return UNREACHABLE_HOSTS_RETRY_DELAY;
+    }
+
+    /**
+     * Measures the distances from a host to the known ones whose distance to it is
+     * not known, reusing the distances already measured. Hosts which become known
+     * while pinging are pinged as well, so that the distance between two hosts pinged
+     * concurrently is measured by the last one. Unreachable hosts are kept in the
+     * topology with a -1 distance, which the clustering ignores, and pinged again later.
+     * This distance is not stored, so that it is measured again at the next start.
+     */
+    private class HostPinging implements Runnable {
+
+        private final InetAddress host;
+
+        private final String hostName;
+
+        private HostPinging(InetAddress host, String hostName) {
+            this.host = host;
+            this.hostName = hostName;
+        }
+
+        @Override
+        public void run() {
+            try {
+                HashMap<InetAddress, Long> hostTopology = new HashMap<>();
+                Set<InetAddress> unreachable = new HashSet<>();
+                while (true) {
+                    Node node;
+                    NodeSet toPing = new NodeSet();
+                    synchronized (topology) {
+                        List<Node> nodes = nodesOnHost.get(host);
+                        if (nodes == null) {
+                            // all the nodes of the host have been removed
+                            hostsBeingPinged.remove(host);
+                            return;
+                        }
+                        node = nodes.get(0);
+                        for (InetAddress h : topology.getHosts()) {
+                            Long knownDistance = topology.getDistance(host, h);
+                            if (hostTopology.containsKey(h) ||
+                                (knownDistance != null && knownDistance >= 0)) {
+                                continue;
+                            }
+                            Long distance = measuredDistances.get(distanceKey(host, h));
+                            if (distance != null) {
+                                hostTopology.put(h, distance);
+                            } else {
+                                // always have at least one node on each host
+                                toPing.add(nodesOnHost.get(h).get(0));
+                            }
+                        }
+                        if (toPing.isEmpty()) {
+                            // forgetting the hosts removed while pinging
+                            hostTopology.keySet().retainAll(topology.getHosts());
+                            if (topology.knownHost(host)) {
+                                mergeHostTopology(hostTopology);
+                            } else {
+                                topology.addHostTopology(hostName, host, hostTopology);
+                            }
+                            hostsBeingPinged.remove(host);
+                            break;
+                        }
+                    }
+
+                    HashMap<InetAddress, Long> pinged = pingNode(node, toPing);
+                    if (pinged == null) {
+                        pinged = new HashMap<>();
+                    }
+                    synchronized (topology) {
+                        if (!nodesOnHost.containsKey(host)) {
+                            // removed while pinging, its distances are not kept
+                            hostsBeingPinged.remove(host);
+                            return;
+                        }
+                    }
+                    saveDistances(pinged);
+                    for (Node pingedNode : toPing) {
+                        InetAddress h = pingedNode.getVMInformation().getInetAddress();
+                        Long distance = pinged.get(h);
+                        if (distance != null && distance >= 0) {
+                            hostTopology.put(h, distance);
+                        } else {
+                            // the pinger could not reach this host
+                            hostTopology.put(h, -1L);
+                            unreachable.add(h);
+                        }
+                    }
+                }
+                if (!unreachable.isEmpty()) {
+                    logger.debug(unreachable.size() + " hosts are unreachable from " + hostName +
+                        ", they will be pinged again");
+                    pingerThreadPool.schedule(new UnreachableHostsPinging(host, hostName),
+                            getUnreachableHostsRetryDelay(), TimeUnit.MILLISECONDS);
+                }
+            } catch (RejectedExecutionException e) {
+                logger.debug("The topology manager is shut down", e);
+            } catch (RuntimeException e) {
+                logger.warn("Cannot measure the distances of host " + hostName, e);
+                synchronized (topology) {
+                    hostsBeingPinged.remove(host);
+                }
+            }
+        }
 
-                    nodesOnHost.get(host).remove(node);
-                    if (nodesOnHost.get(host).size() == 0) {
-                        // no more nodes on the host
-                        topology.removeHostTopology(node.getVMInformation().getHostName(), host);
-                        nodesOnHost.remove(host);
+        /**
+         * Replaces the distances of a known host, the other hosts may hold the
+         * previous distance of the pair as only half of the matrix is stored.
+         */
+        private void mergeHostTopology(HashMap<InetAddress, Long> hostTopology) {
+            topology.getHostTopology(host).putAll(hostTopology);
+            for (Map.Entry<InetAddress, Long> entry : hostTopology.entrySet()) {
+                HashMap<InetAddress, Long> otherHostTopology = topology.getHostTopology(entry.getKey());
+                if (otherHostTopology != null && otherHostTopology.containsKey(host)) {
+                    otherHostTopology.put(host, entry.getValue());
+                }
+            }
+        }
+
+        /**
+         * Keeps the distances which were measured, unreachable hosts are pinged again next time.
+         */
+        private void saveDistances(HashMap<InetAddress, Long> pinged) {
+            List<HostDistance> hostDistances = new ArrayList<>(pinged.size());
+            for (Map.Entry<InetAddress, Long> entry : pinged.entrySet()) {
+                if (entry.getValue() >= 0 && !host.equals(entry.getKey())) {
+                    measuredDistances.put(distanceKey(host, entry.getKey()), entry.getValue());
+                    String address = host.getHostAddress();
+                    String otherAddress = entry.getKey().getHostAddress();
+                    // one row per pair of hosts, see distanceKey
+                    if (address.compareTo(otherAddress) <= 0) {
+                        hostDistances.add(new HostDistance(address, otherAddress, entry.getValue()));
+                    } else {
+                        hostDistances.add(new HostDistance(otherAddress, address, entry.getValue()));
                     }
                 }
             }
+            if (dbManager != null && !hostDistances.isEmpty()) {
+                dbManager.saveHostDistances(hostDistances);
+            }
         }
     }
 
+    /**
+     * Pings again the hosts unreachable from a known host, unless this host is being
+     * pinged already or has been removed meanwhile.
+     */
+    private class UnreachableHostsPinging implements Runnable {
+
+        private final InetAddress host;
+
+        private final String hostName;
+
+        private UnreachableHostsPinging(InetAddress host, String hostName) {
+            this.host = host;
+            this.hostName = hostName;
+        }
+
+        @Override
+        public void run() {
+            synchronized (topology) {
+                if (!topology.knownHost(host) || hostsBeingPinged.contains(host)) {
+                    return;
+                }
+                hostsBeingPinged.add(host);
+            }
+            new HostPinging(host, hostName).run();
+        }
+    }
+
+    private static String distanceKey(InetAddress host, InetAddress host2) {
+        return distanceKey(host.getHostAddress(), host2.getHostAddress());
+    }
+
+    // distances are symmetrical
+    private static String distanceKey(String host, String host2) {
+        if (host.compareTo(host2) <= 0) {
+            return host + ' ' + host2;
+        }
+        return host2 + ' ' + host;
+    }
+
     /**
      * Launches the pinging process from new host. It will ping all other hosts
      * according to the pinger logic.
      */
-    private HashMap<InetAddress, Long> pingNode(Node node, NodeSet nodes) {
+    HashMap<InetAddress, Long> pingNode(Node node, NodeSet nodes) {
 
         try {
             logger.debug("Launching ping process on node " + node.getNodeInformation().getURL());
@@ -253,6 +480,24 @@ public class TopologyManager {
         }
     }
 
+    /**
+     * Filters out the nodes of the hosts whose distances are still being measured.
+     * Must be called while holding the topology lock.
+     */
+    private List<Node> withKnownDistances(List<Node> nodes) {
+        if (nodesOnHost.size() == topology.getHosts().size()) {
+            // all the hosts are known
+            return nodes;
+        }
+        List<Node> result = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            if (topology.knownHost(node.getVMInformation().getInetAddress())) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+
     // Handlers implementations
 
     /**
@@ -281,7 +526,7 @@ public class TopologyManager {
                 // HAC is very efficient algorithm but it does not guarantee the complete solution
                 logger.info("Running clustering algorithm in order to find closest nodes");
                 HAC hac = new HAC(topology, null, descriptor.getDistanceFunction(), Long.MAX_VALUE);
-                return new NodeSet(hac.select(number, matchedNodes));
+                return new NodeSet(hac.select(number, withKnownDistances(matchedNodes)));
             }
         }
     }
@@ -302,7 +547,7 @@ public class TopologyManager {
                 ThresholdProximityDescriptor descriptor = (ThresholdProximityDescriptor) topologyDescriptor;
                 logger.info("Running clustering algorithm in order to find closest nodes");
                 HAC hac = new HAC(topology, null, descriptor.getDistanceFunction(), descriptor.getThreshold());
-                return new NodeSet(hac.select(number, matchedNodes));
+                return new NodeSet(hac.select(number, withKnownDistances(matchedNodes)));
             }
         }
     }
@@ -0,0 +1,64 @@
+package org.ow2.proactive.resourcemanager.core;
+
+import java.security.Permission;
+
+import org.ow2.proactive.authentication.principals.UserNamePrincipal;
+import org.ow2.proactive.permissions.PrincipalPermission;
+import org.ow2.proactive.resourcemanager.nodesource.NodeSource;
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+import org.junit.Test;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class FreeNodeIndexTest {
+
+    @Test
+    public void addAndRemove() throws Exception {
+        FreeNodeIndex index = new FreeNodeIndex();
+        RMNode node1 = createMockedNode("node1", "ns1", "admin");
+        RMNode node2 = createMockedNode("node2", "ns1", "user");
+        RMNode node3 = createMockedNode("node3", "ns2", "admin");
+
+        assertTrue(index.add(node1));
+        assertTrue(index.add(node2));
+        assertTrue(index.add(node3));
+        assertFalse(index.add(node1));
+
+        assertEquals(3, index.size());
+        assertEquals(2, index.getNodes("ns1").size());
+        assertEquals(1, index.getNodes("ns2").size());
+        assertEquals(2, index.getUserPermissions().size());
+        assertEquals(2, index.getNodes(permission("admin")).size());
+
+        assertTrue(index.remove(node1));
+        assertFalse(index.remove(node1));
+        assertFalse(index.contains(node1));
+        assertEquals(2, index.size());
+        assertEquals(1, index.getNodes("ns1").size());
+        assertEquals(1, index.getNodes(permission("admin")).size());
+
+        assertTrue(index.remove(node3));
+        assertTrue(index.getNodes("ns2").isEmpty());
+        assertEquals(1, index.getUserPermissions().size());
+        assertTrue(index.getNodes(permission("admin")).isEmpty());
+    }
+
+    private Permission permission(String user) {
+        return new PrincipalPermission("permissions", singleton(new UserNamePrincipal(user)));
+    }
+
+    private RMNode createMockedNode(String name, String nodeSourceName, String nodeUser) {
+        NodeSource nodeSource = mock(NodeSource.class);
+        when(nodeSource.getName()).thenReturn(nodeSourceName);
+
+        RMNode rmNode = mock(RMNode.class);
+        when(rmNode.getNodeURL()).thenReturn("rmi://localhost/" + name);
+        when(rmNode.getNodeSource()).thenReturn(nodeSource);
+        when(rmNode.getUserPermission()).thenReturn(permission(nodeUser));
+        return rmNode;
+    }
+}
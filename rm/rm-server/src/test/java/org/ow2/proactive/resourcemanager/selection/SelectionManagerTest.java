@@ -14,8 +14,10 @@ import org.objectweb.proactive.core.node.NodeInformation;
 import org.ow2.proactive.authentication.principals.UserNamePrincipal;
 import org.ow2.proactive.permissions.PrincipalPermission;
 import org.ow2.proactive.resourcemanager.authentication.Client;
+import org.ow2.proactive.resourcemanager.core.FreeNodeIndex;
 import org.ow2.proactive.resourcemanager.core.RMCore;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+import org.ow2.proactive.resourcemanager.exception.NotConnectedException;
 import org.ow2.proactive.resourcemanager.nodesource.NodeSource;
 import org.ow2.proactive.resourcemanager.rmnode.RMNode;
 import org.ow2.proactive.resourcemanager.selection.topology.TopologyHandler;
@@ -28,11 +30,15 @@ import org.ow2.proactive.utils.NodeSet;
 import org.junit.After;
 import org.junit.Test;
 import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -56,10 +62,10 @@ public class SelectionManagerTest {
 
         SelectionManager selectionManager = createSelectionManager(rmCore);
 
-        ArrayList<RMNode> freeNodes = new ArrayList<>();
+        FreeNodeIndex freeNodes = new FreeNodeIndex();
         freeNodes.add(createMockedNode("admin"));
         freeNodes.add(createMockedNode("user"));
-        when(rmCore.getFreeNodes()).thenReturn(freeNodes);
+        stubFreeNodes(rmCore, freeNodes);
 
         Criteria criteria = new Criteria(2);
         criteria.setTopology(TopologyDescriptor.ARBITRARY);
@@ -70,6 +76,55 @@ public class SelectionManagerTest {
         assertEquals(1, nodes.size());
     }
 
+    @Test
+    public void nodes_selected_for_a_batch_are_released_when_the_client_disconnects() throws Exception {
+        PAResourceManagerProperties.RM_SELECTION_MAX_THREAD_NUMBER.updateProperty("10");
+        System.setSecurityManager(securityManagerRejectingUser());
+
+        RMCore.topologyManager = mock(TopologyManager.class);
+        RMCore rmCore = mock(RMCore.class);
+        when(RMCore.topologyManager.getHandler(Matchers.<TopologyDescriptor> any())).thenReturn(
+                selectAllTopology());
+        // the client disconnects while the nodes of the second criteria are booked
+        doNothing().doThrow(new NotConnectedException("disconnected")).when(rmCore).setBusyNode(
+                Matchers.<String> any(), Matchers.<Client> any());
+
+        SelectionManager selectionManager = createSelectionManager(rmCore);
+
+        FreeNodeIndex freeNodes = new FreeNodeIndex();
+        freeNodes.add(createMockedNode("admin"));
+        stubFreeNodes(rmCore, freeNodes);
+
+        List<Criteria> criteria = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Criteria c = new Criteria(1);
+            c.setTopology(TopologyDescriptor.ARBITRARY);
+            criteria.add(c);
+        }
+
+        List<NodeSet> nodeSets = selectionManager.selectNodes(criteria, new Client(createUser("admin"),
+            false));
+
+        assertNull(nodeSets);
+        verify(rmCore).releaseNodes(Matchers.<NodeSet> any());
+    }
+
+    private void stubFreeNodes(RMCore rmCore, final FreeNodeIndex freeNodes) {
+        when(rmCore.getFreeNodesPermissions()).thenReturn(
+                new ArrayList<>(freeNodes.getUserPermissions()));
+        when(rmCore.getFreeNodes(Matchers.<List<Permission>> any())).thenAnswer(
+                new Answer<ArrayList<RMNode>>() {
+                    @Override
+                    public ArrayList<RMNode> answer(InvocationOnMock invocation) throws Throwable {
+                        ArrayList<RMNode> result = new ArrayList<>();
+                        for (Object permission : (List<?>) invocation.getArguments()[0]) {
+                            result.addAll(freeNodes.getNodes((Permission) permission));
+                        }
+                        return result;
+                    }
+                });
+    }
+
     private SecurityManager securityManagerRejectingUser() {
         return new SecurityManager() {
 
@@ -126,6 +181,7 @@ public class SelectionManagerTest {
 
     private RMNode createMockedNode(String nodeUser) {
         RMNode rmNode = mock(RMNode.class);
+        when(rmNode.getNodeURL()).thenReturn("rmi://localhost/" + nodeUser);
         when(rmNode.getNodeSource()).thenReturn(new NodeSource());
 
         Node node = mock(Node.class);
@@ -88,6 +88,10 @@ public class TestNodeSourcePolicy {
             return null;
         }
 
+        public List<ScriptResult<Boolean>> executeScripts(List<SelectionScript> scripts) {
+            return null;
+        }
+
         public HashMap<SelectionScript, Integer> getScriptStatus() {
             return null;
         }
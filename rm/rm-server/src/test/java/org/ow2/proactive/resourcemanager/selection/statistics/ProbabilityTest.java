@@ -0,0 +1,104 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2011 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive.resourcemanager.selection.statistics;
+
+import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class ProbabilityTest {
+
+    private String dynamicity;
+
+    @Before
+    public void saveDynamicity() {
+        if (PAResourceManagerProperties.RM_SELECT_SCRIPT_NODE_DYNAMICITY.isSet()) {
+            dynamicity = PAResourceManagerProperties.RM_SELECT_SCRIPT_NODE_DYNAMICITY.getValueAsString();
+        }
+    }
+
+    @After
+    public void restoreDynamicity() {
+        if (dynamicity == null) {
+            PAResourceManagerProperties.RM_SELECT_SCRIPT_NODE_DYNAMICITY.unSet();
+        } else {
+            PAResourceManagerProperties.RM_SELECT_SCRIPT_NODE_DYNAMICITY.updateProperty(dynamicity);
+        }
+    }
+
+    @Test
+    public void testIncreaseDecrease() {
+        PAResourceManagerProperties.RM_SELECT_SCRIPT_NODE_DYNAMICITY.updateProperty("0");
+        Probability initial = new Probability(Probability.defaultValue());
+
+        Probability increased = initial.increase();
+        assertTrue(increased.value() > initial.value());
+        assertTrue(increased.value() < 1);
+        // instances are immutable
+        assertEquals(Probability.defaultValue(), initial.value(), 0);
+
+        Probability decreased = increased.decrease();
+        assertEquals(initial.value(), decreased.value(), 0);
+    }
+
+    @Test
+    public void testDecreasePausesProbability() throws Exception {
+        PAResourceManagerProperties.RM_SELECT_SCRIPT_NODE_DYNAMICITY.updateProperty("200");
+        Probability initial = new Probability(Probability.defaultValue());
+
+        Probability decreased = initial.decrease();
+        assertEquals(0, decreased.value(), 0);
+        // decreasing a paused probability keeps it paused
+        assertEquals(0, decreased.decrease().value(), 0);
+
+        Thread.sleep(300);
+        assertTrue(decreased.value() > 0);
+        assertTrue(decreased.value() < initial.value());
+    }
+
+    @Test
+    public void testStaticValues() {
+        assertEquals(0, Probability.ZERO.decrease().value(), 0);
+        assertEquals(0, Probability.ONE.decrease().value(), 0);
+    }
+
+}
@@ -0,0 +1,183 @@
+package org.ow2.proactive.resourcemanager.selection.topology;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.objectweb.proactive.core.node.Node;
+import org.objectweb.proactive.core.node.NodeInformation;
+import org.objectweb.proactive.core.runtime.VMInformation;
+import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+import org.ow2.proactive.resourcemanager.frontend.topology.pinging.HostsPinger;
+import org.ow2.proactive.topology.descriptor.BestProximityDescriptor;
+import org.ow2.proactive.utils.NodeSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class TopologyManagerTest {
+
+    private String topologyEnabled;
+
+    private String topologyPinger;
+
+    private CountingTopologyManager manager;
+
+    @Before
+    public void enableTopology() throws Exception {
+        topologyEnabled = getValue(PAResourceManagerProperties.RM_TOPOLOGY_ENABLED);
+        topologyPinger = getValue(PAResourceManagerProperties.RM_TOPOLOGY_PINGER);
+        PAResourceManagerProperties.RM_TOPOLOGY_ENABLED.updateProperty("true");
+        PAResourceManagerProperties.RM_TOPOLOGY_PINGER.updateProperty(HostsPinger.class.getName());
+        manager = new CountingTopologyManager();
+    }
+
+    @After
+    public void restoreTopology() {
+        manager.shutdown();
+        restore(PAResourceManagerProperties.RM_TOPOLOGY_ENABLED, topologyEnabled);
+        restore(PAResourceManagerProperties.RM_TOPOLOGY_PINGER, topologyPinger);
+    }
+
+    private static String getValue(PAResourceManagerProperties property) {
+        return property.isSet() ? property.getValueAsString() : null;
+    }
+
+    private static void restore(PAResourceManagerProperties property, String value) {
+        if (value != null) {
+            property.updateProperty(value);
+        } else {
+            property.unSet();
+        }
+    }
+
+    @Test
+    public void distances_should_be_measured_once_per_pair_of_hosts() throws Exception {
+        InetAddress host1 = InetAddress.getByName("10.0.0.1");
+        InetAddress host2 = InetAddress.getByName("10.0.0.2");
+        Node node2 = createNode(host2, "node2");
+        Node node3 = createNode(host2, "node3");
+
+        manager.addNode(createNode(host1, "node1"));
+        manager.addNode(node2);
+        manager.addNode(node3);
+        waitForHosts(manager, 2);
+
+        assertEquals(Long.valueOf(42), manager.getTopology().getDistance(host1, host2));
+        assertEquals(1, manager.pinged.get());
+
+        // the distances of a host whose nodes come back are reused
+        manager.removeNode(node2);
+        manager.removeNode(node3);
+        assertEquals(1, manager.getTopology().getHosts().size());
+        manager.addNode(createNode(host2, "node4"));
+        waitForHosts(manager, 2);
+
+        assertEquals(Long.valueOf(42), manager.getTopology().getDistance(host1, host2));
+        assertEquals(1, manager.pinged.get());
+    }
+
+    @Test
+    public void distances_to_unreachable_hosts_should_be_measured_again() throws Exception {
+        InetAddress host1 = InetAddress.getByName("10.0.0.1");
+        InetAddress host2 = InetAddress.getByName("10.0.0.2");
+        manager.unreachableHosts.add(host2);
+
+        manager.addNode(createNode(host1, "node1"));
+        manager.addNode(createNode(host2, "node2"));
+        waitForHosts(manager, 2);
+        assertEquals(Long.valueOf(-1), manager.getTopology().getDistance(host1, host2));
+
+        manager.unreachableHosts.clear();
+        long timeout = System.currentTimeMillis() + 10000;
+        while (manager.getTopology().getDistance(host1, host2) < 0 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertEquals(Long.valueOf(42), manager.getTopology().getDistance(host1, host2));
+    }
+
+    @Test
+    public void proximity_selection_should_ignore_unreachable_hosts() throws Exception {
+        InetAddress host1 = InetAddress.getByName("10.0.0.1");
+        InetAddress host2 = InetAddress.getByName("10.0.0.2");
+        InetAddress host3 = InetAddress.getByName("10.0.0.3");
+        Node node1 = createNode(host1, "node1");
+        Node node2 = createNode(host2, "node2");
+        Node node3 = createNode(host3, "node3");
+        manager.unreachableHosts.add(host3);
+
+        manager.addNode(node1);
+        manager.addNode(node2);
+        manager.addNode(node3);
+        waitForHosts(manager, 3);
+
+        NodeSet selected = manager.getHandler(new BestProximityDescriptor()).select(2,
+                Arrays.asList(node1, node2, node3));
+
+        assertEquals(2, selected.size());
+        assertTrue(selected.contains(node1));
+        assertTrue(selected.contains(node2));
+    }
+
+    private static void waitForHosts(TopologyManager manager, int hosts) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 10000;
+        while (manager.getTopology().getHosts().size() < hosts && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertTrue(manager.getTopology().getHosts().size() >= hosts);
+    }
+
+    private static Node createNode(InetAddress host, String name) {
+        Node node = mock(Node.class);
+        NodeInformation nodeInformation = mock(NodeInformation.class);
+        when(nodeInformation.getURL()).thenReturn("rmi://" + host.getHostAddress() + "/" + name);
+        when(node.getNodeInformation()).thenReturn(nodeInformation);
+        VMInformation vmInformation = mock(VMInformation.class);
+        when(vmInformation.getInetAddress()).thenReturn(host);
+        when(vmInformation.getHostName()).thenReturn(host.getHostAddress());
+        when(node.getVMInformation()).thenReturn(vmInformation);
+        return node;
+    }
+
+    private static class CountingTopologyManager extends TopologyManager {
+
+        private final AtomicInteger pinged = new AtomicInteger();
+
+        private final Set<InetAddress> unreachableHosts = new CopyOnWriteArraySet<>();
+
+        private CountingTopologyManager() throws ClassNotFoundException {
+            super(null);
+        }
+
+        @Override
+        HashMap<InetAddress, Long> pingNode(Node node, NodeSet nodes) {
+            HashMap<InetAddress, Long> result = new HashMap<>();
+            InetAddress host = node.getVMInformation().getInetAddress();
+            for (Node pingedNode : nodes) {
+                InetAddress pingedHost = pingedNode.getVMInformation().getInetAddress();
+                if (unreachableHosts.contains(host) || unreachableHosts.contains(pingedHost)) {
+                    result.put(pingedHost, -1L);
+                } else {
+                    result.put(pingedHost, 42L);
+                }
+                pinged.incrementAndGet();
+            }
+            return result;
+        }
+
+        @Override
+        long getUnreachableHostsRetryDelay() {
+            return 10;
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ *  *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2014 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ *  * $$ACTIVEEON_INITIAL_DEV$$
+ */
+package org.ow2.proactive.scheduler.common;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+
+
+/**
+ * Events of the scheduler sent at once to a {@link SchedulerEventBatchListener}, in the
+ * order they occurred. Each event is the call of a method of the listener with its arguments.
+ *
+ * @author The ProActive Team
+ */
+@PublicAPI
+public final class SchedulerEventBatch implements Serializable {
+
+    private final List<String> methodNames = new ArrayList<>();
+
+    private final List<Class<?>[]> parameterTypes = new ArrayList<>();
+
+    private final List<Object[]> arguments = new ArrayList<>();
+
+    /**
+     * Add an event to this batch.
+     *
+     * @param method the method of the listener to be called.
+     * @param args the arguments of the method.
+     */
+    public void add(Method method, Object[] args) {
+        methodNames.add(method.getName());
+        parameterTypes.add(method.getParameterTypes());
+        arguments.add(args);
+    }
+
+    /**
+     * @return the number of events of this batch.
+     */
+    public int size() {
+        return methodNames.size();
+    }
+
+    /**
+     * Call the methods of the given listener matching the events of this batch, in the order
+     * the events occurred.
+     *
+     * @param listener the listener receiving the events.
+     */
+    public void dispatch(SchedulerEventListener listener) {
+        for (int i = 0; i < methodNames.size(); i++) {
+            try {
+                Method method = listener.getClass().getMethod(methodNames.get(i), parameterTypes.get(i));
+                method.invoke(listener, arguments.get(i));
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException("Cannot call " + methodNames.get(i) + " on " +
+                    listener.getClass().getName(), e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ *  *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2014 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ *  * $$ACTIVEEON_INITIAL_DEV$$
+ */
+package org.ow2.proactive.scheduler.common;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+
+
+/**
+ * Listener able to receive several events of the scheduler in one call.
+ * <p>
+ * When several events are waiting to be sent to a listener implementing this interface, they
+ * are sent with one call to {@link #schedulerEventsBatch(SchedulerEventBatch)} instead of one
+ * call per event. Listeners only implementing {@link SchedulerEventListener} still receive one
+ * call per event.
+ *
+ * @author The ProActive Team
+ */
+@PublicAPI
+public interface SchedulerEventBatchListener extends SchedulerEventListener {
+
+    /**
+     * Invoked with the events waiting to be sent.
+     * {@link SchedulerEventBatch#dispatch(SchedulerEventListener)} calls the methods of the
+     * listener matching each event, in the order the events occurred.
+     *
+     * @param events the events waiting to be sent.
+     */
+    void schedulerEventsBatch(SchedulerEventBatch events);
+
+}
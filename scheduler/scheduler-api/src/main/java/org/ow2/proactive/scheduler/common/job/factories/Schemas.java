@@ -34,9 +34,13 @@
  */
 package org.ow2.proactive.scheduler.common.job.factories;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.iso_relax.verifier.Schema;
+import org.iso_relax.verifier.VerifierFactory;
+
 
 public enum Schemas {
 
@@ -62,11 +66,48 @@ public enum Schemas {
     String location;
     String namespace;
 
+    /** Compiled schema, shared by all validations as schemas are thread-safe */
+    private volatile Schema schema;
+
     Schemas(String location, String namespace) {
         this.location = location;
         this.namespace = namespace;
     }
 
+    /**
+     * @return the schema compiled on first use
+     */
+    Schema getSchema() {
+        Schema compiled = schema;
+        if (compiled == null) {
+            synchronized (this) {
+                compiled = schema;
+                if (compiled == null) {
+                    compiled = compile();
+                    schema = compiled;
+                }
+            }
+        }
+        return compiled;
+    }
+
+    private Schema compile() {
+        try (InputStream schemaStream = Schemas.class.getResourceAsStream(location)) {
+            VerifierFactory vfactory = new com.sun.msv.verifier.jarv.TheFactoryImpl();
+            return vfactory.compileSchema(schemaStream);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not compile job descriptor schema " + location, e);
+        }
+    }
+
+    /**
+     * @return the schema declaring the given namespace or the latest one if none matches
+     */
+    static Schemas forNamespace(String namespace) {
+        Schemas schema = SCHEMAS_BY_NAMESPACE.get(namespace);
+        return schema != null ? schema : SCHEMA_LATEST;
+    }
+
     protected static Map<String, Schemas> SCHEMAS_BY_NAMESPACE;
 
     static {
@@ -36,15 +36,14 @@
  */
 package org.ow2.proactive.scheduler.common.job.factories;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -84,7 +83,6 @@ import org.ow2.proactive.topology.descriptor.ThresholdProximityDescriptor;
 import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
 import org.ow2.proactive.utils.Tools;
 import org.apache.log4j.Logger;
-import org.iso_relax.verifier.VerifierConfigurationException;
 import org.xml.sax.SAXException;
 
 import static org.ow2.proactive.scheduler.common.util.VariableSubstitutor.filterAndUpdate;
@@ -170,12 +168,15 @@ public class StaxJobFactory extends JobFactory {
             if (!f.exists()) {
                 throw new FileNotFoundException("This file has not been found : " + f.getAbsolutePath());
             }
-            //validate content using the proper XML schema
-            validate(f);
+            //read the file once for the validation and the creation of the job
+            byte[] content = Files.readAllBytes(f.toPath());
+            //validate content using the XML schema of its namespace
+            String systemId = f.toURI().toString();
+            ValidationUtil.validate(new ByteArrayInputStream(content), systemId);
             //set relative path
             relativePathRoot = f.getParentFile().getAbsolutePath();
             //create and get XML STAX reader
-            XMLStreamReader xmlsr = xmlif.createXMLStreamReader(new FileReader(f));
+            XMLStreamReader xmlsr = xmlif.createXMLStreamReader(systemId, new ByteArrayInputStream(content));
             //Create the job starting at the first cursor position of the XML Stream reader
             createJob(xmlsr, updatedVariables);
             //Close the stream
@@ -202,41 +203,6 @@ public class StaxJobFactory extends JobFactory {
         this.dependencies = null;
     }
 
-    /*
-     * Validate the given job descriptor
-     */
-    private void validate(File file) throws XMLStreamException, JobCreationException,
-            VerifierConfigurationException, SAXException, IOException {
-        String findSchemaByNamespaceUsed = findSchemaByNamespaceUsed(file);
-        InputStream schemaStream = this.getClass().getResourceAsStream(findSchemaByNamespaceUsed);
-        ValidationUtil.validate(file, schemaStream);
-    }
-
-    private String findSchemaByNamespaceUsed(File file) throws FileNotFoundException, XMLStreamException {
-        XMLStreamReader cursorRoot = xmlif.createXMLStreamReader(new FileReader(file));
-        String current;
-        try {
-            int eventType;
-            while (cursorRoot.hasNext()) {
-                eventType = cursorRoot.next();
-                if (eventType == XMLEvent.START_ELEMENT) {
-                    current = cursorRoot.getLocalName();
-                    if (XMLTags.JOB.matches(current)) {
-                        String namespace = cursorRoot.getName().getNamespaceURI();
-                        return Schemas.SCHEMAS_BY_NAMESPACE.get(namespace).location;
-                    }
-                }
-            }
-            return Schemas.SCHEMA_LATEST.location;
-        } catch (Exception e) {
-            return Schemas.SCHEMA_LATEST.location;
-        } finally {
-            if (cursorRoot != null) {
-                cursorRoot.close();
-            }
-        }
-    }
-
     /**
      * Start parsing and creating the job.
      *
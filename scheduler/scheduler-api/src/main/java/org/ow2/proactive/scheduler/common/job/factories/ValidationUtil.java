@@ -43,17 +43,19 @@ import static org.ow2.proactive.scheduler.common.job.factories.XMLTags.TASKFLOW;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Stack;
 
 import org.iso_relax.verifier.Schema;
 import org.iso_relax.verifier.Verifier;
 import org.iso_relax.verifier.VerifierConfigurationException;
 import org.iso_relax.verifier.VerifierFactory;
-import org.iso_relax.verifier.VerifierHandler;
 import org.ow2.proactive.scheduler.common.exception.JobCreationException;
 import org.xml.sax.Attributes;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
 import org.xml.sax.Locator;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
@@ -82,20 +84,58 @@ public class ValidationUtil {
      */
     public static void validate(File jobFile, InputStream schemaIs) throws SAXException, IOException,
             JobCreationException {
+        Schema schema;
         try {
-
-            XMLReader reader = XMLReaderFactory.createXMLReader("org.apache.xerces.parsers.SAXParser");
             VerifierFactory vfactory = new com.sun.msv.verifier.jarv.TheFactoryImpl();
-            Schema schema = vfactory.compileSchema(schemaIs);
+            schema = vfactory.compileSchema(schemaIs);
+        } catch (VerifierConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+        validate(new InputSource(jobFile.getAbsolutePath()), schema);
+    }
+
+    /**
+     * Validates the job descriptor against the schema of the namespace it declares, the
+     * latest schema being used if the namespace is unknown. The schema is selected while
+     * parsing the root element so the job descriptor is only read once.
+     * 
+     * @param jobStream
+     *            the job descriptor content
+     * 
+     * @throws JobCreationException
+     *             if the job descriptor is invalid
+     */
+    public static void validate(InputStream jobStream) throws SAXException, IOException,
+            JobCreationException {
+        validate(jobStream, null);
+    }
 
-            Verifier verifier = schema.newVerifier();
-            VerifierHandler handler = verifier.getVerifierHandler();
-            ContentHandlerDecorator contentHandlerDecorator = new ContentHandlerDecorator(handler);
-            reader.setContentHandler(contentHandlerDecorator);
-            ValidationErrorHandler errHandler = new ValidationErrorHandler(contentHandlerDecorator);
-            verifier.setErrorHandler(errHandler);
+    /**
+     * Validates the job descriptor against the schema of the namespace it declares.
+     * 
+     * @param jobStream
+     *            the job descriptor content
+     * @param systemId
+     *            the location of the job descriptor, used to resolve relative references
+     *            and in the error messages, can be null
+     * 
+     * @throws JobCreationException
+     *             if the job descriptor is invalid
+     * @see #validate(InputStream)
+     */
+    public static void validate(InputStream jobStream, String systemId) throws SAXException, IOException,
+            JobCreationException {
+        InputSource jobSource = new InputSource(jobStream);
+        jobSource.setSystemId(systemId);
+        validate(jobSource, null);
+    }
 
-            reader.parse(jobFile.getAbsolutePath());
+    private static void validate(InputSource jobSource, Schema schema) throws SAXException, IOException,
+            JobCreationException {
+        try {
+            XMLReader reader = XMLReaderFactory.createXMLReader("org.apache.xerces.parsers.SAXParser");
+            reader.setContentHandler(new ContentHandlerDecorator(schema));
+            reader.parse(jobSource);
         } catch (SAXException se) {
             Throwable cause = se.getCause();
             if (cause != null && cause instanceof JobCreationException) {
@@ -104,8 +144,6 @@ public class ValidationUtil {
             } else {
                 throw se;
             }
-        } catch (VerifierConfigurationException e) {
-            throw new IllegalStateException(e);
         }
     }
 
@@ -158,44 +196,87 @@ public class ValidationUtil {
         }
     }
 
+    /**
+     * Forwards the events to the verifier, which is created when the root element is reached
+     * to select the schema from its namespace. The events preceding the root element are
+     * replayed to the verifier.
+     */
     private static class ContentHandlerDecorator implements ContentHandler {
+        private Schema schema;
         private ContentHandler handler;
 
+        private Locator locator;
+        private List<String[]> prefixMappings = new ArrayList<>();
+
         private Stack<String> currentTask = new Stack<String>();
         private Stack<String> currentE = new Stack<String>();
 
-        ContentHandlerDecorator(ContentHandler handler) {
-            this.handler = handler;
+        /**
+         * @param schema the schema to validate against or null to select it from the namespace
+         */
+        ContentHandlerDecorator(Schema schema) {
+            this.schema = schema;
+        }
+
+        private void createHandler(String rootNamespace) throws SAXException {
+            if (schema == null) {
+                schema = Schemas.forNamespace(rootNamespace).getSchema();
+            }
+            try {
+                Verifier verifier = schema.newVerifier();
+                verifier.setErrorHandler(new ValidationErrorHandler(this));
+                handler = verifier.getVerifierHandler();
+            } catch (VerifierConfigurationException e) {
+                throw new IllegalStateException(e);
+            }
+            if (locator != null) {
+                handler.setDocumentLocator(locator);
+            }
+            handler.startDocument();
+            for (String[] prefixMapping : prefixMappings) {
+                handler.startPrefixMapping(prefixMapping[0], prefixMapping[1]);
+            }
         }
 
         @Override
         public void setDocumentLocator(Locator locator) {
-            handler.setDocumentLocator(locator);
+            this.locator = locator;
         }
 
         @Override
         public void startDocument() throws SAXException {
-            handler.startDocument();
+            // forwarded once the verifier is created
         }
 
         @Override
         public void endDocument() throws SAXException {
-            handler.endDocument();
+            if (handler != null) {
+                handler.endDocument();
+            }
         }
 
         @Override
         public void startPrefixMapping(String prefix, String uri) throws SAXException {
-            handler.startPrefixMapping(prefix, uri);
+            if (handler == null) {
+                prefixMappings.add(new String[] { prefix, uri });
+            } else {
+                handler.startPrefixMapping(prefix, uri);
+            }
         }
 
         @Override
         public void endPrefixMapping(String prefix) throws SAXException {
-            handler.endPrefixMapping(prefix);
+            if (handler != null) {
+                handler.endPrefixMapping(prefix);
+            }
         }
 
         @Override
         public void startElement(String uri, String localName, String qName, Attributes atts)
                 throws SAXException {
+            if (handler == null) {
+                createHandler(uri);
+            }
             if (TASK.getXMLName().equals(currentE.push(qName))) {
                 nameAttrValue(atts);
                 currentTask.push(nameAttrValue(atts));
@@ -213,22 +294,30 @@ public class ValidationUtil {
 
         @Override
         public void characters(char[] ch, int start, int length) throws SAXException {
-            handler.characters(ch, start, length);
+            if (handler != null) {
+                handler.characters(ch, start, length);
+            }
         }
 
         @Override
         public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
-            handler.ignorableWhitespace(ch, start, length);
+            if (handler != null) {
+                handler.ignorableWhitespace(ch, start, length);
+            }
         }
 
         @Override
         public void processingInstruction(String target, String data) throws SAXException {
-            handler.processingInstruction(target, data);
+            if (handler != null) {
+                handler.processingInstruction(target, data);
+            }
         }
 
         @Override
         public void skippedEntity(String name) throws SAXException {
-            handler.skippedEntity(name);
+            if (handler != null) {
+                handler.skippedEntity(name);
+            }
         }
 
         public String currentTask() {
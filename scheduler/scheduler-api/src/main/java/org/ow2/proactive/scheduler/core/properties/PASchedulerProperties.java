@@ -126,6 +126,10 @@ public enum PASchedulerProperties {
      * a thread unlock. */
     SCHEDULER_LISTENERS_THREADNUMBER("pa.scheduler.core.listener.threadnumber", PropertyType.INTEGER),
 
+    /** Maximum number of events waiting to be sent to a client. A client which does not receive its events
+     * fast enough to stay under this limit is disconnected. */
+    SCHEDULER_LISTENERS_MAX_QUEUED_EVENTS("pa.scheduler.core.listener.maxqueuedevents", PropertyType.INTEGER),
+
     /* ***************************************************************** */
     /* ********************** AUTHENTICATION PROPERTIES **************** */
     /* ***************************************************************** */
@@ -229,6 +233,15 @@ public enum PASchedulerProperties {
     /** */
     DATASPACE_DEFAULTUSER_HOSTNAME("pa.scheduler.dataspace.defaultuser.hostname", PropertyType.STRING),
 
+    /**
+     * Maximum size (in megabytes) of the cache of input files kept on each node, input files transferred
+     * from remote spaces are taken from this cache by later tasks of the node. 0 disables the cache.
+     */
+    DATASPACE_INPUT_CACHE_SIZE("pa.scheduler.dataspace.inputcache.size", PropertyType.INTEGER),
+
+    /** Folder of the cache of input files on the nodes, the temporary folder of the node by default */
+    DATASPACE_INPUT_CACHE_DIR("pa.scheduler.dataspace.inputcache.dir", PropertyType.STRING),
+
     /* ***************************************************************** */
     /* ************************* LOGS PROPERTIES *********************** */
     /* ***************************************************************** */
@@ -293,6 +306,24 @@ public enum PASchedulerProperties {
      */
     SCHEDULER_DB_LOAD_JOB_PERIOD("pa.scheduler.db.load.job.period", PropertyType.STRING),
 
+    /**
+     * Maximum total length (in characters) of the task scripts kept in memory when loading
+     * the tasks to be started. Scripts of a job are evicted when it is finished.
+     * Setting this property to 0 disables the cache.
+     */
+    SCHEDULER_DB_SCRIPTS_CACHE_SIZE("pa.scheduler.db.scripts.cache.size", PropertyType.INTEGER),
+
+    /**
+     * If true, task start transitions are not written to the database immediately but periodically,
+     * several of them in a single transaction. Pending transitions are always written before any
+     * other access to the database, task results are written immediately. As running tasks are
+     * restarted on recovery, the transitions lost on a crash do not alter the recovered state.
+     */
+    SCHEDULER_DB_WRITE_BEHIND("pa.scheduler.db.writebehind", PropertyType.BOOLEAN),
+
+    /** Period (in millis) between two writes of the pending task start transitions */
+    SCHEDULER_DB_WRITE_BEHIND_PERIOD("pa.scheduler.db.writebehind.period", PropertyType.INTEGER),
+
     EMAIL_NOTIFICATIONS_ENABLED("pa.scheduler.notifications.email.enabled", PropertyType.BOOLEAN),
 
     EMAIL_NOTIFICATIONS_SENDER_ADDRESS("pa.scheduler.notifications.email.from", PropertyType.STRING);
@@ -36,9 +36,11 @@
  */
 package org.ow2.proactive.scheduler.common.job.factories;
 
+import java.io.ByteArrayInputStream;
 import java.net.URI;
 import java.util.Map;
 
+import org.ow2.proactive.scheduler.common.exception.JobCreationException;
 import org.ow2.proactive.scheduler.common.job.Job;
 import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
 import com.google.common.collect.Maps;
@@ -124,4 +126,27 @@ public class TestStaxJobFactory {
 
         assertEquals("system_property_value", testJob.getVariables().get("system_property"));
     }
+
+    @Test
+    public void test_schemas_should_be_compiled_once() {
+        assertSame(Schemas.SCHEMA_LATEST.getSchema(), Schemas.SCHEMA_LATEST.getSchema());
+    }
+
+    @Test
+    public void test_validate_should_use_the_schema_of_the_job_namespace() throws Exception {
+        // the logFile attribute only exists in the 3.0 schema
+        ValidationUtil.validate(new ByteArrayInputStream(jobWithLogFile(Schemas.SCHEMA_3_0).getBytes()));
+    }
+
+    @Test(expected = JobCreationException.class)
+    public void test_validate_should_reject_a_job_which_is_only_valid_under_an_older_schema()
+            throws Exception {
+        ValidationUtil.validate(new ByteArrayInputStream(jobWithLogFile(Schemas.SCHEMA_LATEST).getBytes()));
+    }
+
+    private static String jobWithLogFile(Schemas schema) {
+        return "<job xmlns=\"" + schema.namespace + "\" name=\"job\" logFile=\"/tmp/job.log\">" +
+            "<taskFlow><task name=\"task\"><javaExecutable class=\"org.example.Executable\"/></task>" +
+            "</taskFlow></job>";
+    }
 }
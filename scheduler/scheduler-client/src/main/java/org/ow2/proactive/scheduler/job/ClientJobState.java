@@ -1,9 +1,13 @@
 package org.ow2.proactive.scheduler.job;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.ow2.proactive.scheduler.common.Scheduler;
 import org.ow2.proactive.scheduler.common.job.JobInfo;
@@ -36,6 +40,15 @@ public final class ClientJobState extends JobState {
     private JobType type;
     private Map<TaskId, TaskState> tasks = new HashMap<>();
 
+    /** Tasks by readable name, updated when tasks are added, built on first use */
+    private transient volatile Map<String, TaskState> tasksByName;
+
+    /**
+     * Tasks copied by this job state, null if its task states are not shared with
+     * another job state (see {@link #copyForUpdate()})
+     */
+    private transient Set<TaskId> copiedTasks;
+
     private boolean cancelJobOnError;
     private int maxNumberOfExecution;
 
@@ -43,7 +56,8 @@ public final class ClientJobState extends JobState {
 
     public ClientJobState(JobState jobState) {
         // converting internal job into a light job descriptor
-        jobInfo = (JobInfoImpl) jobState.getJobInfo();
+        // job info is copied as it is updated in place when tasks are updated
+        jobInfo = new JobInfoImpl((JobInfoImpl) jobState.getJobInfo());
         owner = jobState.getOwner();
         type = jobState.getType();
 
@@ -67,6 +81,40 @@ public final class ClientJobState extends JobState {
 
     }
 
+    private ClientJobState(ClientJobState jobState, Map<TaskId, TaskState> tasks) {
+        jobInfo = new JobInfoImpl(jobState.jobInfo);
+        owner = jobState.owner;
+        type = jobState.type;
+
+        this.name = jobState.name;
+        this.description = jobState.description;
+        this.projectName = jobState.projectName;
+        this.priority = jobState.priority;
+        this.inputSpace = jobState.inputSpace;
+        this.outputSpace = jobState.outputSpace;
+
+        this.cancelJobOnError = jobState.cancelJobOnError;
+        this.maxNumberOfExecution = jobState.maxNumberOfExecution;
+
+        this.genericInformations = new HashMap<>(jobState.genericInformations);
+
+        this.tasks = tasks;
+        this.copiedTasks = new HashSet<>();
+    }
+
+    /**
+     * Returns a copy of this job state, to be updated instead of this one once it is shared.
+     * <p>
+     * The task states are shared with the copy, which only copies a task state before updating it.
+     * Dependences of the task states it did not copy keep referencing the task states of this job,
+     * they are restored when the copy is deserialized.
+     *
+     * @return a copy of this job state
+     */
+    public ClientJobState copyForUpdate() {
+        return new ClientJobState(this, new HashMap<>(tasks));
+    }
+
     @Override
     public int getMaxNumberOfExecution() {
         return this.maxNumberOfExecution;
@@ -94,7 +142,7 @@ public final class ClientJobState extends JobState {
         jobInfo.setNumberOfPendingTasks(taskInfo.getJobInfo().getNumberOfPendingTasks());
         jobInfo.setNumberOfRunningTasks(taskInfo.getJobInfo().getNumberOfRunningTasks());
         try {
-            tasks.get(taskInfo.getTaskId()).update(taskInfo);
+            getTaskForUpdate(taskInfo.getTaskId()).update(taskInfo);
         } catch (NullPointerException e) {
             throw new IllegalArgumentException("This task info is not applicable in this job. (task id '" +
                 taskInfo.getTaskId() + "' not found)");
@@ -114,8 +162,10 @@ public final class ClientJobState extends JobState {
         if (this.jobInfo.getTasksSkipped() != null) {
             for (TaskId id : tasks.keySet()) {
                 if (this.jobInfo.getTasksSkipped().contains(id)) {
-                    TaskInfoImpl taskInfo = (TaskInfoImpl) tasks.get(id).getTaskInfo();
+                    // task infos may be shared with copies of this job state, they are not modified
+                    TaskInfoImpl taskInfo = new TaskInfoImpl((TaskInfoImpl) tasks.get(id).getTaskInfo());
                     taskInfo.setStatus(TaskStatus.SKIPPED);
+                    getTaskForUpdate(id).update(taskInfo);
                 }
             }
         }
@@ -142,6 +192,24 @@ public final class ClientJobState extends JobState {
         return tasks;
     }
 
+    /**
+     * Return the task having the given readable name.
+     *
+     * @param taskName the readable name of the task
+     * @return the task or null if there is no task having this name in this job
+     */
+    public TaskState getTask(String taskName) {
+        Map<String, TaskState> index = tasksByName;
+        if (index == null) {
+            index = new HashMap<>(tasks.size());
+            for (TaskState ts : tasks.values()) {
+                index.put(ts.getId().getReadableName(), ts);
+            }
+            tasksByName = index;
+        }
+        return index.get(taskName);
+    }
+
     @Override
     public String getOwner() {
         return owner;
@@ -152,15 +220,52 @@ public final class ClientJobState extends JobState {
         return type;
     }
 
+    /**
+     * Returns the task state having the given id so that it can be updated, copying it first
+     * if it is shared with another job state.
+     */
+    private TaskState getTaskForUpdate(TaskId id) {
+        TaskState ts = tasks.get(id);
+        if (ts == null || copiedTasks == null || !copiedTasks.add(id)) {
+            return ts;
+        }
+        ClientTaskState copy = new ClientTaskState(ts);
+        tasks.put(id, copy);
+        copy.restoreDependences(tasks);
+        Map<String, TaskState> index = tasksByName;
+        if (index != null) {
+            index.put(id.getReadableName(), copy);
+        }
+        return copy;
+    }
+
     private void addTasks(List<ClientTaskState> newTasks) {
+        Map<String, TaskState> index = tasksByName;
         for (ClientTaskState ts : newTasks) {
-            tasks.put(ts.getId(), ts);
+            TaskState previous = tasks.put(ts.getId(), ts);
+            if (copiedTasks != null) {
+                copiedTasks.add(ts.getId());
+            }
+            if (index != null) {
+                if (previous != null) {
+                    index.remove(previous.getId().getReadableName());
+                }
+                index.put(ts.getId().getReadableName(), ts);
+            }
         }
         for (ClientTaskState ts : newTasks) {
             ts.restoreDependences(tasks);
         }
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // dependences may reference task states this job state did not copy
+        for (TaskState ts : tasks.values()) {
+            ((ClientTaskState) ts).restoreDependences(tasks);
+        }
+    }
+
     /**
      * This property is not available for this implementation. Calling this
      * method will throw a RuntimeException
@@ -1,6 +1,11 @@
 package org.ow2.proactive.scheduler.job;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -10,6 +15,7 @@ import org.ow2.proactive.scheduler.common.job.JobType;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.common.task.TaskState;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.task.TaskIdImpl;
 import org.ow2.proactive.scheduler.task.TaskInfoImpl;
 import org.apache.log4j.BasicConfigurator;
@@ -44,6 +50,54 @@ public class ClientJobStateTest {
         assertEquals(3, jobState.getJobInfo().getNumberOfFinishedTasks());
     }
 
+    @Test
+    public void copyForUpdate_ShouldNotModify_SharedJobState() throws Exception {
+        JobInfoImpl jobInfo = createJobInfo();
+        ClientJobState jobState = new ClientJobState(createJobState(jobInfo));
+        TaskState task = jobState.getTasks().get(0);
+
+        ClientJobState copy = jobState.copyForUpdate();
+        assertSame(task, copy.getHMTasks().get(task.getId()));
+
+        JobInfoImpl updatedJobInfo = new JobInfoImpl(jobInfo);
+        updatedJobInfo.setNumberOfRunningTasks(1);
+        TaskInfoImpl updatedTask = createTaskInfo(updatedJobInfo);
+        updatedTask.setStatus(TaskStatus.RUNNING);
+        copy.update(updatedTask);
+
+        assertEquals(0, jobState.getJobInfo().getNumberOfRunningTasks());
+        assertNotEquals(TaskStatus.RUNNING, task.getStatus());
+        assertSame(task, jobState.getHMTasks().get(task.getId()));
+        assertEquals(1, copy.getJobInfo().getNumberOfRunningTasks());
+        assertEquals(TaskStatus.RUNNING, copy.getHMTasks().get(task.getId()).getStatus());
+        assertSame(copy.getHMTasks().get(task.getId()), copy.getTask("task"));
+    }
+
+    @Test
+    public void copyForUpdate_ShouldRestore_DependencesWhenDeserialized() throws Exception {
+        JobInfoImpl jobInfo = createJobInfo();
+        TaskState parent = createTaskState(jobInfo, "task", 1, Collections.<TaskState> emptyList());
+        TaskState child = createTaskState(jobInfo, "child", 2, Collections.singletonList(parent));
+        ClientJobState copy = new ClientJobState(createJobState(jobInfo, parent, child)).copyForUpdate();
+
+        TaskInfoImpl updatedTask = createTaskInfo(jobInfo);
+        updatedTask.setStatus(TaskStatus.RUNNING);
+        copy.update(updatedTask);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(copy);
+        }
+        ClientJobState deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = (ClientJobState) in.readObject();
+        }
+
+        TaskState deserializedParent = deserialized.getTask("task");
+        assertEquals(TaskStatus.RUNNING, deserializedParent.getStatus());
+        assertSame(deserializedParent, deserialized.getTask("child").getDependences().get(0));
+    }
+
     private JobInfoImpl createJobInfo() {
         JobInfoImpl jobInfo = new JobInfoImpl();
         JobIdImpl jobId = new JobIdImpl(1000, "job");
@@ -60,6 +114,10 @@ public class ClientJobStateTest {
     }
 
     private JobState createJobState(final JobInfoImpl jobInfo) {
+        return createJobState(jobInfo, createTaskState(jobInfo, "task", 1, null));
+    }
+
+    private JobState createJobState(final JobInfoImpl jobInfo, final TaskState... taskStates) {
         return new JobState() {
             @Override
             public void update(TaskInfo info) {
@@ -79,45 +137,7 @@ public class ClientJobStateTest {
             @Override
             public ArrayList<TaskState> getTasks() {
                 ArrayList<TaskState> tasks = new ArrayList<>();
-                tasks.add(new TaskState() {
-                    @Override
-                    public void update(TaskInfo taskInfo) {
-
-                    }
-
-                    @Override
-                    public List<TaskState> getDependences() {
-                        return null;
-                    }
-
-                    @Override
-                    public TaskInfo getTaskInfo() {
-                        TaskInfoImpl taskInfo = new TaskInfoImpl();
-                        taskInfo.setJobInfo(jobInfo);
-                        taskInfo.setTaskId(TaskIdImpl.createTaskId(jobInfo.getJobId(), "task", 1, false));
-                        return taskInfo;
-                    }
-
-                    @Override
-                    public int getMaxNumberOfExecutionOnFailure() {
-                        return 0;
-                    }
-
-                    @Override
-                    public TaskState replicate() throws Exception {
-                        return null;
-                    }
-
-                    @Override
-                    public int getIterationIndex() {
-                        return 0;
-                    }
-
-                    @Override
-                    public int getReplicationIndex() {
-                        return 0;
-                    }
-                });
+                Collections.addAll(tasks, taskStates);
                 return tasks;
             }
 
@@ -137,4 +157,47 @@ public class ClientJobStateTest {
             }
         };
     }
-}
\ No newline at end of file
+
+    private TaskState createTaskState(final JobInfoImpl jobInfo, final String name, final int id,
+            final List<TaskState> dependences) {
+        return new TaskState() {
+            @Override
+            public void update(TaskInfo taskInfo) {
+
+            }
+
+            @Override
+            public List<TaskState> getDependences() {
+                return dependences;
+            }
+
+            @Override
+            public TaskInfo getTaskInfo() {
+                TaskInfoImpl taskInfo = new TaskInfoImpl();
+                taskInfo.setJobInfo(jobInfo);
+                taskInfo.setTaskId(TaskIdImpl.createTaskId(jobInfo.getJobId(), name, id, false));
+                return taskInfo;
+            }
+
+            @Override
+            public int getMaxNumberOfExecutionOnFailure() {
+                return 0;
+            }
+
+            @Override
+            public TaskState replicate() throws Exception {
+                return null;
+            }
+
+            @Override
+            public int getIterationIndex() {
+                return 0;
+            }
+
+            @Override
+            public int getReplicationIndex() {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ *  *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ *  * $$ACTIVEEON_INITIAL_DEV$$
+ */
+package org.ow2.proactive.scheduler.task.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+
+
+/**
+ * Cache of the input files transferred from remote spaces to the tasks of the node.
+ * <p>
+ * A file is identified by its remote URI, size and last modification time, so a file modified
+ * in its space is transferred again. Tasks get a copy of the cached file in their scratch space
+ * (and not a link) as they are allowed to modify their input files. The cache is bounded by
+ * the total size of its files, the least recently used files being removed first.
+ *
+ * @see PASchedulerProperties#DATASPACE_INPUT_CACHE_SIZE
+ */
+class InputFileCache {
+
+    private static final Logger logger = Logger.getLogger(InputFileCache.class);
+
+    private static InputFileCache instance;
+
+    private static boolean initialized;
+
+    private final File folder;
+
+    /** Maximum total size of the cached files, in bytes */
+    private final long maxSize;
+
+    private long size;
+
+    /** Cached files by key in access order */
+    private final LinkedHashMap<String, CachedFile> files = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    InputFileCache(File folder, long maxSize) {
+        this.folder = folder;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the cache of the node or null if it is disabled or could not be created
+     */
+    static synchronized InputFileCache getInstance() {
+        if (!initialized) {
+            initialized = true;
+            long maxSize = PASchedulerProperties.DATASPACE_INPUT_CACHE_SIZE.getValueAsInt() * 1024L * 1024L;
+            if (maxSize > 0) {
+                try {
+                    instance = new InputFileCache(createFolder(), maxSize);
+                    logger.info("Input files cache of " + maxSize + " bytes created in " + instance.folder);
+                } catch (IOException e) {
+                    logger.warn("Could not create input files cache, it is disabled", e);
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static File createFolder() throws IOException {
+        String parent = PASchedulerProperties.DATASPACE_INPUT_CACHE_DIR.getValueAsStringOrNull();
+        if (parent == null) {
+            parent = System.getProperty("java.io.tmpdir");
+        }
+        File parentFolder = new File(parent);
+        FileUtils.forceMkdir(parentFolder);
+        // one folder per node JVM as the cache index is kept in memory
+        final File folder = Files.createTempDirectory(parentFolder.toPath(), "pa_input_cache").toFile();
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                FileUtils.deleteQuietly(folder);
+            }
+        });
+        return folder;
+    }
+
+    static String key(String uri, long size, long lastModified) {
+        return uri + '|' + size + '|' + lastModified;
+    }
+
+    /**
+     * @return the cached file having the given key or null if it is not cached
+     */
+    synchronized File get(String key) {
+        CachedFile cachedFile = files.get(key);
+        if (cachedFile == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cachedFile.file;
+    }
+
+    /**
+     * Cache a copy of the given file.
+     *
+     * @param key the key of the remote file
+     * @param source the local copy of the remote file
+     */
+    void put(String key, File source) throws IOException {
+        long length = source.length();
+        if (length > maxSize) {
+            return;
+        }
+        File cached = File.createTempFile("input", ".cache", folder);
+        try {
+            TaskProActiveDataspaces.copyLocalFile(source, cached);
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(cached);
+            throw e;
+        }
+
+        synchronized (this) {
+            CachedFile previous = files.put(key, new CachedFile(cached, length));
+            if (previous != null) {
+                size -= previous.length;
+                FileUtils.deleteQuietly(previous.file);
+            }
+            size += length;
+
+            Iterator<Map.Entry<String, CachedFile>> iterator = files.entrySet().iterator();
+            while (size > maxSize && iterator.hasNext()) {
+                CachedFile eldest = iterator.next().getValue();
+                iterator.remove();
+                size -= eldest.length;
+                // tasks still copying the file keep reading it on systems allowing it
+                FileUtils.deleteQuietly(eldest.file);
+            }
+        }
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return toString(hits.get(), misses.get());
+    }
+
+    static String toString(long hits, long misses) {
+        return "input files cache: " + hits + " hit(s), " + misses + " miss(es)";
+    }
+
+    private static final class CachedFile {
+
+        private final File file;
+
+        private final long length;
+
+        private CachedFile(File file, long length) {
+            this.file = file;
+            this.length = length;
+        }
+    }
+
+}
@@ -35,6 +35,11 @@
 package org.ow2.proactive.scheduler.task.data;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -44,11 +49,13 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.objectweb.proactive.api.PAActiveObject;
 import org.objectweb.proactive.extensions.dataspaces.Utils;
 import org.objectweb.proactive.extensions.dataspaces.api.DataSpacesFileObject;
 import org.objectweb.proactive.extensions.dataspaces.api.FileSelector;
+import org.objectweb.proactive.extensions.dataspaces.api.FileType;
 import org.objectweb.proactive.extensions.dataspaces.api.PADataSpaces;
 import org.objectweb.proactive.extensions.dataspaces.core.DataSpacesNodes;
 import org.objectweb.proactive.extensions.dataspaces.core.naming.NamingService;
@@ -57,6 +64,7 @@ import org.objectweb.proactive.utils.NamedThreadFactory;
 import org.objectweb.proactive.utils.StackTraceUtil;
 import org.ow2.proactive.scheduler.common.SchedulerConstants;
 import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.dataspaces.InputAccessMode;
 import org.ow2.proactive.scheduler.common.task.dataspaces.InputSelector;
 import org.ow2.proactive.scheduler.common.task.dataspaces.OutputSelector;
 import org.ow2.proactive.utils.Formatter;
@@ -288,124 +296,88 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
                 return;
             }
 
-            // will contain all files coming from input space
-            ArrayList<DataSpacesFileObject> inResults = new ArrayList<>();
-            // will contain all files coming from output space
-            ArrayList<DataSpacesFileObject> outResults = new ArrayList<>();
-            // will contain all files coming from global space
-            ArrayList<DataSpacesFileObject> globResults = new ArrayList<>();
-            // will contain all files coming from user space
-            ArrayList<DataSpacesFileObject> userResults = new ArrayList<>();
+            TransferStatistics statistics = new TransferStatistics();
+            List<Future<Long>> transferFutures = new ArrayList<>();
+            Set<String> relPathes = new HashSet<>();
+            // the cache is shared by the tasks of the node, its counters are taken before and after staging
+            InputFileCache cache = InputFileCache.getInstance();
+            long cacheHits = cache == null ? 0 : cache.getHits();
+            long cacheMisses = cache == null ? 0 : cache.getMisses();
 
+            // files are transferred as soon as a space is listed, a relative path is only transferred
+            // from the first space having it, spaces being listed in this order: input, output, global, user
             FileSystemException toBeThrown = null;
-
-            for (InputSelector is : inputFiles) {
-                org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector selector =
-                        new org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector();
-                selector.setIncludes(is.getInputFiles().getIncludes());
-                selector.setExcludes(is.getInputFiles().getExcludes());
-
-                logger.debug("Selector used is " + selector);
-
-                switch (is.getMode()) {
-                    case TransferFromInputSpace:
-                        toBeThrown =
-                                copyInputDataToScratch(INPUT, "INPUT", is, selector, inResults);
-                        break;
-                    case TransferFromOutputSpace:
-                        toBeThrown =
-                                copyInputDataToScratch(OUTPUT, "OUTPUT", is, selector, outResults);
-                        break;
-                    case TransferFromGlobalSpace:
-                        toBeThrown =
-                                copyInputDataToScratch(GLOBAL, "GLOBAL", is, selector, globResults);
-                        break;
-                    case TransferFromUserSpace:
-                        toBeThrown =
-                                copyInputDataToScratch(USER, "USER", is, selector, userResults);
-                    case none:
-                        //do nothing
-                        break;
-                }
+            FileSystemException listingException = transferInputs(inputFiles,
+                    InputAccessMode.TransferFromInputSpace, INPUT, "INPUT", relPathes, transferFutures);
+            toBeThrown = listingException != null ? listingException : toBeThrown;
+            listingException = transferInputs(inputFiles, InputAccessMode.TransferFromOutputSpace, OUTPUT,
+                    "OUTPUT", relPathes, transferFutures);
+            toBeThrown = listingException != null ? listingException : toBeThrown;
+            listingException = transferInputs(inputFiles, InputAccessMode.TransferFromGlobalSpace, GLOBAL,
+                    "GLOBAL", relPathes, transferFutures);
+            toBeThrown = listingException != null ? listingException : toBeThrown;
+            listingException = transferInputs(inputFiles, InputAccessMode.TransferFromUserSpace, USER,
+                    "USER", relPathes, transferFutures);
+            toBeThrown = listingException != null ? listingException : toBeThrown;
+
+            FileSystemException transferException = waitForTransfers(transferFutures, statistics,
+                    "Exception(s) occurred when transferring input files : ");
+
+            logTransferStatistics("Input files transferred to scratch" +
+                (cache == null ? "" : " (" + InputFileCache.toString(cache.getHits() - cacheHits,
+                        cache.getMisses() - cacheMisses) + ")"), statistics);
+
+            if (transferException != null) {
+                toBeThrown = transferException;
             }
-
             if (toBeThrown != null) {
                 throw toBeThrown;
             }
+        } finally {
+            // display dataspaces error and warns if any
+            displayDataspacesStatus();
+        }
+    }
 
-            String outuri = (OUTPUT == null) ? "" : OUTPUT.getVirtualURI();
-            String globuri = (GLOBAL == null) ? "" : GLOBAL.getVirtualURI();
-            String useruri = (USER == null) ? "" : USER.getVirtualURI();
-            String inuri = (INPUT == null) ? "" : INPUT.getVirtualURI();
-
-            Set<String> relPathes = new HashSet<>();
-
-            ArrayList<DataSpacesFileObject> results = new ArrayList<>();
-            results.addAll(inResults);
-            results.addAll(outResults);
-            results.addAll(globResults);
-            results.addAll(userResults);
+    /**
+     * List the files selected in the given space and start transferring them to the scratch space.
+     *
+     * @return the exception which occurred while listing the files if any
+     */
+    private FileSystemException transferInputs(List<InputSelector> inputFiles, InputAccessMode mode,
+            DataSpacesFileObject space, String spaceName, Set<String> relPathes,
+            List<Future<Long>> transferFutures) {
+        FileSystemException toBeThrown = null;
+        String spaceUri = (space == null) ? "" : space.getVirtualURI();
+
+        for (InputSelector is : inputFiles) {
+            if (is.getMode() != mode) {
+                continue;
+            }
+            org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector selector =
+                    new org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector();
+            selector.setIncludes(is.getInputFiles().getIncludes());
+            selector.setExcludes(is.getInputFiles().getExcludes());
+
+            logger.debug("Selector used is " + selector);
+
+            List<DataSpacesFileObject> results = new ArrayList<>();
+            FileSystemException listingException = copyInputDataToScratch(space, spaceName, is, selector,
+                    results);
+            if (listingException != null) {
+                toBeThrown = listingException;
+            }
 
-            ArrayList<Future> transferFutures = new ArrayList<>();
             for (DataSpacesFileObject dsfo : results) {
-                String relativePath;
-                if (inResults.contains(dsfo)) {
-                    relativePath = dsfo.getVirtualURI().replaceFirst(inuri + "/?", "");
-                } else if (outResults.contains(dsfo)) {
-                    relativePath = dsfo.getVirtualURI().replaceFirst(outuri + "/?", "");
-                } else if (globResults.contains(dsfo)) {
-                    relativePath = dsfo.getVirtualURI().replaceFirst(globuri + "/?", "");
-                } else if (userResults.contains(dsfo)) {
-                    relativePath = dsfo.getVirtualURI().replaceFirst(useruri + "/?", "");
-                } else {
-                    // should never happen
-                    throw new IllegalStateException();
-                }
+                String relativePath = dsfo.getVirtualURI().replaceFirst(spaceUri + "/?", "");
                 logger.debug("* " + relativePath);
-                if (!relPathes.contains(relativePath)) {
+                if (relPathes.add(relativePath)) {
                     logger.debug("------------ resolving " + relativePath);
-                    final String finalRelativePath = relativePath;
-                    final DataSpacesFileObject finaldsfo = dsfo;
-                    transferFutures.add(executorTransfer.submit(new Callable<Boolean>() {
-                        @Override
-                        public Boolean call() throws FileSystemException {
-                            logger.info("Copying " + finaldsfo.getRealURI() + " to " + SCRATCH.getRealURI() +
-                                    "/" + finalRelativePath);
-                            SCRATCH
-                                    .resolveFile(finalRelativePath)
-                                    .copyFrom(
-                                            finaldsfo,
-                                            FileSelector.SELECT_SELF);
-                            return true;
-                        }
-                    }));
-
+                    transferFutures.add(submitTransfer(dsfo, SCRATCH, relativePath, true));
                 }
-                relPathes.add(relativePath);
             }
-
-            StringBuilder exceptionMsg = new StringBuilder();
-            String nl = System.lineSeparator();
-            for (Future f : transferFutures) {
-                try {
-                    f.get();
-                } catch (InterruptedException | ExecutionException e) {
-                    logger.error("", e);
-                    exceptionMsg.append(StackTraceUtil.getStackTrace(e)).append(nl);
-                }
-            }
-            if (exceptionMsg.length() > 0) {
-                toBeThrown = new FileSystemException(
-                        "Exception(s) occurred when transferring input files : " + nl + exceptionMsg.toString());
-            }
-
-            if (toBeThrown != null) {
-                throw toBeThrown;
-            }
-        } finally {
-            // display dataspaces error and warns if any
-            displayDataspacesStatus();
         }
+        return toBeThrown;
     }
 
     private FileSystemException copyInputDataToScratch(
@@ -453,8 +425,174 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
         return null;
     }
 
-    protected ExecutorService executorTransfer = Executors.newFixedThreadPool(5,
-      new NamedThreadFactory("FileTransferThreadPool"));
+    /** Java property of the node, maximum number of concurrent file transfers of the node */
+    private static final String TRANSFER_THREADS_PROPERTY = "pas.launcher.dataspaces.transfer.threads";
+
+    private static final int DEFAULT_TRANSFER_THREADS = 5;
+
+    /** File transfers of all the tasks of the node */
+    protected static final ExecutorService executorTransfer = Executors.newFixedThreadPool(Integer
+            .getInteger(TRANSFER_THREADS_PROPERTY, DEFAULT_TRANSFER_THREADS), new NamedThreadFactory(
+        "FileTransferThreadPool"));
+
+    private Future<Long> submitTransfer(final DataSpacesFileObject source,
+            final DataSpacesFileObject destinationSpace, final String relativePath, final boolean useCache) {
+        return executorTransfer.submit(new Callable<Long>() {
+            @Override
+            public Long call() throws FileSystemException {
+                logger.info("Copying " + source.getRealURI() + " to " + destinationSpace.getRealURI() +
+                    "/" + relativePath);
+                return transfer(source, destinationSpace.resolveFile(relativePath), useCache);
+            }
+        });
+    }
+
+    /**
+     * Copy a file or a folder, local files are copied by the file system instead of going
+     * through the file content streams.
+     *
+     * @param useCache if remote files can be taken from the input files cache of the node
+     * @return the number of bytes copied
+     */
+    static long transfer(DataSpacesFileObject source, DataSpacesFileObject destination,
+            boolean useCache) throws FileSystemException {
+        File sourceFile = toLocalFile(source);
+        File destinationFile = toLocalFile(destination);
+        if (sourceFile != null && destinationFile != null && sourceFile.isFile() &&
+            !destinationFile.isDirectory()) {
+            try {
+                return copyLocalFile(sourceFile, destinationFile);
+            } catch (IOException e) {
+                logger.debug("Could not copy local file " + sourceFile + ", falling back to VFS copy", e);
+            }
+        }
+        if (useCache && sourceFile == null && destinationFile != null && !destinationFile.isDirectory() &&
+            source.getType() == FileType.FILE) {
+            InputFileCache cache = InputFileCache.getInstance();
+            if (cache != null) {
+                return transferThroughCache(cache, source, destination, destinationFile);
+            }
+        }
+        destination.copyFrom(source, FileSelector.SELECT_SELF);
+        return source.getType() == FileType.FILE ? source.getContent().getSize() : 0;
+    }
+
+    private static long transferThroughCache(InputFileCache cache, DataSpacesFileObject source,
+            DataSpacesFileObject destination, File destinationFile) throws FileSystemException {
+        String key = InputFileCache.key(source.getRealURI(), source.getContent().getSize(), source
+                .getContent().getLastModifiedTime());
+        File cachedFile = cache.get(key);
+        if (cachedFile != null) {
+            try {
+                return copyLocalFile(cachedFile, destinationFile);
+            } catch (IOException e) {
+                logger.debug("Could not copy cached file " + cachedFile + ", transferring it again", e);
+            }
+        }
+        destination.copyFrom(source, FileSelector.SELECT_SELF);
+        try {
+            cache.put(key, destinationFile);
+        } catch (IOException e) {
+            logger.warn("Could not add " + source.getRealURI() + " to the input files cache", e);
+        }
+        return destinationFile.length();
+    }
+
+    private static File toLocalFile(DataSpacesFileObject fileObject) {
+        String realURI = fileObject.getRealURI();
+        if (realURI == null || !realURI.startsWith("file:")) {
+            return null;
+        }
+        try {
+            return new File(new URI(realURI));
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static long copyLocalFile(File source, File destination) throws IOException {
+        File parent = destination.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+            throw new IOException("Could not create folder " + parent);
+        }
+        long size;
+        try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(destination.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+        destination.setLastModified(source.lastModified());
+        return size;
+    }
+
+    /**
+     * Wait for the given transfers to finish.
+     *
+     * @return an exception gathering the transfer failures if any
+     */
+    private static FileSystemException waitForTransfers(List<Future<Long>> transferFutures,
+            TransferStatistics statistics, String failureMessage) {
+        StringBuilder exceptionMsg = new StringBuilder();
+        String nl = System.lineSeparator();
+        for (Future<Long> f : transferFutures) {
+            try {
+                statistics.add(f.get());
+            } catch (InterruptedException | ExecutionException e) {
+                logger.error("", e);
+                exceptionMsg.append(StackTraceUtil.getStackTrace(e)).append(nl);
+            }
+        }
+        statistics.stop();
+        if (exceptionMsg.length() > 0) {
+            return new FileSystemException(failureMessage + nl + exceptionMsg.toString());
+        }
+        return null;
+    }
+
+    /**
+     * Log the staging time and throughput in the node logs and in the dataspaces status.
+     */
+    private void logTransferStatistics(String message, TransferStatistics statistics) {
+        if (statistics.files == 0) {
+            return;
+        }
+        String summary = message + " : " + statistics;
+        logger.info(summary + " for task " + taskId);
+        this.logDataspacesStatus(summary, DataspacesStatusLevel.INFO);
+    }
+
+    /** Number of files and bytes transferred by a staging phase and its duration */
+    private static final class TransferStatistics {
+
+        private final long start = System.nanoTime();
+
+        private long duration;
+
+        private int files;
+
+        private long bytes;
+
+        private void add(long transferredBytes) {
+            files++;
+            bytes += transferredBytes;
+        }
+
+        private void stop() {
+            duration = System.nanoTime() - start;
+        }
+
+        @Override
+        public String toString() {
+            long millis = TimeUnit.NANOSECONDS.toMillis(duration);
+            double bytesPerSecond = duration == 0 ? 0 : bytes * 1e9 / duration;
+            return String.format("%d file(s), %d bytes in %d ms (%.1f KB/s)", files, bytes, millis,
+                    bytesPerSecond / 1024);
+        }
+    }
 
     private boolean checkOuputSpaceConfigured(DataSpacesFileObject space, String spaceName, OutputSelector os) {
         if (space == null) {
@@ -492,9 +630,14 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
                 }
             }
 
+            TransferStatistics statistics = new TransferStatistics();
+            List<Future<Long>> transferFutures = new ArrayList<>();
+            Set<String> destinations = new HashSet<>();
             ArrayList<DataSpacesFileObject> results = new ArrayList<>();
             FileSystemException toBeThrown = null;
 
+            // files are transferred as soon as they are listed, all selectors being handled concurrently,
+            // a file matched by several selectors is only transferred once to each space
             for (OutputSelector os : outputFiles) {
                 org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector selector =
                         new org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector();
@@ -504,17 +647,20 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
                 switch (os.getMode()) {
                     case TransferToOutputSpace:
                         if (OUTPUT != null) {
-                            toBeThrown = copyScratchDataToOutput(OUTPUT, "OUTPUT", os, selector, results);
+                            toBeThrown = copyScratchDataToOutput(OUTPUT, "OUTPUT", os, selector, results,
+                                    destinations, transferFutures);
                         }
                         break;
                     case TransferToGlobalSpace:
                         if (GLOBAL != null) {
-                            toBeThrown = copyScratchDataToOutput(GLOBAL, "GLOBAL", os, selector, results);
+                            toBeThrown = copyScratchDataToOutput(GLOBAL, "GLOBAL", os, selector, results,
+                                    destinations, transferFutures);
                         }
                         break;
                     case TransferToUserSpace:
                         if (USER != null) {
-                            toBeThrown = copyScratchDataToOutput(USER, "USER", os, selector, results);
+                            toBeThrown = copyScratchDataToOutput(USER, "USER", os, selector, results,
+                                    destinations, transferFutures);
                             break;
                         }
                     case none:
@@ -523,6 +669,16 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
                 results.clear();
             }
 
+            FileSystemException transferException = waitForTransfers(transferFutures, statistics,
+                    "Exception(s) occurred when transferring output files : ");
+
+            logTransferStatistics("Output files transferred from scratch", statistics);
+
+            if (transferException != null) {
+                this.logDataspacesStatus(Formatter.stackTraceToString(transferException),
+                        DataspacesStatusLevel.ERROR);
+                toBeThrown = transferException;
+            }
             if (toBeThrown != null) {
                 throw toBeThrown;
             }
@@ -534,10 +690,11 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
     }
 
     private FileSystemException copyScratchDataToOutput(DataSpacesFileObject space, String spaceName, OutputSelector outputSelector,
-                                                        org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector selector, List<DataSpacesFileObject> results) {
+                                                        org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector selector, List<DataSpacesFileObject> results,
+                                                        Set<String> destinations, List<Future<Long>> transferFutures) {
         try {
             int s = results.size();
-            handleOutput(space, selector, results);
+            handleOutput(space, selector, results, destinations, transferFutures);
             if (results.size() == s) {
                 this.logDataspacesStatus("No file is transferred to " + spaceName + " space at " +
                                 space.getRealURI() + " for selector " + outputSelector,
@@ -569,7 +726,8 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
     }
 
     private void handleOutput(DataSpacesFileObject out, org.objectweb.proactive.extensions.dataspaces.vfs.selector.FileSelector selector,
-                              List<DataSpacesFileObject> results) throws FileSystemException {
+                              List<DataSpacesFileObject> results, Set<String> destinations,
+                              List<Future<Long>> transferFutures) throws FileSystemException {
         Utils.findFiles(SCRATCH, selector, results);
         if (logger.isDebugEnabled()) {
             if (results == null || results.size() == 0) {
@@ -579,43 +737,16 @@ public class TaskProActiveDataspaces implements TaskDataspaces {
             }
         }
         String buri = SCRATCH.getVirtualURI();
-        ArrayList<Future> transferFutures = new ArrayList<>();
 
         if (results != null) {
             for (DataSpacesFileObject dsfo : results) {
                 String relativePath = dsfo.getVirtualURI().replaceFirst(buri + "/?", "");
                 logger.debug("* " + relativePath);
-
-                final String finalRelativePath = relativePath;
-                final DataSpacesFileObject finaldsfo = dsfo;
-                final DataSpacesFileObject finalout = out;
-                transferFutures.add(executorTransfer.submit(new Callable<Boolean>() {
-                    @Override
-                    public Boolean call() throws FileSystemException {
-                        logger.info("Copying " + finaldsfo.getRealURI() + " to " + finalout.getRealURI() +
-                                "/" + finalRelativePath);
-
-                        finalout.resolveFile(finalRelativePath).copyFrom(finaldsfo,
-                                FileSelector.SELECT_SELF);
-                        return true;
-                    }
-                }));
-            }
-        }
-
-        StringBuilder exceptionMsg = new StringBuilder();
-        String nl = System.lineSeparator();
-        for (Future f : transferFutures) {
-            try {
-                f.get();
-            } catch (InterruptedException | ExecutionException  e) {
-                logger.error("", e);
-                exceptionMsg.append(StackTraceUtil.getStackTrace(e)).append(nl);
+                // the same destination must not be written concurrently
+                if (destinations.add(out.getVirtualURI() + '/' + relativePath)) {
+                    transferFutures.add(submitTransfer(dsfo, out, relativePath, false));
+                }
             }
         }
-        if (exceptionMsg.length() > 0) {
-            throw new FileSystemException("Exception(s) occurred when transferring input files : " + nl +
-                    exceptionMsg.toString());
-        }
     }
 }
@@ -0,0 +1,581 @@
+/*
+ *  *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ *  * $$ACTIVEEON_INITIAL_DEV$$
+ */
+package org.ow2.proactive.scheduler.task.executors;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.proactive.extensions.processbuilder.OSProcessBuilder;
+import org.objectweb.proactive.extensions.processbuilder.exception.NotImplementedException;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+import org.ow2.proactive.scheduler.task.TaskContext;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.exceptions.ForkedJvmProcessException;
+import org.ow2.proactive.scheduler.task.utils.ForkerUtils;
+import org.ow2.proactive.utils.CookieBasedProcessTreeKiller;
+import org.apache.log4j.Logger;
+
+
+/**
+ * Pool of idle forked JVMs reused to run several forked tasks.
+ * <p>
+ * The pool is disabled by default, it is enabled by setting the {@value #POOL_SIZE_KEY} java
+ * property of the node to the number of idle JVMs kept for each key. JVMs are only shared between
+ * tasks of the same owner and job, having the same working directory, java home, JVM arguments,
+ * classpath and system environment. Tasks running as their owner never use the pool.
+ * <p>
+ * A pooled JVM receives the task contexts and sends back the task results through a loopback
+ * socket, the output of each task being delimited in the JVM standard streams by a random token.
+ * The processes started by a task are killed at its end, as for a task run in a new JVM.
+ * A pooled JVM is killed when a task is killed, when the communication with it fails or when the
+ * end of a task output is not received in time. It is
+ * replaced in background once it has run {@value #MAX_TASKS_KEY} tasks (10 by default), and killed
+ * once it stayed idle for {@value #IDLE_TIMEOUT_KEY} milliseconds (60000 by default).
+ *
+ * @see ForkedTaskExecutor
+ */
+public final class ForkedJvmPool {
+
+    private static final Logger logger = Logger.getLogger(ForkedJvmPool.class);
+
+    /** Java property of the node, number of idle forked JVMs kept per fork environment, 0 disables the pool */
+    public static final String POOL_SIZE_KEY = "pas.launcher.forkedjvm.pool.size";
+
+    /** Java property of the node, number of tasks a pooled forked JVM runs before being killed */
+    public static final String MAX_TASKS_KEY = "pas.launcher.forkedjvm.pool.maxtasks";
+
+    /** Java property of the node, time (in millis) after which an idle pooled forked JVM is killed */
+    public static final String IDLE_TIMEOUT_KEY = "pas.launcher.forkedjvm.pool.idletimeout";
+
+    private static final int DEFAULT_MAX_TASKS = 10;
+
+    private static final int DEFAULT_IDLE_TIMEOUT = 60000;
+
+    /** Time given to a new forked JVM to connect to the pool */
+    private static final int START_TIMEOUT = 60000;
+
+    /** Time given to the output of a task to be read once the task is finished */
+    private static final int OUTPUT_FLUSH_TIMEOUT = 10000;
+
+    private static final ForkedJvmPool instance = new ForkedJvmPool();
+
+    /** Idle JVMs by key, the most recently used first */
+    private final Map<String, Deque<PooledJvm>> idleJvms = new HashMap<>();
+
+    private final ExecutorService threadPool = Executors.newCachedThreadPool(new NamedThreadFactory(
+        "ForkedJvmPool"));
+
+    private final ScheduledExecutorService idleJvmsKiller = Executors
+            .newSingleThreadScheduledExecutor(new NamedThreadFactory("ForkedJvmPool idle JVMs killer"));
+
+    /** Guarded by idleJvms */
+    private boolean idleJvmsKillerScheduled;
+
+    private ForkedJvmPool() {
+    }
+
+    public static ForkedJvmPool getInstance() {
+        return instance;
+    }
+
+    public static boolean isEnabled() {
+        return getPoolSize() > 0;
+    }
+
+    private static int getPoolSize() {
+        return Integer.getInteger(POOL_SIZE_KEY, 0);
+    }
+
+    private static int getMaxTasks() {
+        return Integer.getInteger(MAX_TASKS_KEY, DEFAULT_MAX_TASKS);
+    }
+
+    private static int getIdleTimeout() {
+        return Integer.getInteger(IDLE_TIMEOUT_KEY, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Get an idle JVM having the given key or start a new one.
+     *
+     * @param nativeScriptPath path of the scheduler home, used to create the process builder
+     * @param key identifies the tasks which can share the JVM
+     * @param javaCommand the java executable and its arguments, without the main class
+     * @param environment the system environment to add to the JVM
+     * @param workingDir the working directory of the JVM
+     * @return a JVM dedicated to the caller until it is given back with {@link #release(PooledJvm)}
+     */
+    PooledJvm borrow(String nativeScriptPath, String key, List<String> javaCommand,
+            Map<String, String> environment, File workingDir) throws Exception {
+        PooledJvm jvm = pollIdle(key);
+        if (jvm == null) {
+            jvm = PooledJvm.start(nativeScriptPath, key, javaCommand, environment, workingDir, this);
+        }
+        return jvm;
+    }
+
+    /**
+     * Give back a JVM to the pool. A JVM which has run enough tasks is killed and another one is
+     * started in background to replace it.
+     */
+    void release(final PooledJvm jvm) {
+        if (!jvm.isAlive()) {
+            jvm.kill();
+        } else if (jvm.executedTasks < getMaxTasks()) {
+            offer(jvm);
+        } else {
+            jvm.kill();
+            threadPool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        offer(PooledJvm.start(jvm.nativeScriptPath, jvm.key, jvm.javaCommand, jvm.environment,
+                                jvm.workingDir, ForkedJvmPool.this));
+                    } catch (Exception e) {
+                        logger.warn("Failed to start a forked JVM in background", e);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Keep a JVM as idle, it is killed if enough JVMs are already idle.
+     */
+    private void offer(PooledJvm jvm) {
+        synchronized (idleJvms) {
+            Deque<PooledJvm> idle = idleJvms.get(jvm.key);
+            if (idle == null) {
+                idle = new ArrayDeque<>();
+                idleJvms.put(jvm.key, idle);
+            }
+            if (idle.size() < getPoolSize()) {
+                jvm.idleSince = System.currentTimeMillis();
+                idle.push(jvm);
+                scheduleIdleJvmsKiller();
+                return;
+            }
+        }
+        jvm.kill();
+    }
+
+    private PooledJvm pollIdle(String key) {
+        synchronized (idleJvms) {
+            Deque<PooledJvm> idle = idleJvms.get(key);
+            PooledJvm jvm;
+            while (idle != null && (jvm = idle.poll()) != null) {
+                if (jvm.isAlive()) {
+                    return jvm;
+                }
+                jvm.kill();
+            }
+            return null;
+        }
+    }
+
+    private void scheduleIdleJvmsKiller() {
+        if (idleJvmsKillerScheduled) {
+            return;
+        }
+        int idleTimeout = getIdleTimeout();
+        idleJvmsKiller.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                killIdleJvms();
+            }
+        }, idleTimeout, idleTimeout, TimeUnit.MILLISECONDS);
+        idleJvmsKillerScheduled = true;
+    }
+
+    /**
+     * Kill the JVMs idle for too long, keys of the finished jobs are removed with them.
+     */
+    private void killIdleJvms() {
+        long idleLimit = System.currentTimeMillis() - getIdleTimeout();
+        synchronized (idleJvms) {
+            Iterator<Deque<PooledJvm>> keys = idleJvms.values().iterator();
+            while (keys.hasNext()) {
+                Deque<PooledJvm> idle = keys.next();
+                // the least recently used JVMs are at the end of the deque
+                while (!idle.isEmpty() && idle.peekLast().idleSince < idleLimit) {
+                    idle.pollLast().kill();
+                }
+                if (idle.isEmpty()) {
+                    keys.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * A forked JVM of the pool, only used by one task at a time.
+     */
+    static final class PooledJvm {
+
+        private final String nativeScriptPath;
+
+        private final String key;
+
+        private final List<String> javaCommand;
+
+        private final Map<String, String> environment;
+
+        private final File workingDir;
+
+        private final Process process;
+
+        private final CookieBasedProcessTreeKiller processTreeKiller;
+
+        private final String token;
+
+        private final ForkedJvmPool pool;
+
+        private final OutputPump outputPump;
+
+        private final OutputPump errorPump;
+
+        private Socket socket;
+
+        private ObjectOutputStream out;
+
+        private ObjectInputStream in;
+
+        private int executedTasks;
+
+        /** Guarded by the idle JVMs of the pool */
+        private long idleSince;
+
+        private PooledJvm(String nativeScriptPath, String key, List<String> javaCommand,
+                Map<String, String> environment, File workingDir, Process process,
+                CookieBasedProcessTreeKiller processTreeKiller, String token, ForkedJvmPool pool) {
+            this.nativeScriptPath = nativeScriptPath;
+            this.key = key;
+            this.javaCommand = javaCommand;
+            this.environment = environment;
+            this.workingDir = workingDir;
+            this.process = process;
+            this.processTreeKiller = processTreeKiller;
+            this.token = token;
+            this.pool = pool;
+            this.outputPump = new OutputPump(process.getInputStream(), token);
+            this.errorPump = new OutputPump(process.getErrorStream(), token);
+            pool.threadPool.submit(outputPump);
+            pool.threadPool.submit(errorPump);
+        }
+
+        private static PooledJvm start(String nativeScriptPath, String key, List<String> javaCommand,
+                Map<String, String> environment, File workingDir, ForkedJvmPool pool) throws Exception {
+            String token = UUID.randomUUID().toString();
+            try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+                serverSocket.setSoTimeout(START_TIMEOUT);
+
+                OSProcessBuilder processBuilder = ForkerUtils.getOSProcessBuilderFactory(nativeScriptPath)
+                        .getBuilder();
+                processBuilder.environment().putAll(environment);
+                CookieBasedProcessTreeKiller processTreeKiller = null;
+                try {
+                    processTreeKiller = CookieBasedProcessTreeKiller.createProcessChildrenKiller(token,
+                            processBuilder.environment());
+                } catch (NotImplementedException ignored) {
+                    // children of the JVM will not be killed
+                }
+                processBuilder.command().addAll(javaCommand);
+                processBuilder.command().add(ForkedJvmPool.class.getName());
+                processBuilder.command().add(String.valueOf(serverSocket.getLocalPort()));
+                processBuilder.directory(workingDir);
+
+                PooledJvm jvm = new PooledJvm(nativeScriptPath, key, javaCommand, environment, workingDir,
+                    processBuilder.start(), processTreeKiller, token, pool);
+                try {
+                    // the token is given on the standard input so that it does not appear in the command line
+                    OutputStream input = jvm.process.getOutputStream();
+                    input.write((token + "\n").getBytes(StandardCharsets.UTF_8));
+                    input.close();
+
+                    jvm.connect(serverSocket.accept());
+                } catch (Exception e) {
+                    jvm.kill();
+                    throw e;
+                }
+                return jvm;
+            }
+        }
+
+        private void connect(Socket socket) throws IOException {
+            this.socket = socket;
+            // the token is checked before deserializing anything sent on the connection
+            socket.setSoTimeout(START_TIMEOUT);
+            if (!token.equals(new DataInputStream(socket.getInputStream()).readUTF())) {
+                throw new IOException("Unexpected connection to the forked JVM pool");
+            }
+            socket.setSoTimeout(0);
+            out = new ObjectOutputStream(socket.getOutputStream());
+            out.flush();
+            in = new ObjectInputStream(socket.getInputStream());
+        }
+
+        /**
+         * Run a task in this JVM.
+         *
+         * @return the task result, or null if the JVM was unavailable and the task was not started
+         */
+        TaskResultImpl execute(TaskContext context, PrintStream outputSink, PrintStream errorSink)
+                throws Exception {
+            outputPump.attach(outputSink);
+            errorPump.attach(errorSink);
+            boolean reusable = false;
+            try {
+                try {
+                    out.writeObject(context);
+                    out.reset();
+                    out.flush();
+                } catch (IOException e) {
+                    logger.debug("Could not send task to pooled forked JVM", e);
+                    return null;
+                }
+                executedTasks++;
+
+                Future<Object> result = pool.threadPool.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        return in.readObject();
+                    }
+                });
+                Object taskResult;
+                try {
+                    taskResult = result.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof EOFException) {
+                        throw new ForkedJvmProcessException("Forked JVM exited while running the task",
+                            e.getCause());
+                    }
+                    throw new ForkedJvmProcessException("Could not read task result from forked JVM", e
+                            .getCause());
+                }
+
+                // wait for the end of the task output, the JVM is not reused if its output
+                // could still be written to the sinks of the next task
+                boolean outputComplete = outputPump.awaitEndOfTask();
+                outputComplete &= errorPump.awaitEndOfTask();
+
+                if (taskResult instanceof Throwable) {
+                    throw new ForkedJvmProcessException("Failed to execute task in a forked JVM",
+                        (Throwable) taskResult);
+                }
+                reusable = outputComplete;
+                return (TaskResultImpl) taskResult;
+            } finally {
+                outputPump.detach();
+                errorPump.detach();
+                if (reusable) {
+                    pool.release(this);
+                } else {
+                    kill();
+                }
+            }
+        }
+
+        private boolean isAlive() {
+            try {
+                process.exitValue();
+                return false;
+            } catch (IllegalThreadStateException stillRunning) {
+                return true;
+            }
+        }
+
+        private void kill() {
+            try {
+                if (socket != null) {
+                    socket.close();
+                }
+            } catch (IOException ignored) {
+                // the process is destroyed anyway
+            }
+            process.destroy();
+            if (processTreeKiller != null) {
+                processTreeKiller.kill();
+            }
+        }
+    }
+
+    /**
+     * Copy one of the standard streams of a pooled JVM to the sink of the running task.
+     */
+    private static final class OutputPump implements Runnable {
+
+        private final BufferedReader reader;
+
+        private final String token;
+
+        private final Semaphore endOfTasks = new Semaphore(0);
+
+        private volatile PrintStream sink;
+
+        private OutputPump(InputStream stream, String token) {
+            this.reader = new BufferedReader(new InputStreamReader(stream));
+            this.token = token;
+        }
+
+        private void attach(PrintStream sink) {
+            // the end of a previous task must not be taken for the end of this one
+            endOfTasks.drainPermits();
+            this.sink = sink;
+        }
+
+        private void detach() {
+            this.sink = null;
+        }
+
+        /**
+         * @return false if the end of the task output was not received in time
+         */
+        private boolean awaitEndOfTask() throws InterruptedException {
+            if (!endOfTasks.tryAcquire(OUTPUT_FLUSH_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                logger.warn("Output of the task in the pooled forked JVM might be incomplete");
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            String line;
+            try {
+                while ((line = reader.readLine()) != null) {
+                    // the token ends the last line of the task if it does not end with a new line
+                    boolean endOfTask = line.endsWith(token);
+                    if (endOfTask) {
+                        line = line.substring(0, line.length() - token.length());
+                    }
+                    PrintStream currentSink = sink;
+                    if (currentSink != null && !(endOfTask && line.isEmpty())) {
+                        currentSink.println(line);
+                    }
+                    if (endOfTask) {
+                        endOfTasks.release();
+                    }
+                }
+            } catch (IOException e) {
+                // nothing to do, the process is dead
+            } finally {
+                endOfTasks.release(Integer.MAX_VALUE / 2);
+            }
+        }
+    }
+
+    /**
+     * Everything here and called from here should only use System.out and System.err
+     */
+    public static void main(String[] args) throws Throwable {
+        if (args.length != 1) {
+            System.err.println("Port of the forked JVM pool is expected");
+            System.exit(-1);
+        }
+
+        String token = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                .readLine();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]))) {
+            DataOutputStream tokenOut = new DataOutputStream(socket.getOutputStream());
+            tokenOut.writeUTF(token);
+            tokenOut.flush();
+            ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+            out.flush();
+            ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
+
+            while (true) {
+                Object context;
+                try {
+                    context = in.readObject();
+                } catch (EOFException poolClosed) {
+                    break;
+                }
+
+                TaskContext taskContext = (TaskContext) context;
+                // the processes started by the task are killed at its end, the JVM keeps running
+                CookieBasedProcessTreeKiller taskProcessTreeKiller = CookieBasedProcessTreeKiller
+                        .createAllChildrenKiller(taskContext.getTaskId().value());
+                Object result;
+                try {
+                    result = new InProcessTaskExecutor().execute(taskContext, System.out, System.err);
+                } catch (Throwable throwable) {
+                    throwable.printStackTrace(System.err);
+                    result = throwable;
+                } finally {
+                    taskProcessTreeKiller.kill();
+                }
+
+                System.out.println(token);
+                System.out.flush();
+                System.err.println(token);
+                System.err.flush();
+
+                out.writeObject(result);
+                out.reset();
+                out.flush();
+            }
+        }
+        System.exit(0);
+    }
+
+}
@@ -45,11 +45,14 @@ import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.objectweb.proactive.extensions.processbuilder.OSProcessBuilder;
 import org.objectweb.proactive.extensions.processbuilder.exception.NotImplementedException;
@@ -69,16 +72,20 @@ import org.ow2.proactive.scripting.ScriptLoader;
 import org.ow2.proactive.scripting.ScriptResult;
 import com.google.common.base.Strings;
 import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
 
 
 /**
  * Executor in charge to fork a new process for running a non forked task in a dedicated JVM.
+ * When the {@link ForkedJvmPool} is enabled, the task is run in an idle JVM of the pool instead.
  *
  * @see ForkedTaskExecutor#fromForkedJVM(String)
  * @see InProcessTaskExecutor
  */
 public class ForkedTaskExecutor implements TaskExecutor {
 
+    private static final Logger logger = Logger.getLogger(ForkedTaskExecutor.class);
+
     private static final String FORK_ENVIRONMENT_BINDING_NAME = "forkEnvironment";
     private static final Set<PosixFilePermission> SHARED_FOLDER_PERMISSIONS = PosixFilePermissions.fromString(
       "rwxrwxrwx");
@@ -96,6 +103,24 @@ public class ForkedTaskExecutor implements TaskExecutor {
     }
 
     public TaskResultImpl execute(TaskContext context, PrintStream outputSink, PrintStream errorSink) {
+        ForkedJvmSettings settings;
+        try {
+            settings = createForkedJvmSettings(context, outputSink, errorSink);
+        } catch (Throwable throwable) {
+            return createTaskResult(context, throwable);
+        }
+
+        if (!context.isRunAsUser() && ForkedJvmPool.isEnabled()) {
+            TaskResultImpl result = executeInPooledJvm(context, settings, outputSink, errorSink);
+            if (result != null) {
+                return result;
+            }
+        }
+        return executeInNewJvm(context, settings, outputSink, errorSink);
+    }
+
+    private TaskResultImpl executeInNewJvm(TaskContext context, ForkedJvmSettings settings,
+            PrintStream outputSink, PrintStream errorSink) {
         CookieBasedProcessTreeKiller taskProcessTreeKiller = null;
         Process process = null;
         ProcessStreamsReader processStreamsReader = null;
@@ -104,8 +129,7 @@ public class ForkedTaskExecutor implements TaskExecutor {
         try {
             serializedContext = serializeContext(context, workingDir);
 
-            OSProcessBuilder processBuilder = createForkedProcess(context, serializedContext, outputSink,
-                    errorSink);
+            OSProcessBuilder processBuilder = createForkedProcess(context, settings, serializedContext);
 
             try {
                 taskProcessTreeKiller = CookieBasedProcessTreeKiller.createProcessChildrenKiller(context
@@ -153,26 +177,51 @@ public class ForkedTaskExecutor implements TaskExecutor {
         }
     }
 
+    /**
+     * @return the task result or null if the pool could not start the task, it is then run in a new JVM
+     */
+    private TaskResultImpl executeInPooledJvm(TaskContext context, ForkedJvmSettings settings,
+            PrintStream outputSink, PrintStream errorSink) {
+        ForkedJvmPool.PooledJvm jvm;
+        try {
+            String key = getPoolKey(context, settings);
+            jvm = ForkedJvmPool.getInstance().borrow(context.getSchedulerHome(), key, settings.javaCommand(),
+                    settings.environment, workingDir);
+        } catch (Throwable throwable) {
+            logger.warn("Could not get a pooled forked JVM, task " + context.getTaskId() +
+                " is run in a new JVM", throwable);
+            return null;
+        }
+        try {
+            return jvm.execute(context, outputSink, errorSink);
+        } catch (Throwable throwable) {
+            // the task was started, running it again could repeat its side effects
+            return createTaskResult(context, throwable);
+        }
+    }
+
+    /**
+     * Pooled JVMs are only shared by the tasks of the same owner and job, having the same working
+     * directory and fork environment.
+     */
+    private String getPoolKey(TaskContext context, ForkedJvmSettings settings) throws Exception {
+        String owner = "";
+        if (decrypter != null && decrypter.getCredentials() != null) {
+            owner = decrypter.decrypt().getLogin();
+        }
+        return owner + "\n" + context.getTaskId().getJobId().value() + "\n" + workingDir.getAbsolutePath() +
+            "\n" + settings.fingerprint();
+    }
+
     private TaskResultImpl createTaskResult(TaskContext context, Throwable throwable) {
         return new TaskResultImpl(context.getTaskId(), new ForkedJvmProcessException(
             "Failed to execute task in a forked JVM", throwable));
     }
 
-    private OSProcessBuilder createForkedProcess(TaskContext context, File serializedContext,
-            PrintStream outputSink, PrintStream errorSink) throws Exception {
-        OSProcessBuilder processBuilder;
-        String nativeScriptPath = context.getSchedulerHome();
-
-        if (context.isRunAsUser()) {
-            shareWorkingDirWithRunAsMeUser(workingDir);
-            processBuilder = ForkerUtils.getOSProcessBuilderFactory(nativeScriptPath).getBuilder(
-                    ForkerUtils.checkConfigAndGetUser(decrypter));
-        } else {
-            processBuilder = ForkerUtils.getOSProcessBuilderFactory(nativeScriptPath).getBuilder();
-        }
-
-        String javaHome = System.getProperty("java.home");
-        String jvmArguments = "";
+    private ForkedJvmSettings createForkedJvmSettings(TaskContext context, PrintStream outputSink,
+            PrintStream errorSink) throws Exception {
+        ForkedJvmSettings settings = new ForkedJvmSettings();
+        settings.javaHome = System.getProperty("java.home");
         StringBuilder classpath = new StringBuilder("." + File.pathSeparatorChar);
         classpath.append(System.getProperty("java.class.path", ""));
 
@@ -203,11 +252,12 @@ public class ForkedTaskExecutor implements TaskExecutor {
             }
 
             for (String jvmArgument : forkEnvironment.getJVMArguments()) {
-                jvmArguments += VariableSubstitutor.filterAndUpdate(jvmArgument, variables);
+                settings.jvmArguments += VariableSubstitutor.filterAndUpdate(jvmArgument, variables);
             }
 
             if (!Strings.isNullOrEmpty(forkEnvironment.getJavaHome())) {
-                javaHome = VariableSubstitutor.filterAndUpdate(forkEnvironment.getJavaHome(), variables);
+                settings.javaHome = VariableSubstitutor.filterAndUpdate(forkEnvironment.getJavaHome(),
+                        variables);
             }
 
             for (String classpathEntry : forkEnvironment.getAdditionalClasspath()) {
@@ -215,16 +265,36 @@ public class ForkedTaskExecutor implements TaskExecutor {
                         VariableSubstitutor.filterAndUpdate(classpathEntry, variables));
             }
 
+            HashMap<String, Serializable> systemEnvironmentVariables = new HashMap<String, Serializable>(
+                System.getenv());
+            systemEnvironmentVariables.putAll(variables);
+            systemEnvironmentVariables.putAll(thirdPartyCredentials);
+            // replace variables in defined system environment values
+            // by existing environment variables, variables and credentials
+            settings.environment = VariableSubstitutor.filterAndUpdate(forkEnvironment
+                    .getSystemEnvironment(), systemEnvironmentVariables);
+        }
+
+        settings.classpath = classpath.toString();
+        return settings;
+    }
+
+    private OSProcessBuilder createForkedProcess(TaskContext context, ForkedJvmSettings settings,
+            File serializedContext) throws Exception {
+        OSProcessBuilder processBuilder;
+        String nativeScriptPath = context.getSchedulerHome();
+
+        if (context.isRunAsUser()) {
+            shareWorkingDirWithRunAsMeUser(workingDir);
+            processBuilder = ForkerUtils.getOSProcessBuilderFactory(nativeScriptPath).getBuilder(
+                    ForkerUtils.checkConfigAndGetUser(decrypter));
+        } else {
+            processBuilder = ForkerUtils.getOSProcessBuilderFactory(nativeScriptPath).getBuilder();
+        }
+
+        if (context.getInitializer().getForkEnvironment() != null) {
             try {
-                HashMap<String, Serializable> systemEnvironmentVariables = new HashMap<String, Serializable>(
-                    System.getenv());
-                systemEnvironmentVariables.putAll(variables);
-                systemEnvironmentVariables.putAll(thirdPartyCredentials);
-                processBuilder.environment().putAll(
-                // replace variables in defined system environment values
-                // by existing environment variables, variables and credentials
-                        VariableSubstitutor.filterAndUpdate(forkEnvironment.getSystemEnvironment(),
-                                systemEnvironmentVariables));
+                processBuilder.environment().putAll(settings.environment);
             } catch (IllegalArgumentException processEnvironmentReadOnly) {
                 throw new IllegalStateException(
                     "Cannot use runAsMe mode and set system environment properties",
@@ -233,12 +303,7 @@ public class ForkedTaskExecutor implements TaskExecutor {
         }
 
         List<String> javaCommand = processBuilder.command();
-        javaCommand.add(javaHome + File.separatorChar + "bin" + File.separatorChar + "java");
-        javaCommand.add("-cp");
-        javaCommand.add(classpath.toString());
-        if (!Objects.equals(jvmArguments, "")) {
-            javaCommand.add(jvmArguments);
-        }
+        javaCommand.addAll(settings.javaCommand());
         javaCommand.add(ForkedTaskExecutor.class.getName());
         javaCommand.add(serializedContext.getAbsolutePath());
 
@@ -297,6 +362,36 @@ public class ForkedTaskExecutor implements TaskExecutor {
         }
     }
 
+    /**
+     * Java executable, arguments and environment of a forked JVM.
+     */
+    private static final class ForkedJvmSettings {
+
+        private String javaHome;
+
+        private String jvmArguments = "";
+
+        private String classpath;
+
+        private Map<String, String> environment = Collections.emptyMap();
+
+        private List<String> javaCommand() {
+            List<String> command = new ArrayList<>();
+            command.add(javaHome + File.separatorChar + "bin" + File.separatorChar + "java");
+            command.add("-cp");
+            command.add(classpath);
+            if (!Objects.equals(jvmArguments, "")) {
+                command.add(jvmArguments);
+            }
+            return command;
+        }
+
+        /** Identifies the forked JVMs started with the same command and environment */
+        private String fingerprint() {
+            return javaCommand() + "\n" + new TreeMap<>(environment);
+        }
+    }
+
     /**
      * Everything here and called from here should only use System.out and System.err
      */
@@ -14,6 +14,7 @@ import org.ow2.proactive.scheduler.common.task.ForkEnvironment;
 import org.ow2.proactive.scheduler.common.task.util.SerializationUtil;
 import org.ow2.proactive.scheduler.job.JobIdImpl;
 import org.ow2.proactive.scheduler.task.containers.ScriptExecutableContainer;
+import org.ow2.proactive.scheduler.task.executors.ForkedJvmPool;
 import org.ow2.proactive.scheduler.task.executors.ForkedTaskExecutor;
 import org.ow2.proactive.scheduler.task.utils.Decrypter;
 import org.ow2.proactive.scripting.SimpleScript;
@@ -52,6 +53,65 @@ public class ForkedTaskExecutorTest {
                 SerializationUtil.deserializeVariableMap(result.getPropagatedVariables()).get("var"));
     }
 
+    @Test
+    public void pooledJvm_outputOfEachTask() throws Throwable {
+        System.setProperty(ForkedJvmPool.POOL_SIZE_KEY, "1");
+
+        ForkedTaskExecutor taskExecutor = new ForkedTaskExecutor(tmpFolder.newFolder());
+
+        for (int i = 0; i < 3; i++) {
+            TestTaskOutput taskOutput = new TestTaskOutput();
+
+            TaskLauncherInitializer initializer = new TaskLauncherInitializer();
+            initializer.setTaskId((TaskIdImpl.createTaskId(JobIdImpl.makeJobId("1000"), "job", 1000L + i,
+                    false)));
+
+            TaskResultImpl result = taskExecutor.execute(new TaskContext(new ScriptExecutableContainer(
+                new TaskScript(new SimpleScript("print('hello" + i + "'); result='hello" + i + "'",
+                    "javascript"))), initializer), taskOutput.outputStream, taskOutput.error);
+
+            assertEquals(String.format("hello" + i + "%n"), taskOutput.output());
+            assertEquals("hello" + i, result.value());
+        }
+    }
+
+    @Test
+    public void pooledJvm_workingDir() throws Throwable {
+        System.setProperty(ForkedJvmPool.POOL_SIZE_KEY, "1");
+        TestTaskOutput taskOutput = new TestTaskOutput();
+
+        File workingDir = tmpFolder.newFolder();
+        ForkedTaskExecutor taskExecutor = new ForkedTaskExecutor(workingDir);
+
+        TaskLauncherInitializer initializer = new TaskLauncherInitializer();
+        initializer.setTaskId((TaskIdImpl.createTaskId(JobIdImpl.makeJobId("1000"), "job", 1000L, false)));
+
+        TaskResultImpl result = taskExecutor.execute(new TaskContext(new ScriptExecutableContainer(
+            new TaskScript(new SimpleScript("result = new java.io.File('.').getCanonicalPath()",
+                "javascript"))), initializer), taskOutput.outputStream, taskOutput.error);
+
+        assertEquals(workingDir.getCanonicalPath(), result.value());
+    }
+
+    @Test
+    public void pooledJvm_failToStart() throws Throwable {
+        System.setProperty(ForkedJvmPool.POOL_SIZE_KEY, "1");
+        System.setProperty("java.home", "does not exist");
+        TestTaskOutput taskOutput = new TestTaskOutput();
+
+        ForkedTaskExecutor taskExecutor = new ForkedTaskExecutor(tmpFolder.newFolder());
+
+        TaskLauncherInitializer initializer = new TaskLauncherInitializer();
+        initializer.setTaskId((TaskIdImpl.createTaskId(JobIdImpl.makeJobId("1000"), "job", 1000L, false)));
+
+        // the task is run in a new JVM, which cannot be started either
+        TaskResultImpl result = taskExecutor.execute(new TaskContext(new ScriptExecutableContainer(
+            new TaskScript(new SimpleScript("print('hello'); result='hello'", "javascript"))), initializer),
+                taskOutput.outputStream, taskOutput.error);
+
+        assertNotNull(result.getException());
+    }
+
     @Test
     public void failToSerialize() throws Throwable {
         TestTaskOutput taskOutput = new TestTaskOutput();
@@ -201,5 +261,6 @@ public class ForkedTaskExecutorTest {
     @After
     public void tearDown() throws Exception {
         System.setProperty("java.home", oldJavaHome);
+        System.clearProperty(ForkedJvmPool.POOL_SIZE_KEY);
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package org.ow2.proactive.scheduler.task.data;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+
+public class InputFileCacheTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @Test
+    public void cached_file_is_a_copy() throws Exception {
+        InputFileCache cache = new InputFileCache(tmpFolder.newFolder(), 100);
+        File input = createFile("input", 10);
+        String key = InputFileCache.key("http://server/input", 10, input.lastModified());
+
+        assertNull(cache.get(key));
+        cache.put(key, input);
+        FileUtils.write(input, "modified");
+
+        File cached = cache.get(key);
+        assertNotNull(cached);
+        assertEquals(10, cached.length());
+        assertEquals(10, cache.size());
+        assertEquals("input files cache: 1 hit(s), 1 miss(es)", cache.toString());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void least_recently_used_files_are_evicted() throws Exception {
+        InputFileCache cache = new InputFileCache(tmpFolder.newFolder(), 25);
+        cache.put("first", createFile("first", 10));
+        cache.put("second", createFile("second", 10));
+        assertNotNull(cache.get("first"));
+
+        cache.put("third", createFile("third", 10));
+
+        assertNotNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        File third = cache.get("third");
+        assertNotNull(third);
+        assertEquals(20, cache.size());
+    }
+
+    @Test
+    public void files_larger_than_the_cache_are_not_cached() throws Exception {
+        InputFileCache cache = new InputFileCache(tmpFolder.newFolder(), 5);
+        cache.put("input", createFile("input", 10));
+
+        assertNull(cache.get("input"));
+        assertEquals(0, cache.size());
+    }
+
+    private File createFile(String name, int size) throws Exception {
+        File file = tmpFolder.newFile(name);
+        FileUtils.writeByteArrayToFile(file, new byte[size]);
+        return file;
+    }
+}
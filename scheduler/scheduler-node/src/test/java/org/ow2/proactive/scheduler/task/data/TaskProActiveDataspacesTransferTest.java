@@ -0,0 +1,77 @@
+package org.ow2.proactive.scheduler.task.data;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.objectweb.proactive.extensions.dataspaces.api.DataSpacesFileObject;
+import org.objectweb.proactive.extensions.dataspaces.api.FileContent;
+import org.objectweb.proactive.extensions.dataspaces.api.FileSelector;
+import org.objectweb.proactive.extensions.dataspaces.api.FileType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+public class TaskProActiveDataspacesTransferTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @Test
+    public void local_file_is_copied_by_the_file_system() throws Exception {
+        File input = tmpFolder.newFile("input");
+        FileUtils.write(input, "0123456789");
+        File output = new File(tmpFolder.getRoot(), "scratch/sub/input");
+        DataSpacesFileObject source = fileObject(input.toURI().toString(), 10);
+        DataSpacesFileObject destination = fileObject(output.toURI().toString(), 0);
+
+        assertEquals(10, TaskProActiveDataspaces.transfer(source, destination, false));
+
+        assertEquals("0123456789", FileUtils.readFileToString(output));
+        assertEquals(input.lastModified(), output.lastModified());
+        verify(destination, never()).copyFrom(any(DataSpacesFileObject.class), any(FileSelector.class));
+    }
+
+    @Test
+    public void local_file_which_cannot_be_copied_goes_through_vfs() throws Exception {
+        File input = tmpFolder.newFile("input");
+        FileUtils.write(input, "0123456789");
+        // the parent of the destination is a file, the folder cannot be created
+        File output = new File(tmpFolder.newFile("scratch"), "input");
+        DataSpacesFileObject source = fileObject(input.toURI().toString(), 10);
+        DataSpacesFileObject destination = fileObject(output.toURI().toString(), 0);
+
+        assertEquals(10, TaskProActiveDataspaces.transfer(source, destination, false));
+
+        verify(destination).copyFrom(source, FileSelector.SELECT_SELF);
+    }
+
+    @Test
+    public void remote_file_goes_through_vfs() throws Exception {
+        File output = new File(tmpFolder.getRoot(), "output");
+        DataSpacesFileObject source = fileObject("http://server/input", 10);
+        DataSpacesFileObject destination = fileObject(output.toURI().toString(), 0);
+
+        assertEquals(10, TaskProActiveDataspaces.transfer(source, destination, false));
+
+        verify(destination).copyFrom(source, FileSelector.SELECT_SELF);
+    }
+
+    private static DataSpacesFileObject fileObject(String realURI, long size) throws Exception {
+        DataSpacesFileObject fileObject = mock(DataSpacesFileObject.class);
+        when(fileObject.getRealURI()).thenReturn(realURI);
+        when(fileObject.getType()).thenReturn(FileType.FILE);
+        FileContent content = mock(FileContent.class);
+        when(content.getSize()).thenReturn(size);
+        when(fileObject.getContent()).thenReturn(content);
+        return fileObject;
+    }
+
+}
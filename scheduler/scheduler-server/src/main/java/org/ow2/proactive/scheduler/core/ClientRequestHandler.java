@@ -37,7 +37,9 @@
 package org.ow2.proactive.scheduler.core;
 
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -47,7 +49,13 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.core.UniqueID;
 import org.objectweb.proactive.utils.NamedThreadFactory;
+import org.ow2.proactive.scheduler.common.NotificationData;
+import org.ow2.proactive.scheduler.common.SchedulerEvent;
+import org.ow2.proactive.scheduler.common.SchedulerEventBatch;
+import org.ow2.proactive.scheduler.common.SchedulerEventBatchListener;
 import org.ow2.proactive.scheduler.common.SchedulerEventListener;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.threading.ReifiedMethodCall;
 
@@ -55,6 +63,11 @@ import org.ow2.proactive.threading.ReifiedMethodCall;
 /**
  * ClientRequestHandler is used to delegate event call to client.
  * This class should be used with the ThreadPoolController which handles threads.
+ * <p>
+ * Events waiting to be sent are coalesced: a progress event of a task replaces the previous
+ * progress event of the same task if it has not been sent yet. A client having too many events
+ * waiting to be sent is disconnected instead of letting its queue grow without limit.
+ * The events waiting to be sent to a {@link SchedulerEventBatchListener} are sent in one call.
  *
  * @author The ProActive Team
  * @since ProActive Scheduling 2.0
@@ -70,6 +83,12 @@ public class ClientRequestHandler {
     private static final ExecutorService threadPoolForNetworkCalls = Executors.newFixedThreadPool(
             THREAD_NUMBER, new NamedThreadFactory("ClientEventHandlerPool"));
 
+    /** Maximum number of events waiting to be sent to a client */
+    private static final int MAX_QUEUED_EVENTS = PASchedulerProperties.SCHEDULER_LISTENERS_MAX_QUEUED_EVENTS
+            .isSet() ? PASchedulerProperties.SCHEDULER_LISTENERS_MAX_QUEUED_EVENTS.getValueAsInt() : 100000;
+
+    private static final String TASK_STATE_UPDATED_EVENT = "taskStateUpdatedEvent";
+
     private static final AtomicInteger requestLeft = new AtomicInteger();
 
     public static void terminate() {
@@ -95,6 +114,10 @@ public class ClientRequestHandler {
     private final SchedulerEventListener client;
     /** Events queue to be stored */
     private final LinkedList<ReifiedMethodCall> eventCallsToStore;
+    /** Progress events in the queue to be stored, by task */
+    private final Map<TaskId, ReifiedMethodCall> taskProgressCallsToStore;
+    /** True if the client was disconnected because too many events were waiting to be sent */
+    private boolean overflowed;
     /** Cross reference to the front-end : used to mark client as dirty */
     private final SchedulerFrontendState frontend;
 
@@ -111,6 +134,7 @@ public class ClientRequestHandler {
         this.frontend = frontend;
         this.clientId = clientId;
         this.eventCallsToStore = new LinkedList<>();
+        this.taskProgressCallsToStore = new HashMap<>();
     }
 
     /**
@@ -121,12 +145,77 @@ public class ClientRequestHandler {
      */
     public void addEvent(Method method, Object... args) {
         synchronized (eventCallsToStore) {
-            eventCallsToStore.add(new ReifiedMethodCall(method, args));
+            if (overflowed) {
+                return;
+            }
+            if (coalesce(method, args)) {
+                return;
+            }
+            if (eventCallsToStore.size() >= MAX_QUEUED_EVENTS) {
+                overflow();
+                return;
+            }
+            ReifiedMethodCall methodCall = new ReifiedMethodCall(method, args);
+            eventCallsToStore.add(methodCall);
             requestLeft.incrementAndGet();
+            if (isTaskProgress(method, args)) {
+                taskProgressCallsToStore.put(getTaskId(args), methodCall);
+            }
         }
         tryStartTask();
     }
 
+    /**
+     * Coalesce the given event with the events waiting to be sent.
+     * Must be called while holding the lock of the queue.
+     *
+     * @return true if the event replaced a waiting event, false if it must be queued
+     */
+    private boolean coalesce(Method method, Object[] args) {
+        if (!TASK_STATE_UPDATED_EVENT.equals(method.getName())) {
+            return false;
+        }
+        if (!isTaskProgress(method, args)) {
+            // a state change is never dropped, progress events of the task are queued after it
+            taskProgressCallsToStore.remove(getTaskId(args));
+            return false;
+        }
+        ReifiedMethodCall waitingProgress = taskProgressCallsToStore.get(getTaskId(args));
+        if (waitingProgress == null) {
+            return false;
+        }
+        waitingProgress.setArguments(args);
+        return true;
+    }
+
+    private static boolean isTaskProgress(Method method, Object[] args) {
+        return TASK_STATE_UPDATED_EVENT.equals(method.getName()) &&
+            ((NotificationData<?>) args[0]).getEventType() == SchedulerEvent.TASK_PROGRESS;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TaskId getTaskId(Object[] args) {
+        return ((NotificationData<TaskInfo>) args[0]).getData().getTaskId();
+    }
+
+    /**
+     * Drop the events waiting to be sent and disconnect the client.
+     * Must be called while holding the lock of the queue.
+     */
+    private void overflow() {
+        logger.warn("More than " + MAX_QUEUED_EVENTS + " events are waiting to be sent to the client " +
+            clientId + ", disconnecting it");
+        overflowed = true;
+        if (requestLeft.addAndGet(-eventCallsToStore.size()) == 0) {
+            synchronized (requestLeft) {
+                requestLeft.notify();
+            }
+        }
+        eventCallsToStore.clear();
+        taskProgressCallsToStore.clear();
+        frontend.markAsDirty(clientId);
+    }
+
     /**
      * Try to create a task with new events to send, and start it in the thread pool.
      * Can do nothing if some previous events are currently being sent.
@@ -140,6 +229,7 @@ public class ClientRequestHandler {
                 LinkedList<ReifiedMethodCall> tasks = (LinkedList<ReifiedMethodCall>) eventCallsToStore
                         .clone();
                 eventCallsToStore.clear();
+                taskProgressCallsToStore.clear();
                 busy.set(true);
                 threadPoolForNetworkCalls.execute(new TaskRunnable(tasks));
             }
@@ -181,6 +271,15 @@ public class ClientRequestHandler {
                         requestLeft.notify();
                     }
                 }
+                if (eventCallsToSend.size() > 1 && client instanceof SchedulerEventBatchListener) {
+                    //send all the events at once
+                    SchedulerEventBatch batch = new SchedulerEventBatch();
+                    for (ReifiedMethodCall methodCall : eventCallsToSend) {
+                        batch.add(methodCall.getMethod(), methodCall.getArguments());
+                    }
+                    eventCallsToSend.clear();
+                    ((SchedulerEventBatchListener) client).schedulerEventsBatch(batch);
+                }
                 //loop on the list and send events
                 while (!eventCallsToSend.isEmpty()) {
                     ReifiedMethodCall methodCall = eventCallsToSend.removeFirst();
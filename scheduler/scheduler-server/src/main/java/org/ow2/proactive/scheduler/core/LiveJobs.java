@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.ow2.proactive.scheduler.common.NotificationData;
@@ -56,11 +57,27 @@ class LiveJobs {
 
         final ReentrantLock jobLock = new ReentrantLock();
 
-        private JobData(InternalJob job) {
+        private final AtomicLong schedulingRevision;
+
+        private JobData(InternalJob job, AtomicLong schedulingRevision) {
             this.job = job;
+            this.schedulingRevision = schedulingRevision;
         }
 
+        /*
+         * Any operation holding the job lock may have changed the set or the order
+         * of the eligible tasks, so the scheduling revision is increased on unlock.
+         */
         void unlock() {
+            schedulingRevision.incrementAndGet();
+            jobLock.unlock();
+        }
+
+        /*
+         * Tasks started by the scheduling loop only leave the eligible set,
+         * this doesn't invalidate the order computed by the policy.
+         */
+        void unlockAfterScheduling() {
             jobLock.unlock();
         }
     }
@@ -73,6 +90,8 @@ class LiveJobs {
 
     private final ConcurrentHashMap<TaskId, RunningTaskData> runningTasksData = new ConcurrentHashMap<>();
 
+    private final AtomicLong schedulingRevision = new AtomicLong();
+
     LiveJobs(SchedulerDBManager dbManager, SchedulerStateUpdate listener) {
         this.dbManager = dbManager;
         this.listener = listener;
@@ -87,7 +106,24 @@ class LiveJobs {
     }
 
     void jobRecovered(InternalJob job) {
-        jobs.put(job.getId(), new JobData(job));
+        jobs.put(job.getId(), new JobData(job, schedulingRevision));
+        schedulingRevision.incrementAndGet();
+    }
+
+    /**
+     * Return a counter increased each time the eligible tasks of the live jobs may have changed
+     * in a way the scheduling policy should be aware of (job submitted, task terminated, priority
+     * changed, job paused or resumed...).
+     * Tasks started by the scheduling loop don't increase it.
+     *
+     * @return the current scheduling revision.
+     */
+    long getSchedulingRevision() {
+        return schedulingRevision.get();
+    }
+
+    void schedulingPolicyChanged() {
+        schedulingRevision.incrementAndGet();
     }
 
     void unpauseAll() {
@@ -209,7 +245,8 @@ class LiveJobs {
         job.submitAction();
         dbManager.newJobSubmitted(job);
         ClientJobState clientJobState = new ClientJobState(job);
-        jobs.put(job.getId(), new JobData(job));
+        jobs.put(job.getId(), new JobData(job, schedulingRevision));
+        schedulingRevision.incrementAndGet();
         listener.jobSubmitted(clientJobState);
     }
 
@@ -226,7 +263,7 @@ class LiveJobs {
     void unlockJobsToSchedule(Collection<JobDescriptor> jobDescriptors) {
         for (JobDescriptor desc : jobDescriptors) {
             JobData jobData = checkJobAccess(desc.getJobId());
-            jobData.unlock();
+            jobData.unlockAfterScheduling();
         }
     }
 
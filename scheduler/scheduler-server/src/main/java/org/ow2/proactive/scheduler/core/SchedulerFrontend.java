@@ -943,13 +943,7 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
         frontendState.checkJobOwner("getTaskServerLogs", id,
                 "You do not have permission to get the task logs of this job");
 
-        for (TaskId taskId : frontendState.getJobTasks(id)) {
-            if (taskId.getReadableName().equals(taskName)) {
-                return ServerJobAndTaskLogs.getTaskLog(taskId);
-            }
-        }
-
-        throw new UnknownTaskException("Unknown task " + taskName + " in job " + jobId);
+        return ServerJobAndTaskLogs.getTaskLog(frontendState.getTaskId(id, taskName));
     }
 
     /**
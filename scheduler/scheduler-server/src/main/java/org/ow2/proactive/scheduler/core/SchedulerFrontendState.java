@@ -62,6 +62,8 @@ import org.ow2.proactive.scheduler.util.TaskLogger;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 
 class SchedulerFrontendState implements SchedulerStateUpdate {
@@ -110,13 +112,34 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
 
     private final Map<JobId, JobState> jobsMap;
 
+    /** Revision of the scheduler state, incremented each time the state changes */
+    private long revision;
+
+    /** Last snapshot of the scheduler state handed out to the clients */
+    private SchedulerStateImpl snapshot;
+
+    /** Revision of the scheduler state the snapshot was taken at */
+    private long snapshotRevision = -1;
+
+    /**
+     * Jobs whose current state instance is referenced by a snapshot or has been handed out
+     * to a client, they are copied before being updated (copy on write)
+     */
+    private final Set<JobId> sharedJobs = Collections.newSetFromMap(new ConcurrentHashMap<JobId, Boolean>());
+
+    /**
+     * Lock of the state of the frontend: permission checks and state lookups share the read lock,
+     * the connections, disconnections and updates of the scheduler state take the write lock
+     */
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+
     SchedulerFrontendState(SchedulerStateImpl sState, SchedulerJMXHelper jmxHelper) {
-        this.identifications = new HashMap<>();
-        this.credentials = new HashMap<>();
+        this.identifications = new ConcurrentHashMap<>();
+        this.credentials = new ConcurrentHashMap<>();
         this.dirtyList = new HashSet<>();
         this.jmxHelper = jmxHelper;
-        this.jobsMap = new HashMap<>();
-        this.jobs = new HashMap<>();
+        this.jobsMap = new ConcurrentHashMap<>();
+        this.jobs = new ConcurrentHashMap<>();
         this.sessionTimer = new Timer("SessionTimer");
         this.sState = sState;
         recover(sState);
@@ -169,20 +192,31 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      * @param identification the identification of the connected user
      * @throws SchedulerException If an error occurred during connection with the front-end.
      */
-    synchronized void connect(UniqueID sourceBodyID, UserIdentificationImpl identification, Credentials cred)
+    void connect(UniqueID sourceBodyID, UserIdentificationImpl identification, Credentials cred)
             throws AlreadyConnectedException {
-        if (identifications.containsKey(sourceBodyID)) {
-            logger.warn("Active object already connected for this user :" + identification.getUsername());
-            throw new AlreadyConnectedException("This active object is already connected to the scheduler !");
+        stateLock.writeLock().lock();
+        try {
+            if (identifications.containsKey(sourceBodyID)) {
+                logger.warn("Active object already connected for this user :" +
+                    identification.getUsername());
+                throw new AlreadyConnectedException(
+                    "This active object is already connected to the scheduler !");
+            }
+            logger.info(identification.getUsername() + " successfully connected !");
+            identifications.put(sourceBodyID, new ListeningUser(identification));
+            if (cred != null) {
+                credentials.put(sourceBodyID, cred);
+            }
+            renewUserSession(sourceBodyID, identification);
+            //add this new user in the list of connected user
+            sState.getUsers().update(identification);
+            revision++;
+            //send events
+            usersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE,
+                identification));
+        } finally {
+            stateLock.writeLock().unlock();
         }
-        logger.info(identification.getUsername() + " successfully connected !");
-        identifications.put(sourceBodyID, new ListeningUser(identification));
-        credentials.put(sourceBodyID, cred);
-        renewUserSession(sourceBodyID, identification);
-        //add this new user in the list of connected user
-        sState.getUsers().update(identification);
-        //send events
-        usersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, identification));
     }
 
     /**
@@ -199,46 +233,123 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
             return;
         }
         final String userName = identification.getUsername();
-        TimerTask session = identification.getSession();
-        if (session != null) {
-            session.cancel();
-        }
-        identification.setSession(new TimerTask() {
-            @Override
-            public void run() {
-                logger.info("End of session for user " + userName + ", id=" + id);
-                disconnect(id);
+        //sessions may be renewed concurrently by the requests of a same user
+        synchronized (identification) {
+            TimerTask session = identification.getSession();
+            if (session != null) {
+                session.cancel();
             }
-        });
-        sessionTimer.purge();
-        sessionTimer.schedule(identification.getSession(), USER_SESSION_DURATION);
+            identification.setSession(new TimerTask() {
+                @Override
+                public void run() {
+                    logger.info("End of session for user " + userName + ", id=" + id);
+                    disconnect(id);
+                }
+            });
+            sessionTimer.purge();
+            sessionTimer.schedule(identification.getSession(), USER_SESSION_DURATION);
+        }
     }
 
-    synchronized SchedulerStatus getStatus() throws NotConnectedException, PermissionException {
-        //checking permissions
-        checkPermission("getStatus", "You do not have permission to get the status !");
+    SchedulerStatus getStatus() throws NotConnectedException, PermissionException {
+        stateLock.readLock().lock();
+        try {
+            //checking permissions
+            checkPermission("getStatus", "You do not have permission to get the status !");
 
-        return sState.getStatus();
+            return sState.getStatus();
+        } finally {
+            stateLock.readLock().unlock();
+        }
     }
 
-    synchronized SchedulerState getState() throws NotConnectedException, PermissionException {
+    SchedulerState getState() throws NotConnectedException, PermissionException {
         return getState(false);
     }
 
-    synchronized SchedulerState getState(boolean myJobsOnly) throws NotConnectedException,
-            PermissionException {
+    SchedulerState getState(boolean myJobsOnly) throws NotConnectedException, PermissionException {
         //checking permissions
-        checkPermission("getState", "You do not have permission to get the state !");
-
-        ListeningUser ui = identifications.get(PAActiveObject.getContext().getCurrentRequest()
-                .getSourceBodyID());
+        UserIdentificationImpl ui = checkPermission("getState",
+                "You do not have permission to get the state !");
         try {
-            checkOwnStatePermission(myJobsOnly, ui.getUser());
-            return myJobsOnly ? sState.filterOnUser(ui.getUser().getUsername()) : sState;
+            checkOwnStatePermission(myJobsOnly, ui);
         } catch (PermissionException ex) {
             logger.info(ex.getMessage());
             throw ex;
         }
+        // the snapshot is never modified, it is filtered and serialized without holding the monitor
+        SchedulerStateImpl state = getSnapshot();
+        return myJobsOnly ? state.filterOnUser(ui.getUsername()) : state;
+    }
+
+    /**
+     * Returns an immutable snapshot of the scheduler state.
+     * <p>
+     * The snapshot is only taken again when the state changed since the last one. It references
+     * the current job states, which are then copied before their next update instead of being
+     * modified, so taking a snapshot only costs copying the lists of jobs. Copying a job state
+     * only copies the states of the tasks being updated.
+     *
+     * @return a snapshot of the current scheduler state
+     */
+    SchedulerStateImpl getSnapshot() {
+        stateLock.readLock().lock();
+        try {
+            if (snapshotRevision == revision) {
+                return snapshot;
+            }
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        stateLock.writeLock().lock();
+        try {
+            if (snapshotRevision != revision) {
+                SchedulerStateImpl state = new SchedulerStateImpl();
+                state.setState(sState.getStatus());
+                SchedulerUsers users = new SchedulerUsers();
+                for (UserIdentification user : sState.getUsers().getUsers()) {
+                    users.update(user);
+                }
+                state.setUsers(users);
+                state.setPendingJobs(new Vector<>(sState.getPendingJobs()));
+                state.setRunningJobs(new Vector<>(sState.getRunningJobs()));
+                state.setFinishedJobs(new Vector<>(sState.getFinishedJobs()));
+                sharedJobs.addAll(jobsMap.keySet());
+                snapshot = state;
+                snapshotRevision = revision;
+            }
+            return snapshot;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the state of the given job so that it can be updated, copying it first if
+     * it is shared with a snapshot or a client. The copy shares the task states and only
+     * copies them before updating them.
+     */
+    private JobState getJobStateForUpdate(JobId jobId) {
+        JobState js = jobsMap.get(jobId);
+        if (js == null || !sharedJobs.remove(jobId)) {
+            return js;
+        }
+        JobState copy = js instanceof ClientJobState ? ((ClientJobState) js).copyForUpdate()
+                : new ClientJobState(js);
+        jobsMap.put(jobId, copy);
+        if (!replace(sState.getPendingJobs(), js, copy) && !replace(sState.getRunningJobs(), js, copy)) {
+            replace(sState.getFinishedJobs(), js, copy);
+        }
+        return copy;
+    }
+
+    private static boolean replace(List<JobState> jobStates, JobState js, JobState copy) {
+        int index = jobStates.indexOf(js);
+        if (index < 0) {
+            return false;
+        }
+        jobStates.set(index, copy);
+        return true;
     }
 
     /**
@@ -248,67 +359,76 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      * @param ui the user identification
      * @throws PermissionException if permission is denied
      */
-    synchronized void checkOwnStatePermission(boolean myOnly, UserIdentificationImpl ui)
-            throws PermissionException {
+    void checkOwnStatePermission(boolean myOnly, UserIdentificationImpl ui) throws PermissionException {
         ui.checkPermission(new GetOwnStateOnlyPermission(myOnly), ui.getUsername() +
             " does not have permissions to retrieve full state");
     }
 
-    synchronized void addEventListener(SchedulerEventListener sel, boolean myEventsOnly,
+    void addEventListener(SchedulerEventListener sel, boolean myEventsOnly,
             SchedulerEvent... events) throws NotConnectedException, PermissionException {
         addEventListener(sel, myEventsOnly, false, events);
     }
 
-    synchronized SchedulerState addEventListener(SchedulerEventListener sel, boolean myEventsOnly,
+    SchedulerState addEventListener(SchedulerEventListener sel, boolean myEventsOnly,
             boolean getCurrentState, SchedulerEvent... events) throws NotConnectedException,
             PermissionException {
-        //checking permissions
-        ListeningUser uIdent = checkPermissionReturningListeningUser("addEventListener",
-                "You do not have permission to add a listener !");
+        stateLock.writeLock().lock();
+        try {
+            //checking permissions
+            ListeningUser uIdent = checkPermissionReturningListeningUser("addEventListener",
+                    "You do not have permission to add a listener !");
+
+            // check if listener is not null
+            if (sel == null) {
+                String msg = "Scheduler listener must be not null";
+                logger.info(msg);
+                throw new IllegalArgumentException(msg);
+            }
+            // check if the listener is a reified remote object
+            if (!MOP.isReifiedObject(sel)) {
+                String msg = "Scheduler listener must be a remote object";
+                logger.info(msg);
+                throw new IllegalArgumentException(msg);
+            }
 
-        // check if listener is not null
-        if (sel == null) {
-            String msg = "Scheduler listener must be not null";
-            logger.info(msg);
-            throw new IllegalArgumentException(msg);
+            //get the scheduler State
+            SchedulerState currentState = null;
+            if (getCurrentState) {
+                //check get state permission is checked in getState method
+                currentState = getState(myEventsOnly);
+            } else {
+                //check get state permission
+                checkOwnStatePermission(myEventsOnly, uIdent.getUser());
+            }
+            //prepare user for receiving events
+            uIdent.getUser().setUserEvents(events);
+            //set if the user wants to get its events only or every events
+            uIdent.getUser().setMyEventsOnly(myEventsOnly);
+            //add the listener to the list of listener for this user.
+            UniqueID id = PAActiveObject.getContext().getCurrentRequest().getSourceBodyID();
+            uIdent.setListener(new ClientRequestHandler(this, id, sel));
+            //cancel timer for this user : session is now managed by events
+            uIdent.getUser().getSession().cancel();
+            //return to the user
+            return currentState;
+        } finally {
+            stateLock.writeLock().unlock();
         }
-        // check if the listener is a reified remote object
-        if (!MOP.isReifiedObject(sel)) {
-            String msg = "Scheduler listener must be a remote object";
-            logger.info(msg);
-            throw new IllegalArgumentException(msg);
-        }
-
-        //get the scheduler State
-        SchedulerState currentState = null;
-        if (getCurrentState) {
-            //check get state permission is checked in getState method
-            currentState = getState(myEventsOnly);
-        } else {
-            //check get state permission
-            checkOwnStatePermission(myEventsOnly, uIdent.getUser());
-        }
-        //prepare user for receiving events
-        uIdent.getUser().setUserEvents(events);
-        //set if the user wants to get its events only or every events
-        uIdent.getUser().setMyEventsOnly(myEventsOnly);
-        //add the listener to the list of listener for this user.
-        UniqueID id = PAActiveObject.getContext().getCurrentRequest().getSourceBodyID();
-        uIdent.setListener(new ClientRequestHandler(this, id, sel));
-        //cancel timer for this user : session is now managed by events
-        uIdent.getUser().getSession().cancel();
-        //return to the user
-        return currentState;
     }
 
-    synchronized void removeEventListener() throws NotConnectedException, PermissionException {
-        //Remove the listener on that user designated by its given UniqueID,
-        //then renew its user session as it is no more managed by the listener.
-        UniqueID id = checkAccess();
-        ListeningUser uIdent = identifications.get(id);
-        uIdent.clearListener();
-        //recreate the session for this user which is no more managed by listener
-        renewUserSession(id, uIdent.getUser());
+    void removeEventListener() throws NotConnectedException, PermissionException {
+        stateLock.writeLock().lock();
+        try {
+            //Remove the listener on that user designated by its given UniqueID,
+            //then renew its user session as it is no more managed by the listener.
+            UniqueID id = checkAccess();
+            ListeningUser uIdent = identifications.get(id);
+            uIdent.clearListener();
+            //recreate the session for this user which is no more managed by listener
+            renewUserSession(id, uIdent.getUser());
+        } finally {
+            stateLock.writeLock().unlock();
+        }
     }
 
     private UniqueID checkAccess() throws NotConnectedException {
@@ -320,9 +440,9 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         return id;
     }
 
-    synchronized InternalJob createJob(Job userJob, UserIdentificationImpl ident)
-            throws NotConnectedException, PermissionException, SubmissionClosedException,
-            JobCreationException {
+    InternalJob createJob(Job userJob, UserIdentificationImpl ident)
+        throws NotConnectedException, PermissionException, SubmissionClosedException,
+        JobCreationException {
         UniqueID id = checkAccess();
 
         //get the internal job.
@@ -350,50 +470,60 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         return job;
     }
 
-    synchronized void jobSubmitted(InternalJob job, UserIdentificationImpl ident)
+    void jobSubmitted(InternalJob job, UserIdentificationImpl ident)
             throws NotConnectedException, PermissionException, SubmissionClosedException,
             JobCreationException {
-        //put the job inside the frontend management list
-        jobs.put(job.getId(), new IdentifiedJob(job.getId(), ident));
-        //increase number of submit for this user
-        ident.addSubmit();
-        //send update user event
-        usersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, ident));
-        jlogger.info(job.getId(), "submitted: name '" + job.getName() + "', tasks '" +
-            job.getTotalNumberOfTasks() + "', owner '" + job.getOwner() + "'");
+        stateLock.writeLock().lock();
         try {
-            jlogger.info(job.getId(), job.display());
-        } catch (Exception e) {
-            jlogger.error(job.getId(), "Error while displaying the job :", e);
+            //put the job inside the frontend management list
+            jobs.put(job.getId(), new IdentifiedJob(job.getId(), ident));
+            //increase number of submit for this user
+            ident.addSubmit();
+            //send update user event
+            usersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, ident));
+            jlogger.info(job.getId(), "submitted: name '" + job.getName() + "', tasks '" +
+                job.getTotalNumberOfTasks() + "', owner '" + job.getOwner() + "'");
+            try {
+                jlogger.info(job.getId(), job.display());
+            } catch (Exception e) {
+                jlogger.error(job.getId(), "Error while displaying the job :", e);
+            }
+        } finally {
+            stateLock.writeLock().unlock();
         }
     }
 
-    synchronized ListeningUser checkPermissionReturningListeningUser(String methodName, String permissionMsg)
+    ListeningUser checkPermissionReturningListeningUser(String methodName, String permissionMsg)
             throws NotConnectedException, PermissionException {
-        UniqueID id = checkAccess();
+        stateLock.readLock().lock();
+        try {
+            UniqueID id = checkAccess();
 
-        ListeningUser ident = identifications.get(id);
-        //renew session for this user
-        renewUserSession(id, ident.getUser());
+            ListeningUser ident = identifications.get(id);
+            //renew session for this user
+            renewUserSession(id, ident.getUser());
 
-        final String fullMethodName = SchedulerFrontend.class.getName() + "." + methodName;
-        final MethodCallPermission methodCallPermission = new MethodCallPermission(fullMethodName);
+            final String fullMethodName = SchedulerFrontend.class.getName() + "." + methodName;
+            final MethodCallPermission methodCallPermission = new MethodCallPermission(fullMethodName);
 
-        try {
-            ident.getUser().checkPermission(methodCallPermission, permissionMsg);
-        } catch (PermissionException ex) {
-            logger.warn(permissionMsg);
-            throw ex;
+            try {
+                ident.getUser().checkPermission(methodCallPermission, permissionMsg);
+            } catch (PermissionException ex) {
+                logger.warn(permissionMsg);
+                throw ex;
+            }
+            return ident;
+        } finally {
+            stateLock.readLock().unlock();
         }
-        return ident;
     }
 
-    synchronized UserIdentificationImpl checkPermission(String methodName, String permissionMsg)
+    UserIdentificationImpl checkPermission(String methodName, String permissionMsg)
             throws NotConnectedException, PermissionException {
         return checkPermissionReturningListeningUser(methodName, permissionMsg).getUser();
     }
 
-    synchronized void disconnect() throws NotConnectedException, PermissionException {
+    void disconnect() throws NotConnectedException, PermissionException {
         UniqueID id = checkAccess();
         disconnect(id);
     }
@@ -403,26 +533,32 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
      * 
      * @param id the uniqueID of the user
      */
-    private synchronized void disconnect(UniqueID id) {
-        credentials.remove(id);
-        ListeningUser ident = identifications.remove(id);
-        if (ident != null) {
-            //remove listeners if needed
-            ident.clearListener();
-            //remove this user to the list of connected user if it has not already been removed
-            ident.getUser().setToRemove();
-            sState.getUsers().update(ident.getUser());
-            //cancel the timer
-            ident.getUser().getSession().cancel();
-            //log and send events
-            String user = ident.getUser().getUsername();
-            logger.info("User '" + user + "' has disconnect the scheduler !");
-            dispatchUsersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE, ident
-                    .getUser()), false);
-        }
-    }
-
-    synchronized boolean isConnected() {
+    private void disconnect(UniqueID id) {
+        stateLock.writeLock().lock();
+        try {
+            credentials.remove(id);
+            ListeningUser ident = identifications.remove(id);
+            if (ident != null) {
+                //remove listeners if needed
+                ident.clearListener();
+                //remove this user to the list of connected user if it has not already been removed
+                ident.getUser().setToRemove();
+                sState.getUsers().update(ident.getUser());
+                revision++;
+                //cancel the timer
+                ident.getUser().getSession().cancel();
+                //log and send events
+                String user = ident.getUser().getUsername();
+                logger.info("User '" + user + "' has disconnect the scheduler !");
+                dispatchUsersUpdated(new NotificationData<UserIdentification>(SchedulerEvent.USERS_UPDATE,
+                    ident.getUser()), false);
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    boolean isConnected() {
         try {
             checkAccess();
             return true;
@@ -431,156 +567,209 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         }
     }
 
-    synchronized void renewSession() throws NotConnectedException {
-        UniqueID id = checkAccess();
-        UserIdentificationImpl ident = identifications.get(id).getUser();
-        //renew session for this user
-        renewUserSession(id, ident);
+    void renewSession() throws NotConnectedException {
+        stateLock.readLock().lock();
+        try {
+            UniqueID id = checkAccess();
+            UserIdentificationImpl ident = identifications.get(id).getUser();
+            //renew session for this user
+            renewUserSession(id, ident);
+        } finally {
+            stateLock.readLock().unlock();
+        }
     }
 
-    synchronized IdentifiedJob checkJobOwner(String methodName, JobId jobId, String permissionMsg)
+    IdentifiedJob checkJobOwner(String methodName, JobId jobId, String permissionMsg)
             throws NotConnectedException, UnknownJobException, PermissionException {
-        ListeningUser ident = checkPermissionReturningListeningUser(methodName, permissionMsg);
+        stateLock.readLock().lock();
+        try {
+            ListeningUser ident = checkPermissionReturningListeningUser(methodName, permissionMsg);
 
-        IdentifiedJob ij = jobs.get(jobId);
+            IdentifiedJob ij = jobs.get(jobId);
 
-        if (ij == null) {
-            String msg = "The job represented by this ID '" + jobId + "' is unknown !";
-            logger.info(msg);
-            throw new UnknownJobException(msg);
-        }
+            if (ij == null) {
+                String msg = "The job represented by this ID '" + jobId + "' is unknown !";
+                logger.info(msg);
+                throw new UnknownJobException(msg);
+            }
 
-        if (!ij.hasRight(ident.getUser())) {
-            logger.info(permissionMsg);
-            throw new PermissionException(permissionMsg);
-        }
+            if (!ij.hasRight(ident.getUser())) {
+                logger.info(permissionMsg);
+                throw new PermissionException(permissionMsg);
+            }
 
-        return ij;
+            return ij;
+        } finally {
+            stateLock.readLock().unlock();
+        }
     }
 
-    synchronized void checkChangeJobPriority(JobId jobId, JobPriority priority) throws NotConnectedException,
+    void checkChangeJobPriority(JobId jobId, JobPriority priority) throws NotConnectedException,
             UnknownJobException, PermissionException, JobAlreadyFinishedException {
-        checkJobOwner("changeJobPriority", jobId,
-                "You do not have permission to change the priority of this job !");
-
-        UserIdentificationImpl ui = identifications.get(
-                PAActiveObject.getContext().getCurrentRequest().getSourceBodyID()).getUser();
-
+        stateLock.readLock().lock();
         try {
-            ui.checkPermission(new ChangePriorityPermission(priority.getPriority()), ui.getUsername() +
-                " does not have permissions to set job priority to " + priority);
-        } catch (PermissionException ex) {
-            logger.info(ex.getMessage());
-            throw ex;
-        }
+            checkJobOwner("changeJobPriority", jobId,
+                    "You do not have permission to change the priority of this job !");
+
+            UserIdentificationImpl ui = identifications.get(
+                    PAActiveObject.getContext().getCurrentRequest().getSourceBodyID()).getUser();
+
+            try {
+                ui.checkPermission(new ChangePriorityPermission(priority.getPriority()), ui.getUsername() +
+                    " does not have permissions to set job priority to " + priority);
+            } catch (PermissionException ex) {
+                logger.info(ex.getMessage());
+                throw ex;
+            }
 
-        if (jobs.get(jobId).isFinished()) {
-            String msg = " is already finished";
-            jlogger.info(jobId, msg);
-            throw new JobAlreadyFinishedException("Job " + jobId + msg);
+            if (jobs.get(jobId).isFinished()) {
+                String msg = " is already finished";
+                jlogger.info(jobId, msg);
+                throw new JobAlreadyFinishedException("Job " + jobId + msg);
+            }
+        } finally {
+            stateLock.readLock().unlock();
         }
     }
 
-    synchronized Set<TaskId> getJobTasks(JobId jobId) {
-        JobState jobState = jobsMap.get(jobId);
-        if (jobState == null) {
-            return Collections.emptySet();
-        } else {
-            Set<TaskId> tasks = new HashSet<>(jobState.getTasks().size());
-            for (TaskState task : jobState.getTasks()) {
-                tasks.add(task.getId());
+    Set<TaskId> getJobTasks(JobId jobId) {
+        stateLock.readLock().lock();
+        try {
+            JobState jobState = jobsMap.get(jobId);
+            if (jobState == null) {
+                return Collections.emptySet();
+            } else {
+                Set<TaskId> tasks = new HashSet<>(jobState.getTasks().size());
+                for (TaskState task : jobState.getTasks()) {
+                    tasks.add(task.getId());
+                }
+                return tasks;
             }
-            return tasks;
+        } finally {
+            stateLock.readLock().unlock();
         }
     }
 
-    synchronized JobState getJobState(JobId jobId) throws NotConnectedException, UnknownJobException,
+    JobState getJobState(JobId jobId) throws NotConnectedException, UnknownJobException,
             PermissionException {
-        checkJobOwner("getJobState", jobId, "You do not have permission to get the state of this job !");
-        return jobsMap.get(jobId);
+        stateLock.readLock().lock();
+        try {
+            checkJobOwner("getJobState", jobId, "You do not have permission to get the state of this job !");
+            sharedJobs.add(jobId);
+            return jobsMap.get(jobId);
+        } finally {
+            stateLock.readLock().unlock();
+        }
     }
 
-    synchronized TaskState getTaskState(JobId jobId, TaskId taskId) throws NotConnectedException,
+    TaskState getTaskState(JobId jobId, TaskId taskId) throws NotConnectedException,
             UnknownJobException, UnknownTaskException, PermissionException {
-        checkJobOwner("getJobState", jobId, "You do not have permission to get the state of this task !");
-        if (jobsMap.get(jobId) == null) {
-            throw new UnknownJobException(jobId);
-        }
-        TaskState ts = jobsMap.get(jobId).getHMTasks().get(taskId);
-        if (ts == null) {
-            throw new UnknownTaskException(taskId, jobId);
+        stateLock.readLock().lock();
+        try {
+            checkJobOwner("getJobState", jobId, "You do not have permission to get the state of this task !");
+            if (jobsMap.get(jobId) == null) {
+                throw new UnknownJobException(jobId);
+            }
+            TaskState ts = jobsMap.get(jobId).getHMTasks().get(taskId);
+            if (ts == null) {
+                throw new UnknownTaskException(taskId, jobId);
+            }
+            sharedJobs.add(jobId);
+            return ts;
+        } finally {
+            stateLock.readLock().unlock();
         }
-        return ts;
     }
 
-    synchronized TaskState getTaskState(JobId jobId, String taskName) throws NotConnectedException,
+    TaskState getTaskState(JobId jobId, String taskName) throws NotConnectedException,
             UnknownJobException, UnknownTaskException, PermissionException {
-        checkJobOwner("getJobState", jobId, "You do not have permission to get the state of this task !");
-        if (jobsMap.get(jobId) == null) {
-            throw new UnknownJobException(jobId);
-        }
-        TaskId taskId = null;
-        for (TaskId t : getJobTasks(jobId)) {
-            if (t.getReadableName().equals(taskName)) {
-                taskId = t;
+        stateLock.readLock().lock();
+        try {
+            checkJobOwner("getJobState", jobId, "You do not have permission to get the state of this task !");
+            JobState js = jobsMap.get(jobId);
+            if (js == null) {
+                throw new UnknownJobException(jobId);
             }
+            TaskState ts = findTask(js, taskName);
+            if (ts == null) {
+                throw new UnknownTaskException(taskName, jobId);
+            }
+            sharedJobs.add(jobId);
+            return ts;
+        } finally {
+            stateLock.readLock().unlock();
         }
-        if (taskId == null) {
-            throw new UnknownTaskException(taskName, jobId);
-        }
-        TaskState ts = jobsMap.get(jobId).getHMTasks().get(taskId);
-        if (ts == null) {
-            throw new UnknownTaskException(taskId, jobId);
-        }
-        return ts;
     }
 
-    synchronized TaskId getTaskId(JobId jobId, String taskName) throws UnknownTaskException,
+    TaskId getTaskId(JobId jobId, String taskName) throws UnknownTaskException,
             UnknownJobException {
-        if (jobsMap.get(jobId) == null) {
-            throw new UnknownJobException(jobId);
-        }
-        TaskId taskId = null;
-        for (TaskId t : getJobTasks(jobId)) {
-            if (t.getReadableName().equals(taskName)) {
-                taskId = t;
+        stateLock.readLock().lock();
+        try {
+            JobState js = jobsMap.get(jobId);
+            if (js == null) {
+                throw new UnknownJobException(jobId);
             }
+            TaskState ts = findTask(js, taskName);
+            if (ts == null) {
+                throw new UnknownTaskException(taskName, jobId);
+            }
+            return ts.getId();
+        } finally {
+            stateLock.readLock().unlock();
         }
-        if (taskId == null) {
-            throw new UnknownTaskException(taskName, jobId);
-        }
-        return taskId;
     }
 
-    synchronized void checkChangePolicy() throws NotConnectedException, PermissionException {
-        UniqueID id = checkAccess();
-
-        UserIdentificationImpl ident = identifications.get(id).getUser();
-        //renew session for this user
-        renewUserSession(id, ident);
+    private static TaskState findTask(JobState js, String taskName) {
+        if (js instanceof ClientJobState) {
+            return ((ClientJobState) js).getTask(taskName);
+        }
+        for (TaskState ts : js.getHMTasks().values()) {
+            if (ts.getId().getReadableName().equals(taskName)) {
+                return ts;
+            }
+        }
+        return null;
+    }
 
+    void checkChangePolicy() throws NotConnectedException, PermissionException {
+        stateLock.readLock().lock();
         try {
-            ident.checkPermission(new ChangePolicyPermission(), ident.getUsername() +
-                " does not have permissions to change the policy of the scheduler");
-        } catch (PermissionException ex) {
-            logger.info(ex.getMessage());
-            throw ex;
+            UniqueID id = checkAccess();
+
+            UserIdentificationImpl ident = identifications.get(id).getUser();
+            //renew session for this user
+            renewUserSession(id, ident);
+
+            try {
+                ident.checkPermission(new ChangePolicyPermission(), ident.getUsername() +
+                    " does not have permissions to change the policy of the scheduler");
+            } catch (PermissionException ex) {
+                logger.info(ex.getMessage());
+                throw ex;
+            }
+        } finally {
+            stateLock.readLock().unlock();
         }
     }
 
-    synchronized void checkLinkResourceManager() throws NotConnectedException, PermissionException {
-        UniqueID id = checkAccess();
-
-        UserIdentificationImpl ident = identifications.get(id).getUser();
-        //renew session for this user
-        renewUserSession(id, ident);
-
+    void checkLinkResourceManager() throws NotConnectedException, PermissionException {
+        stateLock.readLock().lock();
         try {
-            ident.checkPermission(new ConnectToResourceManagerPermission(), ident.getUsername() +
-                " does not have permissions to change RM in the scheduler");
-        } catch (PermissionException ex) {
-            logger.info(ex.getMessage());
-            throw ex;
+            UniqueID id = checkAccess();
+
+            UserIdentificationImpl ident = identifications.get(id).getUser();
+            //renew session for this user
+            renewUserSession(id, ident);
+
+            try {
+                ident.checkPermission(new ConnectToResourceManagerPermission(), ident.getUsername() +
+                    " does not have permissions to change RM in the scheduler");
+            } catch (PermissionException ex) {
+                logger.info(ex.getMessage());
+                throw ex;
+            }
+        } finally {
+            stateLock.readLock().unlock();
         }
     }
 
@@ -798,142 +987,177 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     }
 
     @Override
-    public synchronized void schedulerStateUpdated(SchedulerEvent eventType) {
-        switch (eventType) {
-            case STARTED:
-                sState.setState(SchedulerStatus.STARTED);
-                break;
-            case STOPPED:
-                sState.setState(SchedulerStatus.STOPPED);
-                break;
-            case PAUSED:
-                sState.setState(SchedulerStatus.PAUSED);
-                break;
-            case FROZEN:
-                sState.setState(SchedulerStatus.FROZEN);
-                break;
-            case RESUMED:
-                sState.setState(SchedulerStatus.STARTED);
-                break;
-            case SHUTTING_DOWN:
-                sState.setState(SchedulerStatus.SHUTTING_DOWN);
-                break;
-            case SHUTDOWN:
-                sState.setState(SchedulerStatus.STOPPED);
-                break;
-            case KILLED:
-                sState.setState(SchedulerStatus.KILLED);
-                break;
-            case DB_DOWN:
-                sState.setState(SchedulerStatus.DB_DOWN);
-                break;
-            case RM_DOWN:
-            case RM_UP:
-            case POLICY_CHANGED:
-                break;
-            default:
-                logger.warn("**WARNING** - Unconsistent update type received from Scheduler Core : " +
-                    eventType);
-                return;
+    public void schedulerStateUpdated(SchedulerEvent eventType) {
+        stateLock.writeLock().lock();
+        try {
+            switch (eventType) {
+                case STARTED:
+                    sState.setState(SchedulerStatus.STARTED);
+                    break;
+                case STOPPED:
+                    sState.setState(SchedulerStatus.STOPPED);
+                    break;
+                case PAUSED:
+                    sState.setState(SchedulerStatus.PAUSED);
+                    break;
+                case FROZEN:
+                    sState.setState(SchedulerStatus.FROZEN);
+                    break;
+                case RESUMED:
+                    sState.setState(SchedulerStatus.STARTED);
+                    break;
+                case SHUTTING_DOWN:
+                    sState.setState(SchedulerStatus.SHUTTING_DOWN);
+                    break;
+                case SHUTDOWN:
+                    sState.setState(SchedulerStatus.STOPPED);
+                    break;
+                case KILLED:
+                    sState.setState(SchedulerStatus.KILLED);
+                    break;
+                case DB_DOWN:
+                    sState.setState(SchedulerStatus.DB_DOWN);
+                    break;
+                case RM_DOWN:
+                case RM_UP:
+                case POLICY_CHANGED:
+                    break;
+                default:
+                    logger.warn("**WARNING** - Unconsistent update type received from Scheduler Core : " +
+                        eventType);
+                    return;
+            }
+            revision++;
+            // send the event for all case, except default
+            dispatchSchedulerStateUpdated(eventType);
+            this.jmxHelper.getSchedulerRuntimeMBean().schedulerStateUpdatedEvent(eventType);
+        } finally {
+            stateLock.writeLock().unlock();
         }
-        // send the event for all case, except default
-        dispatchSchedulerStateUpdated(eventType);
-        this.jmxHelper.getSchedulerRuntimeMBean().schedulerStateUpdatedEvent(eventType);
     }
 
     @Override
-    public synchronized void jobSubmitted(JobState job) {
-        JobState storedJobState = new ClientJobState(job);
-        jobsMap.put(job.getId(), storedJobState);
-        sState.getPendingJobs().add(storedJobState);
-        dispatchJobSubmitted(job);
+    public void jobSubmitted(JobState job) {
+        stateLock.writeLock().lock();
+        try {
+            JobState storedJobState = new ClientJobState(job);
+            jobsMap.put(job.getId(), storedJobState);
+            sState.getPendingJobs().add(storedJobState);
+            revision++;
+            dispatchJobSubmitted(job);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
     }
 
     @Override
-    public synchronized void jobStateUpdated(String owner, NotificationData<JobInfo> notification) {
-        JobState js = jobsMap.get(notification.getData().getJobId());
-        js.update(notification.getData());
-        switch (notification.getEventType()) {
-            case JOB_PENDING_TO_RUNNING:
-                sState.getPendingJobs().remove(js);
-                sState.getRunningJobs().add(js);
-                break;
-            case JOB_PAUSED:
-            case JOB_RESUMED:
-            case JOB_CHANGE_PRIORITY:
-            case TASK_REPLICATED:
-            case TASK_SKIPPED:
-                break;
-            case JOB_PENDING_TO_FINISHED:
-                sState.getPendingJobs().remove(js);
-                sState.getFinishedJobs().add(js);
-                //set this job finished, user can get its result
-                jobs.get(notification.getData().getJobId()).setFinished(true);
-                break;
-            case JOB_RUNNING_TO_FINISHED:
-                sState.getRunningJobs().remove(js);
-                sState.getFinishedJobs().add(js);
-                //set this job finished, user can get its result
-                jobs.get(notification.getData().getJobId()).setFinished(true);
-                break;
-            case JOB_REMOVE_FINISHED:
-                //removing jobs from the global list : this job is no more managed
-                sState.getFinishedJobs().remove(js);
-                jobsMap.remove(js.getId());
-                jobs.remove(notification.getData().getJobId());
-                break;
-            default:
-                logger.warn("**WARNING** - Unconsistent update type received from Scheduler Core : " +
-                    notification.getEventType());
-                return;
+    public void jobStateUpdated(String owner, NotificationData<JobInfo> notification) {
+        stateLock.writeLock().lock();
+        try {
+            JobState js = getJobStateForUpdate(notification.getData().getJobId());
+            js.update(notification.getData());
+            switch (notification.getEventType()) {
+                case JOB_PENDING_TO_RUNNING:
+                    sState.getPendingJobs().remove(js);
+                    sState.getRunningJobs().add(js);
+                    break;
+                case JOB_PAUSED:
+                case JOB_RESUMED:
+                case JOB_CHANGE_PRIORITY:
+                case TASK_REPLICATED:
+                case TASK_SKIPPED:
+                    break;
+                case JOB_PENDING_TO_FINISHED:
+                    sState.getPendingJobs().remove(js);
+                    sState.getFinishedJobs().add(js);
+                    //set this job finished, user can get its result
+                    jobs.get(notification.getData().getJobId()).setFinished(true);
+                    break;
+                case JOB_RUNNING_TO_FINISHED:
+                    sState.getRunningJobs().remove(js);
+                    sState.getFinishedJobs().add(js);
+                    //set this job finished, user can get its result
+                    jobs.get(notification.getData().getJobId()).setFinished(true);
+                    break;
+                case JOB_REMOVE_FINISHED:
+                    //removing jobs from the global list : this job is no more managed
+                    sState.getFinishedJobs().remove(js);
+                    jobsMap.remove(js.getId());
+                    sharedJobs.remove(js.getId());
+                    jobs.remove(notification.getData().getJobId());
+                    break;
+                default:
+                    logger.warn("**WARNING** - Unconsistent update type received from Scheduler Core : " +
+                        notification.getEventType());
+                    return;
+            }
+            revision++;
+            dispatchJobStateUpdated(owner, notification);
+            new JobEmailNotification(js, notification).checkAndSend();
+        } finally {
+            stateLock.writeLock().unlock();
         }
-        dispatchJobStateUpdated(owner, notification);
-        new JobEmailNotification(js, notification).checkAndSend();
     }
 
     @Override
-    public synchronized void taskStateUpdated(String owner, NotificationData<TaskInfo> notification) {
-        jobsMap.get(notification.getData().getJobId()).update(notification.getData());
-        switch (notification.getEventType()) {
-            case TASK_PENDING_TO_RUNNING:
-            case TASK_RUNNING_TO_FINISHED:
-            case TASK_WAITING_FOR_RESTART:
-                dispatchTaskStateUpdated(owner, notification);
-                break;
-            case TASK_PROGRESS:
-                //this event can be sent while task is already finished,
-                //as it is not a correct behavior, event is dropped if task is already finished.
-                //so if task is not finished, send event
-                if (notification.getData().getFinishedTime() <= 0) {
+    public void taskStateUpdated(String owner, NotificationData<TaskInfo> notification) {
+        stateLock.writeLock().lock();
+        try {
+            getJobStateForUpdate(notification.getData().getJobId()).update(notification.getData());
+            revision++;
+            switch (notification.getEventType()) {
+                case TASK_PENDING_TO_RUNNING:
+                case TASK_RUNNING_TO_FINISHED:
+                case TASK_WAITING_FOR_RESTART:
                     dispatchTaskStateUpdated(owner, notification);
-                }
-                break;
-            default:
-                logger.warn("**WARNING** - Unconsistent update type received from Scheduler Core : " +
-                    notification.getEventType());
+                    break;
+                case TASK_PROGRESS:
+                    //this event can be sent while task is already finished,
+                    //as it is not a correct behavior, event is dropped if task is already finished.
+                    //so if task is not finished, send event
+                    if (notification.getData().getFinishedTime() <= 0) {
+                        dispatchTaskStateUpdated(owner, notification);
+                    }
+                    break;
+                default:
+                    logger.warn("**WARNING** - Unconsistent update type received from Scheduler Core : " +
+                        notification.getEventType());
+            }
+        } finally {
+            stateLock.writeLock().unlock();
         }
     }
 
     @Override
-    public synchronized void usersUpdated(NotificationData<UserIdentification> notification) {
-        switch (notification.getEventType()) {
-            case USERS_UPDATE:
-                dispatchUsersUpdated(notification, true);
-                break;
-            default:
-                logger.warn("**WARNING** - Unconsistent update type received from Scheduler Core : " +
-                    notification.getEventType());
+    public void usersUpdated(NotificationData<UserIdentification> notification) {
+        stateLock.writeLock().lock();
+        try {
+            switch (notification.getEventType()) {
+                case USERS_UPDATE:
+                    dispatchUsersUpdated(notification, true);
+                    break;
+                default:
+                    logger.warn("**WARNING** - Unconsistent update type received from Scheduler Core : " +
+                        notification.getEventType());
+            }
+        } finally {
+            stateLock.writeLock().unlock();
         }
     }
 
-    synchronized List<SchedulerUserInfo> getUsers() {
-        List<SchedulerUserInfo> users = new ArrayList<>(identifications.size());
-        for (ListeningUser listeningUser : identifications.values()) {
-            UserIdentificationImpl user = listeningUser.getUser();
-            users.add(new SchedulerUserInfo(user.getHostName(), user.getUsername(), user.getConnectionTime(),
-                user.getLastSubmitTime(), user.getSubmitNumber()));
+    List<SchedulerUserInfo> getUsers() {
+        stateLock.readLock().lock();
+        try {
+            List<SchedulerUserInfo> users = new ArrayList<>(identifications.size());
+            for (ListeningUser listeningUser : identifications.values()) {
+                UserIdentificationImpl user = listeningUser.getUser();
+                users.add(new SchedulerUserInfo(user.getHostName(), user.getUsername(), user
+                        .getConnectionTime(), user.getLastSubmitTime(), user.getSubmitNumber()));
+            }
+            return users;
+        } finally {
+            stateLock.readLock().unlock();
         }
-        return users;
     }
 
 }
@@ -49,4 +49,10 @@ public interface SchedulingMethod {
      */
     int schedule();
 
+    /**
+     * Releases the resources used by the scheduling process, called once the scheduling
+     * thread is stopped.
+     */
+    void shutdown();
+
 }
@@ -39,9 +39,15 @@ package org.ow2.proactive.scheduler.core;
 import java.security.PrivateKey;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.objectweb.proactive.ActiveObjectCreationException;
@@ -58,6 +64,7 @@ import org.ow2.proactive.scheduler.common.SchedulerConstants;
 import org.ow2.proactive.scheduler.common.TaskTerminateNotification;
 import org.ow2.proactive.scheduler.common.exception.ConnectionException;
 import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.util.VariableSubstitutor;
 import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
@@ -66,6 +73,7 @@ import org.ow2.proactive.scheduler.core.rmproxies.RMProxyCreationException;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptorImpl;
 import org.ow2.proactive.scheduler.descriptor.JobDescriptor;
+import org.ow2.proactive.scheduler.descriptor.JobDescriptorImpl;
 import org.ow2.proactive.scheduler.descriptor.TaskDescriptor;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.policy.Policy;
@@ -107,6 +115,9 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
 
     protected TimeoutThreadPoolExecutor threadPool;
 
+    /** Threads used to create the task launchers of a scheduling loop in parallel */
+    private ExecutorService launcherCreationPool;
+
     protected PrivateKey corePrivateKey;
 
     private InternalPolicy internalPolicy;
@@ -115,6 +126,13 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
 
     private String schedulerUrl = null;
 
+    /** Tasks ordered by the policy during a previous loop, reused while the scheduled jobs are not modified */
+    private Vector<EligibleTaskDescriptor> orderedTasks;
+    /** Jobs, scheduling revision and policy the ordered tasks have been computed for */
+    private Set<JobId> orderedTasksJobs;
+    private long orderedTasksRevision = -1;
+    private Policy orderedTasksPolicy;
+
     public SchedulingMethodImpl(SchedulingService schedulingService) throws Exception {
         this.schedulingService = schedulingService;
 
@@ -125,11 +143,22 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
         this.threadPool = TimeoutThreadPoolExecutor.newFixedThreadPool(
                 PASchedulerProperties.SCHEDULER_STARTTASK_THREADNUMBER.getValueAsInt(),
                 new NamedThreadFactory("DoTask_Action"));
+        this.launcherCreationPool = Executors.newFixedThreadPool(
+                PASchedulerProperties.SCHEDULER_STARTTASK_THREADNUMBER.getValueAsInt(),
+                new NamedThreadFactory("TaskLauncher_Creation"));
         this.internalPolicy = new InternalPolicy();
         this.corePrivateKey = Credentials.getPrivateKey(PASchedulerProperties
                 .getAbsolutePath(PASchedulerProperties.SCHEDULER_AUTH_PRIVKEY_PATH.getValueAsString()));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        launcherCreationPool.shutdownNow();
+    }
+
     RMProxiesManager getRMProxiesManager() {
         return schedulingService.getInfrastructure().getRMProxiesManager();
     }
@@ -147,8 +176,8 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
      * 	<li>Get an ordered list of the selected tasks to be scheduled
      * 	<li>While returned tasks list is not empty :
      * 		<ul>
-     * 			<li>Get n first compatible tasks (same selection script, same node exclusion)
-     * 			<li>Ask nodes to RM according to the previous specification
+     * 			<li>Get the next groups of compatible tasks (same selection script, same node exclusion)
+     * 			<li>Ask nodes to RM for all these groups in a single request
      * 			<li>Try to start each tasks
      * 			<li>Job started event if needed
      * 			<li>Task started event
@@ -165,16 +194,16 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
         //Number of time to retry an active object creation before leaving scheduling loop
         activeObjectCreationRetryTimeNumber = ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER;
 
+        //read the revision before locking the jobs, so that any later modification invalidates the order
+        long revision = schedulingService.getSchedulingRevision();
+
         //get job Descriptor list with eligible jobs (running and pending)
         Map<JobId, JobDescriptor> jobMap = schedulingService.lockJobsToSchedule();
         try {
-            List<JobDescriptor> descriptors = new ArrayList<>(jobMap.size());
-            descriptors.addAll(jobMap.values());
-
             //ask the policy all the tasks to be schedule according to the jobs list.
             //and filter them using internal policy
-            LinkedList<EligibleTaskDescriptor> taskRetrievedFromPolicy = internalPolicy.filter(currentPolicy
-                    .getOrderedTasks(descriptors));
+            LinkedList<EligibleTaskDescriptor> taskRetrievedFromPolicy = internalPolicy.filter(getOrderedTasks(
+                    currentPolicy, jobMap, revision));
 
             //if there is no task to scheduled, return
             if (taskRetrievedFromPolicy == null || taskRetrievedFromPolicy.size() == 0) {
@@ -195,69 +224,32 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
                     break;
                 }
 
-                //get the next compatible tasks from the whole returned policy tasks
-                LinkedList<EligibleTaskDescriptor> tasksToSchedule = new LinkedList<>();
-                int neededResourcesNumber = 0;
-                while (taskRetrievedFromPolicy.size() > 0 && neededResourcesNumber == 0) {
-                    //the loop will search for next compatible task until it find something
-                    neededResourcesNumber = getNextcompatibleTasks(jobMap, taskRetrievedFromPolicy,
-                            freeResourcesNb, tasksToSchedule);
-                }
-                logger.debug("required number of nodes : " + neededResourcesNumber);
-                if (neededResourcesNumber == 0) {
+                //get the next groups of compatible tasks from the whole returned policy tasks
+                //nodes for all these groups are asked to the RM in a single request
+                List<LinkedList<EligibleTaskDescriptor>> taskGroups = new ArrayList<>();
+                List<Integer> neededResourcesNumbers = new ArrayList<>();
+                getNextCompatibleTaskGroups(jobMap, taskRetrievedFromPolicy, freeResourcesNb, taskGroups,
+                        neededResourcesNumbers);
+                logger.debug("required number of nodes : " + neededResourcesNumbers);
+                if (taskGroups.isEmpty()) {
                     break;
                 }
 
-                NodeSet nodeSet = getRMNodes(jobMap, neededResourcesNumber, tasksToSchedule);
+                List<NodeSet> nodeSets = getRMNodes(jobMap, neededResourcesNumbers, taskGroups);
+
+                int servedGroups = nodeSets == null ? 0 : nodeSets.size();
+                requeueUnservedGroups(taskRetrievedFromPolicy, taskGroups, servedGroups);
 
                 //start selected tasks
-                Node node = null;
-                InternalJob currentJob = null;
-                try {
-                    while (nodeSet != null && !nodeSet.isEmpty()) {
-                        EligibleTaskDescriptor taskDescriptor = tasksToSchedule.removeFirst();
-                        currentJob = jobMap.get(taskDescriptor.getJobId()).getInternal();
-                        InternalTask internalTask = currentJob.getIHMTasks().get(taskDescriptor.getTaskId());
-
-                        // load and Initialize the executable container
-                        loadAndInit(internalTask);
-
-                        //create launcher and try to start the task
-                        node = nodeSet.get(0);
-                        numberOfTaskStarted++;
-                        createExecution(nodeSet, node, currentJob, internalTask, taskDescriptor);
-
-                        //if every task that should be launched have been removed
-                        if (tasksToSchedule.isEmpty()) {
-                            //get back unused nodes to the RManager
-                            if (!nodeSet.isEmpty()) {
-                                releaseNodes(currentJob, nodeSet);
-                            }
-                            //and leave the loop
-                            break;
+                for (int i = 0; i < servedGroups; i++) {
+                    numberOfTaskStarted += startTasks(jobMap, nodeSets.get(i), taskGroups.get(i));
+                    if (activeObjectCreationRetryTimeNumber <= 0) {
+                        //get back the nodes of the groups that will not be started
+                        for (int j = i + 1; j < servedGroups; j++) {
+                            releaseNodes(jobMap, taskGroups.get(j), nodeSets.get(j));
                         }
-                    }
-                } catch (ActiveObjectCreationException e1) {
-                    //Something goes wrong with the active object creation (createLauncher)
-                    logger.warn("An exception occured while creating the task launcher.", e1);
-                    //so try to get back every remaining nodes to the resource manager
-                    try {
-                        releaseNodes(currentJob, nodeSet);
-                    } catch (Exception e2) {
-                        logger.info("Unable to get back the nodeSet to the RM", e2);
-                    }
-                    if (--activeObjectCreationRetryTimeNumber == 0) {
                         return numberOfTaskStarted;
                     }
-                } catch (Exception e1) {
-                    //if we are here, it is that something append while launching the current task.
-                    logger.warn("An exception occured while starting task.", e1);
-                    //so try to get back every remaining nodes to the resource manager
-                    try {
-                        releaseNodes(currentJob, nodeSet);
-                    } catch (Exception e2) {
-                        logger.info("Unable to get back the nodeSet to the RM", e2);
-                    }
                 }
             }
 
@@ -267,6 +259,290 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
         }
     }
 
+    /**
+     * Put back in front of the tasks to schedule the groups the RM did not provide nodes for,
+     * in their order, so that they are scheduled at the next iteration.
+     * The first group is always consumed: when the RM did not serve it, its tasks have been
+     * canceled or will be retried at the next scheduling loop.
+     *
+     * @param tasks the tasks left to schedule
+     * @param taskGroups the groups of compatible tasks nodes were asked for
+     * @param servedGroups the number of groups, from the first one, the RM provided nodes for
+     */
+    static void requeueUnservedGroups(LinkedList<EligibleTaskDescriptor> tasks,
+            List<LinkedList<EligibleTaskDescriptor>> taskGroups, int servedGroups) {
+        for (int i = taskGroups.size() - 1; i >= Math.max(servedGroups, 1); i--) {
+            tasks.addAll(0, taskGroups.get(i));
+        }
+    }
+
+    /**
+     * Try to start the given compatible tasks on the given nodes.
+     * Nodes that are not used are given back to the RM.<br>
+     * The deployment is done in stages : nodes are first assigned to the tasks, then the executable
+     * containers are loaded, the task launchers are created in parallel and finally the started tasks
+     * are handed off to the DoTask_Action pool. The time spent in each stage is logged.
+     *
+     * @param nodeSet the nodes provided by the RM for these tasks
+     * @param tasksToSchedule the compatible tasks to start
+     * @return the number of tasks that have been started
+     */
+    private int startTasks(Map<JobId, JobDescriptor> jobMap, NodeSet nodeSet,
+            LinkedList<EligibleTaskDescriptor> tasksToSchedule) {
+        long assignTime = System.currentTimeMillis();
+        List<TaskDeployment> deployments = new ArrayList<>(tasksToSchedule.size());
+        InternalJob currentJob = null;
+        try {
+            //assign the nodes to the tasks
+            while (nodeSet != null && !nodeSet.isEmpty() && !tasksToSchedule.isEmpty()) {
+                EligibleTaskDescriptor taskDescriptor = tasksToSchedule.removeFirst();
+                currentJob = jobMap.get(taskDescriptor.getJobId()).getInternal();
+                InternalTask internalTask = currentJob.getIHMTasks().get(taskDescriptor.getTaskId());
+
+                //enough nodes to be launched at same time for a communicating task
+                if (nodeSet.size() >= internalTask.getNumberOfNodesNeeded()) {
+                    Node node = nodeSet.remove(0);
+                    NodeSet nodes = new NodeSet();
+                    //if topology is enabled and it is a multi task, give every nodes to the multi-nodes task
+                    // we will need to update this code once topology will be allowed for single-node task
+                    if (internalTask.isParallel()) {
+                        nodes = new NodeSet(nodeSet);
+                        nodeSet.clear();
+                    }
+                    deployments.add(new TaskDeployment(currentJob, internalTask, taskDescriptor, node, nodes));
+                }
+            }
+            //get back unused nodes to the RManager
+            if (nodeSet != null && !nodeSet.isEmpty()) {
+                releaseNodes(currentJob, nodeSet);
+            }
+        } catch (Exception e1) {
+            //if we are here, it is that something append while assigning the nodes.
+            logger.warn("An exception occured while starting task.", e1);
+            //so try to get back every remaining nodes to the resource manager
+            releaseNodes(deployments);
+            try {
+                releaseNodes(currentJob, nodeSet);
+            } catch (Exception e2) {
+                logger.info("Unable to get back the nodeSet to the RM", e2);
+            }
+            return 0;
+        }
+        if (deployments.isEmpty()) {
+            return 0;
+        }
+
+        long loadTime = System.currentTimeMillis();
+        try {
+            // load and Initialize the executable containers
+            loadAndInit(deployments);
+
+            //start dataspace app for the jobs
+            DataSpaceServiceStarter dsStarter = schedulingService.getInfrastructure()
+                    .getDataSpaceServiceStarter();
+            Set<JobId> startedDataSpaces = new HashSet<>();
+            for (TaskDeployment deployment : deployments) {
+                if (startedDataSpaces.add(deployment.job.getId())) {
+                    deployment.job.startDataSpaceApplication(dsStarter.getNamingService());
+                }
+            }
+        } catch (Exception e1) {
+            logger.warn("An exception occured while starting task.", e1);
+            releaseNodes(deployments);
+            return 0;
+        }
+
+        long launcherTime = System.currentTimeMillis();
+        createLaunchers(deployments);
+
+        long startTime = System.currentTimeMillis();
+        int numberOfTaskStarted = 0;
+        boolean launcherCreationFailed = false;
+        for (TaskDeployment deployment : deployments) {
+            if (deployment.launcher == null) {
+                if (deployment.failure instanceof ActiveObjectCreationException) {
+                    //Something goes wrong with the active object creation (createLauncher)
+                    logger.warn("An exception occured while creating the task launcher.", deployment.failure);
+                    launcherCreationFailed = true;
+                } else {
+                    logger.warn("An exception occured while starting task.", deployment.failure);
+                }
+                releaseNodes(deployment);
+                continue;
+            }
+            numberOfTaskStarted++;
+            try {
+                createExecution(deployment);
+            } catch (Exception e1) {
+                logger.warn("An exception occured while starting task.", e1);
+                releaseNodes(deployment);
+            }
+        }
+        if (launcherCreationFailed) {
+            //the launchers are created in parallel, a failing batch counts as a single retry
+            --activeObjectCreationRetryTimeNumber;
+        }
+
+        if (logger.isDebugEnabled()) {
+            long endTime = System.currentTimeMillis();
+            logger.debug("deployed " + numberOfTaskStarted + "/" + deployments.size() + " tasks in " +
+                (endTime - assignTime) + " ms (assign nodes: " + (loadTime - assignTime) +
+                " ms, load containers: " + (launcherTime - loadTime) + " ms, create launchers: " +
+                (startTime - launcherTime) + " ms, start: " + (endTime - startTime) + " ms)");
+        }
+        return numberOfTaskStarted;
+    }
+
+    /**
+     * Create the launchers of the given deployments, in parallel when there are several of them.
+     * The launcher, or the failure that prevented its creation, is stored in each deployment.
+     *
+     * @param deployments the deployments to create the launchers of
+     */
+    private void createLaunchers(List<TaskDeployment> deployments) {
+        if (deployments.size() == 1) {
+            deployments.get(0).createLauncher();
+            return;
+        }
+        List<Callable<Void>> creations = new ArrayList<>(deployments.size());
+        for (final TaskDeployment deployment : deployments) {
+            creations.add(new Callable<Void>() {
+                public Void call() {
+                    deployment.createLauncher();
+                    return null;
+                }
+            });
+        }
+        try {
+            launcherCreationPool.invokeAll(creations);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (TaskDeployment deployment : deployments) {
+                if (deployment.launcher == null && deployment.failure == null) {
+                    deployment.failure = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Give back to the RM the nodes assigned to the given deployments.
+     */
+    private void releaseNodes(List<TaskDeployment> deployments) {
+        for (TaskDeployment deployment : deployments) {
+            releaseNodes(deployment);
+        }
+    }
+
+    /**
+     * Give back to the RM the nodes assigned to the given deployment.
+     */
+    private void releaseNodes(TaskDeployment deployment) {
+        try {
+            //free nodeSet for multi-nodes task
+            NodeSet nodes = new NodeSet(deployment.nodes);
+            nodes.add(deployment.node);
+            releaseNodes(deployment.job, nodes);
+        } catch (Throwable ni) {
+            logger.info("Unable to get back the nodeSet to the RM", ni);
+        }
+    }
+
+    /**
+     * Give back to the RM the nodes provided for tasks that will not be started.
+     */
+    private void releaseNodes(Map<JobId, JobDescriptor> jobMap, LinkedList<EligibleTaskDescriptor> tasks,
+            NodeSet nodeSet) {
+        if (nodeSet.isEmpty() && (nodeSet.getExtraNodes() == null || nodeSet.getExtraNodes().isEmpty())) {
+            return;
+        }
+        try {
+            releaseNodes(jobMap.get(tasks.getFirst().getJobId()).getInternal(), nodeSet);
+        } catch (Exception e) {
+            logger.info("Unable to get back the nodeSet to the RM", e);
+        }
+    }
+
+    /**
+     * Get the tasks to be scheduled in the order defined by the policy.<br>
+     * If the policy declares its order as stable and no job has been modified since the previous call
+     * (same scheduling revision and same locked jobs), the previous order is reused: only the tasks that
+     * have been started in the meantime are removed from it. This avoids asking the policy to sort every
+     * eligible task at each scheduling loop while nodes are busy.
+     *
+     * @param currentPolicy the current scheduling policy
+     * @param jobMap the locked jobs to schedule
+     * @param revision the scheduling revision read before locking the jobs
+     * @return the ordered list of tasks to be scheduled
+     */
+    private Vector<EligibleTaskDescriptor> getOrderedTasks(Policy currentPolicy,
+            Map<JobId, JobDescriptor> jobMap, long revision) {
+        if (orderedTasks != null && revision == orderedTasksRevision && currentPolicy == orderedTasksPolicy &&
+            jobMap.keySet().equals(orderedTasksJobs)) {
+            Vector<EligibleTaskDescriptor> stillEligible = new Vector<>(orderedTasks.size());
+            for (EligibleTaskDescriptor etd : orderedTasks) {
+                if (((JobDescriptorImpl) jobMap.get(etd.getJobId())).isEligible(etd.getTaskId())) {
+                    stillEligible.add(etd);
+                }
+            }
+            orderedTasks = stillEligible;
+            logger.debug("reusing policy order : " + stillEligible.size() + " tasks");
+            return stillEligible;
+        }
+
+        List<JobDescriptor> descriptors = new ArrayList<>(jobMap.size());
+        descriptors.addAll(jobMap.values());
+        Vector<EligibleTaskDescriptor> tasks = currentPolicy.getOrderedTasks(descriptors);
+
+        if (tasks != null && currentPolicy.isOrderStable()) {
+            orderedTasks = tasks;
+            orderedTasksJobs = new HashSet<>(jobMap.keySet());
+            orderedTasksRevision = revision;
+            orderedTasksPolicy = currentPolicy;
+        } else {
+            orderedTasks = null;
+        }
+        return tasks;
+    }
+
+    /**
+     * Extract the next groups of compatible tasks from the first argument list, as long as their tasks
+     * belong to the same user and the number of needed resources does not exceed the given max resource number.<br>
+     * Each group is built by {@link #getNextcompatibleTasks(Map, LinkedList, int, LinkedList)} and requires its
+     * own selection criteria. Nodes for all the groups are then asked to the RM in a single request.<br>
+     * This method has two side effects : extracted tasks are removed from the bagOfTasks and the groups and
+     * their number of needed resources are put in the given lists.
+     *
+     * @param bagOfTasks the list of tasks form which to extract tasks
+     * @param maxResource the limit number of resources that the extraction should not exceed
+     * @param groups the list that will contain the groups of compatible tasks, must be empty
+     * @param neededResources the list that will contain the number of nodes needed by each group, must be empty
+     */
+    protected void getNextCompatibleTaskGroups(Map<JobId, JobDescriptor> jobsMap,
+            LinkedList<EligibleTaskDescriptor> bagOfTasks, int maxResource,
+            List<LinkedList<EligibleTaskDescriptor>> groups, List<Integer> neededResources) {
+        String owner = null;
+        while (maxResource > 0 && !bagOfTasks.isEmpty()) {
+            LinkedList<EligibleTaskDescriptor> tasksToSchedule = new LinkedList<>();
+            //the loop will search for next compatible task until it find something
+            int neededResourcesNumber = getNextcompatibleTasks(jobsMap, bagOfTasks, maxResource,
+                    tasksToSchedule);
+            if (neededResourcesNumber == 0) {
+                continue;
+            }
+            String groupOwner = jobsMap.get(tasksToSchedule.getFirst().getJobId()).getInternal().getOwner();
+            if (owner != null && !owner.equals(groupOwner)) {
+                //nodes for another user are asked in a separate request
+                bagOfTasks.addAll(0, tasksToSchedule);
+                break;
+            }
+            owner = groupOwner;
+            groups.add(tasksToSchedule);
+            neededResources.add(neededResourcesNumber);
+            maxResource -= neededResourcesNumber;
+        }
+    }
+
     /**
      * Extract the n first compatible tasks from the first argument list,
      * and return them according that the extraction is stopped when the maxResource number is reached.<br>
@@ -336,83 +612,52 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
     }
 
     /**
-     * Ask to the RM the given number of node resources.<br>
-     * If there is a problem with these task selection (such as bad selectionScript) this method
+     * Ask to the RM the nodes for the given groups of compatible tasks, in a single request.<br>
+     * If there is a problem with the first group selection (such as bad selectionScript) this method
      * will terminate the corresponding tasks and jobs. As the selection scripts contain errors, the task
-     * and its surrounding jobs must be stopped.
+     * and its surrounding jobs must be stopped. If there is a problem with another group, the RM only
+     * returns the nodes of the previous groups.
      *
-     * @param neededResourcesNumber the number of resources to ask for (must be > 0).
-     * @param tasksToSchedule the task to be scheduled
-     * @return A nodeSet that contains at most 'neededResourcesNumber' available compatible resources.
-     * 		   An empty nodeSet if no nodes could be found
-     * 		   null if the their was an exception when asking for the nodes (ie : selection script has failed)
+     * @param neededResourcesNumbers the number of resources to ask for each group (must be > 0).
+     * @param taskGroups the groups of compatible tasks to be scheduled, belonging to the same user
+     * @return A list that contains, for each group served by the RM and in the same order, a nodeSet with
+     * 		   at most the needed number of available compatible resources. The list can be shorter than the
+     * 		   number of groups.
+     * 		   null if the their was an exception when asking for the nodes of the first group
      */
-    protected NodeSet getRMNodes(Map<JobId, JobDescriptor> jobMap, int neededResourcesNumber,
-            LinkedList<EligibleTaskDescriptor> tasksToSchedule) {
-        NodeSet nodeSet = new NodeSet();
-
-        if (neededResourcesNumber <= 0) {
-            throw new IllegalArgumentException("'neededResourcesNumber' must be greater than 0");
+    protected List<NodeSet> getRMNodes(Map<JobId, JobDescriptor> jobMap, List<Integer> neededResourcesNumbers,
+            List<LinkedList<EligibleTaskDescriptor>> taskGroups) {
+        LinkedList<EligibleTaskDescriptor> firstGroup = taskGroups.get(0);
+        InternalJob currentJob = jobMap.get(firstGroup.getFirst().getJobId()).getInternal();
+
+        List<Criteria> criteria = new ArrayList<>(taskGroups.size());
+        for (int i = 0; i < taskGroups.size(); i++) {
+            criteria.add(createCriteria(jobMap, neededResourcesNumbers.get(i), taskGroups.get(i)));
         }
 
-        EligibleTaskDescriptor etd = tasksToSchedule.getFirst();
-        InternalJob currentJob = jobMap.get(etd.getJobId()).getInternal();
-        InternalTask internalTask = currentJob.getIHMTasks().get(etd.getTaskId());
-
         try {
-            TopologyDescriptor descriptor = null;
-            boolean bestEffort = true;
-            if (internalTask.isParallel()) {
-                descriptor = internalTask.getParallelEnvironment().getTopologyDescriptor();
-                bestEffort = false;
-                if (descriptor == null) {
-                    logger.debug("Topology is not defined for the task " + internalTask.getName());
-                }
-            }
-            if (descriptor == null) {
-                // descriptor is not defined, use default
-                descriptor = TopologyDescriptor.ARBITRARY;
-            }
-
+            List<NodeSet> nodeSets;
             try {
-                Criteria criteria = new Criteria(neededResourcesNumber);
-                criteria.setTopology(descriptor);
-                // resolve script variables (if any) in the list of selection
-                // scripts and then set it as the selection criteria.
-                criteria.setScripts(resolveScriptVariables(internalTask.getSelectionScripts(), currentJob
-                        .getVariables()));
-                criteria.setBlackList(internalTask.getNodeExclusion());
-                criteria.setBestEffort(bestEffort);
-
-                if (internalTask.getGenericInformations().containsKey(SchedulerConstants.NODE_ACCESS_TOKEN)) {
-                    criteria.setNodeAccessToken(internalTask.getGenericInformations().get(
-                            SchedulerConstants.NODE_ACCESS_TOKEN));
-                }
-
-                Collection<String> computationDescriptors = new ArrayList<>(tasksToSchedule.size());
-                for (EligibleTaskDescriptor task : tasksToSchedule) {
-                    computationDescriptors.add(task.getTaskId().toString());
-                }
-
-                criteria.setComputationDescriptors(computationDescriptors);
-
-                nodeSet = getRMProxiesManager().getUserRMProxy(currentJob.getOwner(),
+                nodeSets = getRMProxiesManager().getUserRMProxy(currentJob.getOwner(),
                         currentJob.getCredentials()).getNodes(criteria);
+                //the following line is used to unwrap the future, warning when moving or removing
+                //it may also throw a ScriptException which is a RuntimeException
+                PAFuture.waitFor(nodeSets, true);
             } catch (TopologyDisabledException tde) {
                 jlogger.info(currentJob.getId(), "will be canceled as the topology is disabled");
-                schedulingService.simulateJobStartAndCancelIt(tasksToSchedule, "Topology is disabled");
+                schedulingService.simulateJobStartAndCancelIt(firstGroup, "Topology is disabled");
                 return null;
             }
-            //the following line is used to unwrap the future, warning when moving or removing
-            //it may also throw a ScriptException which is a RuntimeException
-            PAFuture.waitFor(nodeSet, true);
-            logger.debug("provided nodes " + nodeSet.size());
-            return nodeSet;
+            if (nodeSets != null) {
+                logger.debug("provided node sets " + nodeSets.size() + " for " + taskGroups.size() +
+                    " groups");
+            }
+            return nodeSets;
         } catch (RMProxyCreationException e) {
             logger.info("Failed to create User RM Proxy : " + e.getMessage());
             logger.debug("", e);
             //simulate jobs starts and cancel it
-            schedulingService.simulateJobStartAndCancelIt(tasksToSchedule,
+            schedulingService.simulateJobStartAndCancelIt(firstGroup,
                     "Failed to create User RM Proxy : Authentication Failed to Resource Manager for user '" +
                         currentJob.getOwner() + "'");
             //leave the method by ss failure
@@ -421,77 +666,100 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
     }
 
     /**
-     * Load and initialize the task to be started
+     * Create the selection criteria of the given compatible tasks.
      *
-     * @param task the task to be initialized
+     * @param neededResourcesNumber the number of resources to ask for (must be > 0).
+     * @param tasksToSchedule the compatible tasks to be scheduled
+     * @return the criteria to ask nodes to the RM
      */
-    protected void loadAndInit(InternalTask task) {
-        tlogger.debug(task.getId(), "initializing the executable container");
-        ExecutableContainer container = getDBManager().loadExecutableContainer(task);
-        task.setExecutableContainer(container);
-    }
+    private Criteria createCriteria(Map<JobId, JobDescriptor> jobMap, int neededResourcesNumber,
+            LinkedList<EligibleTaskDescriptor> tasksToSchedule) {
+        if (neededResourcesNumber <= 0) {
+            throw new IllegalArgumentException("'neededResourcesNumber' must be greater than 0");
+        }
 
-    /**
-     * Create launcher and try to start the task.
-     *
-     * @param nodeSet the node set containing every available nodes that can be used for execution
-     * @param node the node on which to start the task
-     * @param job the job that owns the task to be started
-     * @param task the task to be started
-     * @param taskDescriptor the descriptor of the task to be started
-     *
-     */
-    protected void createExecution(NodeSet nodeSet, Node node, InternalJob job, InternalTask task,
-            TaskDescriptor taskDescriptor) throws Exception {
-        TaskLauncher launcher = null;
+        EligibleTaskDescriptor etd = tasksToSchedule.getFirst();
+        InternalJob currentJob = jobMap.get(etd.getJobId()).getInternal();
+        InternalTask internalTask = currentJob.getIHMTasks().get(etd.getTaskId());
 
-        //enough nodes to be launched at same time for a communicating task
-        if (nodeSet.size() >= task.getNumberOfNodesNeeded()) {
-            //start dataspace app for this job
-            DataSpaceServiceStarter dsStarter = schedulingService.getInfrastructure()
-                    .getDataSpaceServiceStarter();
-            job.startDataSpaceApplication(dsStarter.getNamingService());
+        TopologyDescriptor descriptor = null;
+        boolean bestEffort = true;
+        if (internalTask.isParallel()) {
+            descriptor = internalTask.getParallelEnvironment().getTopologyDescriptor();
+            bestEffort = false;
+            if (descriptor == null) {
+                logger.debug("Topology is not defined for the task " + internalTask.getName());
+            }
+        }
+        if (descriptor == null) {
+            // descriptor is not defined, use default
+            descriptor = TopologyDescriptor.ARBITRARY;
+        }
 
-            // create launcher
-            launcher = task.createLauncher(job, node);
+        Criteria criteria = new Criteria(neededResourcesNumber);
+        criteria.setTopology(descriptor);
+        // resolve script variables (if any) in the list of selection
+        // scripts and then set it as the selection criteria.
+        criteria.setScripts(resolveScriptVariables(internalTask.getSelectionScripts(), currentJob
+                .getVariables()));
+        criteria.setBlackList(internalTask.getNodeExclusion());
+        criteria.setBestEffort(bestEffort);
+
+        if (internalTask.getGenericInformations().containsKey(SchedulerConstants.NODE_ACCESS_TOKEN)) {
+            criteria.setNodeAccessToken(internalTask.getGenericInformations().get(
+                    SchedulerConstants.NODE_ACCESS_TOKEN));
+        }
 
-            activeObjectCreationRetryTimeNumber = ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER;
+        Collection<String> computationDescriptors = new ArrayList<>(tasksToSchedule.size());
+        for (EligibleTaskDescriptor task : tasksToSchedule) {
+            computationDescriptors.add(task.getTaskId().toString());
+        }
 
-            nodeSet.remove(0);
+        criteria.setComputationDescriptors(computationDescriptors);
+        return criteria;
+    }
 
-            NodeSet nodes = new NodeSet();
-            try {
-                //if topology is enabled and it is a multi task, give every nodes to the multi-nodes task
-                // we will need to update this code once topology will be allowed for single-node task
-                if (task.isParallel()) {
-                    nodes = new NodeSet(nodeSet);
-                    task.getExecuterInformation().addNodes(nodes);
-                    nodeSet.clear();
-                }
+    /**
+     * Load and initialize the tasks to be started
+     *
+     * @param deployments the deployments of the tasks to be initialized
+     */
+    protected void loadAndInit(List<TaskDeployment> deployments) {
+        List<InternalTask> tasks = new ArrayList<>(deployments.size());
+        for (TaskDeployment deployment : deployments) {
+            tlogger.debug(deployment.task.getId(), "initializing the executable container");
+            tasks.add(deployment.task);
+        }
+        Map<TaskId, ExecutableContainer> containers = getDBManager().loadExecutableContainers(tasks);
+        for (InternalTask task : tasks) {
+            task.setExecutableContainer(containers.get(task.getId()));
+        }
+    }
 
-                //set nodes in the executable container
-                task.getExecutableContainer().setNodes(nodes);
+    /**
+     * Start the task of the given deployment, its launcher has already been created.
+     *
+     * @param deployment the deployment of the task to be started
+     */
+    protected void createExecution(TaskDeployment deployment) throws Exception {
+        InternalTask task = deployment.task;
 
-                tlogger.debug(task.getId(), "deploying");
+        activeObjectCreationRetryTimeNumber = ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER;
 
-                finalizeStarting(job, task, node, launcher);
+        if (task.isParallel()) {
+            task.getExecuterInformation().addNodes(deployment.nodes);
+        }
 
-                threadPool.submitWithTimeout(new TimedDoTaskAction(job, taskDescriptor, launcher,
-                    schedulingService, terminateNotification, corePrivateKey), DOTASK_ACTION_TIMEOUT,
-                        TimeUnit.MILLISECONDS);
-            } catch (Exception t) {
-                try {
-                    //if there was a problem, free nodeSet for multi-nodes task
-                    nodes.add(node);
-                    releaseNodes(job, nodes);
-                } catch (Throwable ni) {
-                    //miam miam
-                }
-                throw t;
-            }
+        //set nodes in the executable container
+        task.getExecutableContainer().setNodes(deployment.nodes);
 
-        }
+        tlogger.debug(task.getId(), "deploying");
 
+        finalizeStarting(deployment.job, task, deployment.node, deployment.launcher);
+
+        threadPool.submitWithTimeout(new TimedDoTaskAction(deployment.job, deployment.taskDescriptor,
+            deployment.launcher, schedulingService, terminateNotification, corePrivateKey),
+                DOTASK_ACTION_TIMEOUT, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -528,4 +796,39 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
         return selectionScripts;
     }
 
+
+    /**
+     * A task being deployed with the nodes it has been assigned.
+     */
+    static final class TaskDeployment {
+
+        final InternalJob job;
+        final InternalTask task;
+        final TaskDescriptor taskDescriptor;
+        /** the node on which to start the task */
+        final Node node;
+        /** the other nodes used by a multi-nodes task */
+        final NodeSet nodes;
+
+        volatile TaskLauncher launcher;
+        volatile Throwable failure;
+
+        TaskDeployment(InternalJob job, InternalTask task, TaskDescriptor taskDescriptor, Node node,
+                NodeSet nodes) {
+            this.job = job;
+            this.task = task;
+            this.taskDescriptor = taskDescriptor;
+            this.node = node;
+            this.nodes = nodes;
+        }
+
+        void createLauncher() {
+            try {
+                launcher = task.createLauncher(job, node);
+            } catch (Throwable t) {
+                failure = t;
+            }
+        }
+    }
+
 }
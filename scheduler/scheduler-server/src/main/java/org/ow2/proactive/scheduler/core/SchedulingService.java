@@ -241,7 +241,9 @@ public class SchedulingService {
                 status);
             return false;
         }
-        return policy.reloadConfig();
+        boolean reloaded = policy.reloadConfig();
+        jobs.schedulingPolicyChanged();
+        return reloaded;
     }
 
     public boolean changePolicy(String newPolicyClassName) {
@@ -258,6 +260,7 @@ public class SchedulingService {
             }
             //if success, change current policy 
             policy = newPolicy;
+            jobs.schedulingPolicyChanged();
             listener.schedulerStateUpdated(SchedulerEvent.POLICY_CHANGED);
             logger.info("Policy changed ! new policy name : " + newPolicyClassName);
             return true;
@@ -302,6 +305,13 @@ public class SchedulingService {
         return jobs.lockJobsToSchedule();
     }
 
+    /*
+     * Should be called only by scheduling method impl before job scheduling starts
+     */
+    public long getSchedulingRevision() {
+        return jobs.getSchedulingRevision();
+    }
+
     /*
      * Should be called only by scheduling method impl after job scheduling finished
      */
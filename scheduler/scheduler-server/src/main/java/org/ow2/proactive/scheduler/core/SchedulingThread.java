@@ -40,6 +40,7 @@ public final class SchedulingThread extends Thread {
                 service.handleException(t);
             }
         }
+        schedulingMethod.shutdown();
     }
 
     protected void sleepSchedulingThread() throws InterruptedException {
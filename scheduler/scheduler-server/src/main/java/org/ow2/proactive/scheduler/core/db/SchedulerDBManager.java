@@ -12,8 +12,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.objectweb.proactive.utils.NamedThreadFactory;
 import org.ow2.proactive.db.DatabaseManagerException;
 import org.ow2.proactive.db.FilteredExceptionCallback;
 import org.ow2.proactive.db.SortParameter;
@@ -44,6 +48,7 @@ import org.ow2.proactive.scheduler.job.SchedulerUserInfo;
 import org.ow2.proactive.scheduler.task.TaskIdImpl;
 import org.ow2.proactive.scheduler.task.TaskResultImpl;
 import org.ow2.proactive.scheduler.task.containers.ExecutableContainer;
+import org.ow2.proactive.scheduler.task.containers.ScriptExecutableContainer;
 import org.ow2.proactive.scheduler.task.internal.InternalForkedScriptTask;
 import org.ow2.proactive.scheduler.task.internal.InternalScriptTask;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
@@ -104,6 +109,33 @@ public class SchedulerDBManager {
 
     private final TransactionHelper transactionHelper;
 
+    /** Default maximum total length of the task scripts kept in cache */
+    private static final int DEFAULT_SCRIPTS_CACHE_SIZE = 10000000;
+
+    /** Default period (in millis) between two writes of the pending task start transitions */
+    private static final int DEFAULT_WRITE_BEHIND_PERIOD = 100;
+
+    /** Number of statements sent to the database in a single JDBC batch */
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    /** Maximum number of tasks whose executable containers are loaded with a single query */
+    private static final int LOAD_CONTAINERS_BATCH_SIZE = 500;
+
+    private final TaskScriptCache scriptCache;
+
+    /**
+     * Task start transitions not yet written to the database when the write-behind mode is enabled,
+     * they are written in a single transaction before any other access to the database
+     */
+    private final List<TaskStartedUpdate> pendingUpdates = new ArrayList<>();
+
+    private volatile boolean updatesPending;
+
+    /** Held while the pending updates are written, so that no other access can overtake them */
+    private final Object writeBehindLock = new Object();
+
+    private ScheduledExecutorService writeBehindExecutor;
+
     public static SchedulerDBManager createUsingProperties() {
         if (System.getProperty(JAVA_PROPERTYNAME_NODB) != null) {
             return createInMemorySchedulerDBManager();
@@ -154,6 +186,10 @@ public class SchedulerDBManager {
             configuration.setProperty("hibernate.id.new_generator_mappings", "true");
             configuration.setProperty("hibernate.jdbc.use_streams_for_binary", "true");
             configuration.setProperty("hibernate.connection.isolation", "2");
+            if (configuration.getProperty("hibernate.jdbc.batch_size") == null) {
+                configuration.setProperty("hibernate.jdbc.batch_size", String.valueOf(JDBC_BATCH_SIZE));
+            }
+            configuration.setProperty("hibernate.order_inserts", "true");
 
             ServiceRegistry serviceRegistry = new ServiceRegistryBuilder().applySettings(
                     configuration.getProperties()).buildServiceRegistry();
@@ -163,6 +199,27 @@ public class SchedulerDBManager {
             throw new DatabaseManagerException("Initial SessionFactory creation failed", ex);
         }
         transactionHelper = new TransactionHelper(sessionFactory);
+        scriptCache = new TaskScriptCache(PASchedulerProperties.SCHEDULER_DB_SCRIPTS_CACHE_SIZE.isSet() ?
+                PASchedulerProperties.SCHEDULER_DB_SCRIPTS_CACHE_SIZE.getValueAsInt() :
+                DEFAULT_SCRIPTS_CACHE_SIZE);
+
+        if (PASchedulerProperties.SCHEDULER_DB_WRITE_BEHIND.getValueAsBoolean()) {
+            long period = PASchedulerProperties.SCHEDULER_DB_WRITE_BEHIND_PERIOD.isSet() ?
+                    PASchedulerProperties.SCHEDULER_DB_WRITE_BEHIND_PERIOD.getValueAsInt() :
+                    DEFAULT_WRITE_BEHIND_PERIOD;
+            writeBehindExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(
+                "SchedulerDBManager write-behind"));
+            writeBehindExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        flushPendingUpdates();
+                    } catch (RuntimeException e) {
+                        logger.warn("Failed to write the pending task start transitions, retrying later", e);
+                    }
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+        }
 
     }
 
@@ -296,6 +353,10 @@ public class SchedulerDBManager {
 
     public void close() {
         try {
+            if (writeBehindExecutor != null) {
+                writeBehindExecutor.shutdownNow();
+                flushPendingUpdates();
+            }
             if (sessionFactory != null) {
                 debugLogger.info("Closing session factory");
                 sessionFactory.close();
@@ -642,6 +703,7 @@ public class SchedulerDBManager {
 
     private void removeJobRuntimeData(Session session, long jobId) {
         removeJobScripts(session, jobId);
+        scriptCache.removeJob(jobId);
 
         session.createQuery("delete from EnvironmentModifierData where taskData.id.jobId = :jobId").setParameter(
           "jobId", jobId).executeUpdate();
@@ -650,7 +712,7 @@ public class SchedulerDBManager {
                 "jobId", jobId).executeUpdate();
     }
 
-    public synchronized void removeJob(final JobId jobId, final long removedTime, final boolean removeData) {
+    public void removeJob(final JobId jobId, final long removedTime, final boolean removeData) {
         runWithTransaction(new SessionWork<Void>() {
             @Override
             public Void executeWork(Session session) {
@@ -663,6 +725,7 @@ public class SchedulerDBManager {
                             .setParameter("jobId", id).executeUpdate();
 
                     removeJobScripts(session, id);
+                    scriptCache.removeJob(id);
 
                     session.createQuery("delete from JobData where id = :jobId").setParameter("jobId", id)
                             .executeUpdate();
@@ -889,48 +952,132 @@ public class SchedulerDBManager {
 
     public void jobTaskStarted(final InternalJob job, final InternalTask task,
             final boolean taskStatusToPending) {
+        final TaskStartedUpdate update = new TaskStartedUpdate(job, task, taskStatusToPending);
+        if (writeBehindExecutor != null) {
+            queueUpdate(update);
+            return;
+        }
         runWithTransaction(new SessionWork<Void>() {
             @Override
             public Void executeWork(Session session) {
-                long jobId = jobId(job);
-
-                String jobUpdate = "update JobData set status = :status, "
-                        + "startTime = :startTime, numberOfPendingTasks = :numberOfPendingTasks, "
-                        + "numberOfRunningTasks = :numberOfRunningTasks where id = :jobId";
+                update.execute(session);
+                return null;
+            }
 
-                JobInfo jobInfo = job.getJobInfo();
+        });
+    }
 
-                session.createQuery(jobUpdate).setParameter("status", jobInfo.getStatus()).setParameter(
-                        "startTime", jobInfo.getStartTime()).setParameter("numberOfPendingTasks",
-                        jobInfo.getNumberOfPendingTasks()).setParameter("numberOfRunningTasks",
-                        jobInfo.getNumberOfRunningTasks()).setParameter("jobId", jobId).executeUpdate();
+    private void queueUpdate(TaskStartedUpdate update) {
+        synchronized (pendingUpdates) {
+            pendingUpdates.add(update);
+            updatesPending = true;
+        }
+    }
 
-                if (taskStatusToPending) {
-                    JobData job = (JobData) session.load(JobData.class, jobId);
-                    String taskStatusUpdate = "update TaskData task set task.taskStatus = :taskStatus "
-                            + "where task.jobData = :job";
-                    session.createQuery(taskStatusUpdate).setParameter("taskStatus", TaskStatus.PENDING)
-                            .setParameter("job", job).executeUpdate();
+    /**
+     * Write the pending task start transitions in a single transaction. The queue is only locked while
+     * the pending updates are taken, the write lock is held until the transaction is committed.
+     * The pending flag is only cleared once the updates are committed, so that another access seeing
+     * it set waits on the write lock and cannot overtake them. When the transaction fails, the updates
+     * are queued again ahead of the ones queued meanwhile, and the exception is thrown.
+     */
+    private void flushPendingUpdates() {
+        if (!updatesPending) {
+            return;
+        }
+        synchronized (writeBehindLock) {
+            final List<TaskStartedUpdate> updates;
+            synchronized (pendingUpdates) {
+                if (pendingUpdates.isEmpty()) {
+                    updatesPending = false;
+                    return;
                 }
+                updates = new ArrayList<>(pendingUpdates);
+                pendingUpdates.clear();
+            }
+            try {
+                transactionHelper.runWithTransaction(new SessionWork<Void>() {
+                    @Override
+                    public Void executeWork(Session session) {
+                        for (TaskStartedUpdate update : updates) {
+                            update.execute(session);
+                        }
+                        return null;
+                    }
+                });
+            } catch (RuntimeException e) {
+                synchronized (pendingUpdates) {
+                    pendingUpdates.addAll(0, updates);
+                }
+                throw e;
+            }
+            synchronized (pendingUpdates) {
+                updatesPending = !pendingUpdates.isEmpty();
+            }
+        }
+    }
 
-                TaskData.DBTaskId taskId = taskId(task);
-
-                String taskUpdate = "update TaskData task set task.taskStatus = :taskStatus, "
-                        + "task.startTime = :startTime, task.finishedTime = :finishedTime, "
-                        + "task.executionHostName = :executionHostName where task.id = :taskId";
-
-                TaskInfo taskInfo = task.getTaskInfo();
-
-                session.createQuery(taskUpdate).setParameter("taskStatus", taskInfo.getStatus())
-                        .setParameter("startTime", taskInfo.getStartTime()).setParameter("finishedTime",
-                        taskInfo.getFinishedTime()).setParameter("executionHostName",
-                        taskInfo.getExecutionHostName()).setParameter("taskId", taskId)
-                        .executeUpdate();
+    /**
+     * Start transition of a task, the job and task information are copied on creation
+     * as the update can be written later.
+     */
+    private static final class TaskStartedUpdate {
+
+        private final long jobId;
+        private final JobStatus jobStatus;
+        private final long jobStartTime;
+        private final int numberOfPendingTasks;
+        private final int numberOfRunningTasks;
+        private final boolean taskStatusToPending;
+        private final TaskData.DBTaskId taskId;
+        private final TaskStatus taskStatus;
+        private final long taskStartTime;
+        private final long taskFinishedTime;
+        private final String executionHostName;
+
+        TaskStartedUpdate(InternalJob job, InternalTask task, boolean taskStatusToPending) {
+            JobInfo jobInfo = job.getJobInfo();
+            this.jobId = jobId(job);
+            this.jobStatus = jobInfo.getStatus();
+            this.jobStartTime = jobInfo.getStartTime();
+            this.numberOfPendingTasks = jobInfo.getNumberOfPendingTasks();
+            this.numberOfRunningTasks = jobInfo.getNumberOfRunningTasks();
+            this.taskStatusToPending = taskStatusToPending;
+            TaskInfo taskInfo = task.getTaskInfo();
+            this.taskId = taskId(task);
+            this.taskStatus = taskInfo.getStatus();
+            this.taskStartTime = taskInfo.getStartTime();
+            this.taskFinishedTime = taskInfo.getFinishedTime();
+            this.executionHostName = taskInfo.getExecutionHostName();
+        }
 
-                return null;
+        void execute(Session session) {
+            String jobUpdate = "update JobData set status = :status, "
+                    + "startTime = :startTime, numberOfPendingTasks = :numberOfPendingTasks, "
+                    + "numberOfRunningTasks = :numberOfRunningTasks where id = :jobId";
+
+            session.createQuery(jobUpdate).setParameter("status", jobStatus).setParameter(
+                    "startTime", jobStartTime).setParameter("numberOfPendingTasks",
+                    numberOfPendingTasks).setParameter("numberOfRunningTasks",
+                    numberOfRunningTasks).setParameter("jobId", jobId).executeUpdate();
+
+            if (taskStatusToPending) {
+                JobData job = (JobData) session.load(JobData.class, jobId);
+                String taskStatusUpdate = "update TaskData task set task.taskStatus = :taskStatus "
+                        + "where task.jobData = :job";
+                session.createQuery(taskStatusUpdate).setParameter("taskStatus", TaskStatus.PENDING)
+                        .setParameter("job", job).executeUpdate();
             }
 
-        });
+            String taskUpdate = "update TaskData task set task.taskStatus = :taskStatus, "
+                    + "task.startTime = :startTime, task.finishedTime = :finishedTime, "
+                    + "task.executionHostName = :executionHostName where task.id = :taskId";
+
+            session.createQuery(taskUpdate).setParameter("taskStatus", taskStatus)
+                    .setParameter("startTime", taskStartTime).setParameter("finishedTime",
+                    taskFinishedTime).setParameter("executionHostName", executionHostName)
+                    .setParameter("taskId", taskId).executeUpdate();
+        }
     }
 
     public void taskRestarted(final InternalJob job, final InternalTask task, final TaskResultImpl result) {
@@ -1038,7 +1185,7 @@ public class SchedulerDBManager {
                     TaskData taskData = saveNewTask(session, jobRuntimeData, task);
                     taskRuntimeDataList.add(taskData);
                     tasks.add(task);
-                    if (++counter % 50 == 0) {
+                    if (++counter % JDBC_BATCH_SIZE == 0) {
                         session.flush();
                         session.clear();
                     }
@@ -1373,7 +1520,7 @@ public class SchedulerDBManager {
         }
     }
 
-    public synchronized void newJobSubmitted(final InternalJob job) {
+    public void newJobSubmitted(final InternalJob job) {
         runWithTransaction(new SessionWork<JobData>() {
 
             @Override
@@ -1395,12 +1542,25 @@ public class SchedulerDBManager {
                     job.getIHMTasks().put(task.getId(), task);
                 }
 
-                List<InternalTask> tasks = job.getITasks();
-                List<TaskData> taskRuntimeDataList = new ArrayList<>(tasks.size());
-                for (InternalTask task : tasks) {
-                    taskRuntimeDataList.add(saveNewTask(session, jobRuntimeData, task));
+                // tasks are inserted by JDBC batches, the session is cleared after each batch
+                // so the branches, which reference other tasks, are set once every task is saved
+                List<InternalTask> tasksWithIfBranch = new ArrayList<>();
+                int counter = 0;
+                for (InternalTask task : job.getITasks()) {
+                    TaskData taskRuntimeData = saveNewTask(session, jobRuntimeData, task);
+                    setTaskDependencies(task, taskRuntimeData);
+                    if (task.getIfBranch() != null) {
+                        tasksWithIfBranch.add(task);
+                    }
+                    if (++counter % JDBC_BATCH_SIZE == 0) {
+                        session.flush();
+                        session.clear();
+                    }
+                }
+                for (InternalTask task : tasksWithIfBranch) {
+                    TaskData taskRuntimeData = getTaskReference(session, task);
+                    taskRuntimeData.setIfBranch(getTaskReference(session, task.getIfBranch()));
                 }
-                saveTaskDependencies(session, tasks, taskRuntimeDataList);
 
                 return jobRuntimeData;
             }
@@ -1417,30 +1577,37 @@ public class SchedulerDBManager {
         for (int i = 0; i < tasks.size(); i++) {
             InternalTask task = tasks.get(i);
             TaskData taskRuntimeData = taskRuntimeDataList.get(i);
-            if (task.hasDependences()) {
-                List<DBTaskId> dependencies = new ArrayList<>(task.getDependences().size());
-                for (Task dependency : task.getDependences()) {
-                    dependencies.add(taskId((InternalTask) dependency));
-                }
-                taskRuntimeData.setDependentTasks(dependencies);
-            } else {
-                taskRuntimeData.setDependentTasks(Collections.<DBTaskId> emptyList());
-            }
+            setTaskDependencies(task, taskRuntimeData);
             if (task.getIfBranch() != null) {
                 InternalTask ifBranch = task.getIfBranch();
                 taskRuntimeData.setIfBranch(getTaskReference(session, ifBranch));
             } else {
                 taskRuntimeData.setIfBranch(null);
             }
-            if (task.getJoinedBranches() != null && !task.getJoinedBranches().isEmpty()) {
-                List<DBTaskId> joinedBranches = new ArrayList<>(task.getJoinedBranches().size());
-                for (InternalTask joinedBranch : task.getJoinedBranches()) {
-                    joinedBranches.add(taskId(joinedBranch));
-                }
-                taskRuntimeData.setJoinedBranches(joinedBranches);
-            } else {
-                taskRuntimeData.setJoinedBranches(Collections.<DBTaskId> emptyList());
+        }
+    }
+
+    /**
+     * Set the dependencies and joined branches of the task, which only need the ids of the other tasks.
+     */
+    private void setTaskDependencies(InternalTask task, TaskData taskRuntimeData) {
+        if (task.hasDependences()) {
+            List<DBTaskId> dependencies = new ArrayList<>(task.getDependences().size());
+            for (Task dependency : task.getDependences()) {
+                dependencies.add(taskId((InternalTask) dependency));
             }
+            taskRuntimeData.setDependentTasks(dependencies);
+        } else {
+            taskRuntimeData.setDependentTasks(Collections.<DBTaskId> emptyList());
+        }
+        if (task.getJoinedBranches() != null && !task.getJoinedBranches().isEmpty()) {
+            List<DBTaskId> joinedBranches = new ArrayList<>(task.getJoinedBranches().size());
+            for (InternalTask joinedBranch : task.getJoinedBranches()) {
+                joinedBranches.add(taskId(joinedBranch));
+            }
+            taskRuntimeData.setJoinedBranches(joinedBranches);
+        } else {
+            taskRuntimeData.setJoinedBranches(Collections.<DBTaskId> emptyList());
         }
     }
 
@@ -1463,7 +1630,7 @@ public class SchedulerDBManager {
                 TaskData taskData = queryScriptTaskData(session, task);
 
                 if (taskData != null) {
-                    container = taskData.createExecutableContainer();
+                    container = createExecutableContainer(taskData);
                 }
             } else {
                 throw new IllegalArgumentException("Unexpected task class: " + task.getClass());
@@ -1479,6 +1646,10 @@ public class SchedulerDBManager {
         }
     }
 
+    private ExecutableContainer createExecutableContainer(TaskData taskData) throws InvalidScriptException {
+        return new ScriptExecutableContainer(scriptCache.get(taskData.getId().getJobId(), taskData.getScript()));
+    }
+
     private boolean isScriptTask(InternalTask task) {
         return task.getClass().equals(InternalForkedScriptTask.class) ||
             task.getClass().equals(InternalScriptTask.class);
@@ -1498,6 +1669,51 @@ public class SchedulerDBManager {
         });
     }
 
+    /**
+     * Load the executable containers of the given tasks, fetching the data of several tasks with a single query.
+     * Tasks of a job having scripts with the same content share the same script instance.
+     *
+     * @param tasks the tasks to load the executable containers of
+     * @return the executable container of each task
+     */
+    public Map<TaskId, ExecutableContainer> loadExecutableContainers(final Collection<InternalTask> tasks) {
+        return runWithoutTransaction(new SessionWork<Map<TaskId, ExecutableContainer>>() {
+            @Override
+            public Map<TaskId, ExecutableContainer> executeWork(Session session) {
+                try {
+                    Map<TaskData.DBTaskId, InternalTask> dbTaskIds = new HashMap<>(tasks.size());
+                    for (InternalTask task : tasks) {
+                        if (!isScriptTask(task)) {
+                            throw new IllegalArgumentException("Unexpected task class: " + task.getClass());
+                        }
+                        dbTaskIds.put(taskId(task), task);
+                    }
+
+                    Map<TaskId, ExecutableContainer> containers = new HashMap<>(tasks.size());
+                    for (List<TaskData.DBTaskId> batch : Iterables.partition(dbTaskIds.keySet(),
+                            LOAD_CONTAINERS_BATCH_SIZE)) {
+                        List<TaskData> taskDataList = session.createQuery(
+                                "from TaskData td left join fetch td.script where td.id in (:taskIds)")
+                                .setParameterList("taskIds", batch).list();
+                        for (TaskData taskData : taskDataList) {
+                            containers.put(dbTaskIds.get(taskData.getId()).getId(),
+                                    createExecutableContainer(taskData));
+                        }
+                    }
+
+                    for (InternalTask task : tasks) {
+                        if (!containers.containsKey(task.getId())) {
+                            throw new DatabaseManagerException("Failed to load data for task " + task.getId());
+                        }
+                    }
+                    return containers;
+                } catch (Exception e) {
+                    throw new DatabaseManagerException(e);
+                }
+            }
+        });
+    }
+
     public List<SchedulerUserInfo> loadUsersWithJobs() {
         return runWithoutTransaction(new SessionWork<List<SchedulerUserInfo>>() {
             @Override
@@ -1519,15 +1735,17 @@ public class SchedulerDBManager {
     }
 
     private <T> T runWithTransaction(SessionWork<T> sessionWork) {
+        flushPendingUpdates();
         return transactionHelper.runWithTransaction(sessionWork);
     }
 
     private <T> T runWithTransaction(SessionWork<T> sessionWork, boolean readonly) {
-
+        flushPendingUpdates();
         return transactionHelper.runWithTransaction(sessionWork, readonly);
     }
 
     private <T> T runWithoutTransaction(SessionWork<T> sessionWork) {
+        flushPendingUpdates();
         return transactionHelper.runWithoutTransaction(sessionWork);
     }
 
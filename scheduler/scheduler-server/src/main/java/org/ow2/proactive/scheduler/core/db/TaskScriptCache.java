@@ -0,0 +1,197 @@
+/*
+ *  *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2014 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ *  * $$ACTIVEEON_INITIAL_DEV$$
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.ow2.proactive.scripting.InvalidScriptException;
+import org.ow2.proactive.scripting.TaskScript;
+
+
+/**
+ * Cache of the task scripts loaded from the database.
+ * <p>
+ * Tasks of a job having scripts with the same content (replicated tasks for instance) share
+ * the same {@link TaskScript} instance, which is never modified on the scheduler side.
+ * The cache is bounded by the total length of the cached scripts, the least recently used
+ * scripts being evicted first, and the scripts of a job are evicted when it is finished.
+ */
+class TaskScriptCache {
+
+    /** Maximum total length of the cached scripts */
+    private final long maxSize;
+
+    private long size;
+
+    /** Cached scripts in access order */
+    private final LinkedHashMap<Key, TaskScript> scripts = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Keys of the cached scripts of each job */
+    private final Map<Long, Set<Key>> jobScripts = new HashMap<>();
+
+    TaskScriptCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the task script of the given job having the content of the given script data,
+     * create and cache it if needed.
+     *
+     * @param jobId the job of the task
+     * @param scriptData the script data loaded from the database
+     * @return a task script with the content of the given script data
+     */
+    synchronized TaskScript get(long jobId, ScriptData scriptData) throws InvalidScriptException {
+        Key key = new Key(jobId, scriptData);
+        TaskScript script = scripts.get(key);
+        if (script == null) {
+            script = new TaskScript(scriptData.createSimpleScript());
+            if (key.size() <= maxSize) {
+                put(key, script);
+            }
+        }
+        return script;
+    }
+
+    private void put(Key key, TaskScript script) {
+        scripts.put(key, script);
+        Set<Key> keys = jobScripts.get(key.jobId);
+        if (keys == null) {
+            keys = new HashSet<>();
+            jobScripts.put(key.jobId, keys);
+        }
+        keys.add(key);
+        size += key.size();
+
+        Iterator<Key> iterator = scripts.keySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Key eldest = iterator.next();
+            iterator.remove();
+            removeFromJob(eldest);
+        }
+    }
+
+    private void removeFromJob(Key key) {
+        size -= key.size();
+        Set<Key> keys = jobScripts.get(key.jobId);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                jobScripts.remove(key.jobId);
+            }
+        }
+    }
+
+    /**
+     * Evict the scripts of the given job.
+     *
+     * @param jobId the finished or removed job
+     */
+    synchronized void removeJob(long jobId) {
+        Set<Key> keys = jobScripts.remove(jobId);
+        if (keys != null) {
+            for (Key key : keys) {
+                scripts.remove(key);
+                size -= key.size();
+            }
+        }
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    synchronized int count() {
+        return scripts.size();
+    }
+
+    private static final class Key {
+
+        private final long jobId;
+
+        private final String engine;
+
+        private final String script;
+
+        private final Serializable[] parameters;
+
+        private final int hashCode;
+
+        Key(long jobId, ScriptData scriptData) {
+            this.jobId = jobId;
+            this.engine = scriptData.getScriptEngine();
+            this.script = scriptData.getScript();
+            this.parameters = scriptData.getScriptParameters() == null ? null : scriptData
+                    .getScriptParameters().toArray(new Serializable[scriptData.getScriptParameters().size()]);
+            int result = (int) (jobId ^ (jobId >>> 32));
+            result = 31 * result + (engine == null ? 0 : engine.hashCode());
+            result = 31 * result + (script == null ? 0 : script.hashCode());
+            result = 31 * result + Arrays.hashCode(parameters);
+            this.hashCode = result;
+        }
+
+        long size() {
+            return script == null ? 1 : script.length() + 1;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return jobId == other.jobId && hashCode == other.hashCode &&
+                (engine == null ? other.engine == null : engine.equals(other.engine)) &&
+                (script == null ? other.script == null : script.equals(other.script)) &&
+                Arrays.equals(parameters, other.parameters);
+        }
+    }
+
+}
@@ -49,6 +49,7 @@ import org.ow2.proactive.utils.NodeSet;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.List;
 
 
 /**
@@ -128,6 +129,11 @@ public class RMProxy {
         return nodeSet;
     }
 
+    public List<NodeSet> getNodes(List<Criteria> criteria) throws RMProxyCreationException {
+        List<NodeSet> nodeSets = proxyActiveObject.getNodes(criteria);
+        return nodeSets;
+    }
+
     public void releaseNodes(NodeSet nodeSet) {
         releaseNodes(nodeSet, null);
     }
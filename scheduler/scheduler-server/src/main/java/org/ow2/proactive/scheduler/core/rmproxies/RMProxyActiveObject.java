@@ -90,6 +90,11 @@ public class RMProxyActiveObject {
         return rm.getNodes(criteria);
     }
 
+    @ImmediateService
+    public List<NodeSet> getNodes(List<Criteria> criteria) {
+        return rm.getNodes(criteria);
+    }
+
     @ImmediateService
     public BooleanWrapper releaseNode(Node node) {
         return rm.releaseNode(node);
@@ -57,6 +57,9 @@ import org.ow2.proactive.scheduler.task.internal.InternalTask;
  */
 public class EligibleTaskDescriptorImpl implements EligibleTaskDescriptor {
 
+    /** Initial capacity of the parents and children lists, most tasks have few of them */
+    private static final int DEPENDENCES_CAPACITY = 2;
+
     /** Internal representation of the task */
     private InternalTask internalTask;
 
@@ -195,7 +198,7 @@ public class EligibleTaskDescriptorImpl implements EligibleTaskDescriptor {
      */
     public void addParent(TaskDescriptor task) {
         if (parents == null) {
-            parents = new Vector<>();
+            parents = new Vector<>(DEPENDENCES_CAPACITY);
         }
 
         parents.add(task);
@@ -209,7 +212,7 @@ public class EligibleTaskDescriptorImpl implements EligibleTaskDescriptor {
      */
     public void addChild(TaskDescriptor task) {
         if (children == null) {
-            children = new Vector<>();
+            children = new Vector<>(DEPENDENCES_CAPACITY);
         }
 
         children.add(task);
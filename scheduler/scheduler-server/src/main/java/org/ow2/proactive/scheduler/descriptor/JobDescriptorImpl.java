@@ -36,8 +36,10 @@
  */
 package org.ow2.proactive.scheduler.descriptor;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -55,7 +57,6 @@ import org.ow2.proactive.scheduler.common.job.JobStatus;
 import org.ow2.proactive.scheduler.common.job.JobType;
 import org.ow2.proactive.scheduler.common.task.Task;
 import org.ow2.proactive.scheduler.common.task.TaskId;
-import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.common.task.flow.FlowActionType;
 import org.ow2.proactive.scheduler.common.task.flow.FlowScript;
@@ -125,14 +126,16 @@ public class JobDescriptorImpl implements JobDescriptor {
      * This list represents the ordered TaskDescriptor list of its parent tasks.
      */
     private void makeTree(InternalJob job) {
-        Map<InternalTask, TaskDescriptor> mem = new HashMap<>();
+        List<InternalTask> tasks = job.getITasks();
+        Map<InternalTask, EligibleTaskDescriptorImpl> mem = new HashMap<>(tasks.size());
+        Set<String> ifTargets = getIfTargets(tasks);
 
         //create task descriptor list
-        for (InternalTask td : job.getITasks()) {
+        for (InternalTask td : tasks) {
             //if this task is a first task, put it in eligible tasks list
-            EligibleTaskDescriptor lt = new EligibleTaskDescriptorImpl(td);
+            EligibleTaskDescriptorImpl lt = new EligibleTaskDescriptorImpl(td);
 
-            if (isEntryPoint(td, job.getITasks())) {
+            if (isEntryPoint(td, ifTargets)) {
                 eligibleTasks.put(td.getId(), lt);
             }
 
@@ -144,20 +147,44 @@ public class JobDescriptorImpl implements JobDescriptor {
         }
 
         //now for each taskDescriptor, set the parents and children list
-        for (InternalTask td : job.getITasks()) {
-            if (td.getDependences() != null) {
-                TaskDescriptor taskDescriptor = mem.get(td);
-
-                for (InternalTask depends : td.getIDependences()) {
-                    ((EligibleTaskDescriptorImpl) taskDescriptor).addParent(mem.get(depends));
+        for (InternalTask td : tasks) {
+            List<InternalTask> ideps = td.getIDependences();
+            if (ideps != null) {
+                EligibleTaskDescriptorImpl taskDescriptor = mem.get(td);
+
+                for (InternalTask depends : ideps) {
+                    EligibleTaskDescriptorImpl parent = mem.get(depends);
+                    taskDescriptor.addParent(parent);
+                    parent.addChild(taskDescriptor);
+                    hasChildren.add(parent.getTaskId());
                 }
+            }
+        }
+    }
 
-                for (TaskDescriptor lt : taskDescriptor.getParents()) {
-                    ((EligibleTaskDescriptorImpl) lt).addChild(taskDescriptor);
-                    hasChildren.add(lt.getTaskId());
-                }
+    /**
+     * Collects the names of the tasks targeted by an if control flow action
+     *
+     * @param tasks the tasks of the job
+     * @return the names of the IF, ELSE and JOIN tasks of the if actions
+     */
+    private Set<String> getIfTargets(List<InternalTask> tasks) {
+        Set<String> ifTargets = new HashSet<>();
+        for (Task t : tasks) {
+            FlowScript sc = t.getFlowScript();
+            if (sc != null && FlowActionType.parse(sc.getActionType()).equals(FlowActionType.IF)) {
+                addIfNotNull(ifTargets, sc.getActionTarget());
+                addIfNotNull(ifTargets, sc.getActionTargetElse());
+                addIfNotNull(ifTargets, sc.getActionContinuation());
             }
         }
+        return ifTargets;
+    }
+
+    private static void addIfNotNull(Set<String> names, String name) {
+        if (name != null) {
+            names.add(name);
+        }
     }
 
     /**
@@ -165,45 +192,12 @@ public class JobDescriptorImpl implements JobDescriptor {
      * a startable task : has no dependency, and is not target of an if control flow action
      *
      * @param t a Task
-     * @param otherTasks the other tasks contained in the job containing task t
-     * @return true if t is an entry point among all tasks in otherTasks, or false
+     * @param ifTargets the names of the tasks targeted by an if control flow action
+     * @return true if t is an entry point, or false
      */
-    private boolean isEntryPoint(InternalTask t, List<InternalTask> otherTasks) {
-        List<TaskState> deps = t.getDependences();
-        boolean entryPoint = false;
-
-        // an entry point has no dependency
-        if (deps == null || deps.size() == 0) {
-            entryPoint = true;
-        } else {
-            return false;
-        }
-
-        // a entry point is not target of an if
-        for (Task t2 : otherTasks) {
-            if (t.equals(t2)) {
-                continue;
-            }
-            FlowScript sc = t2.getFlowScript();
-            if (sc != null) {
-                String actionType = sc.getActionType();
-                if (FlowActionType.parse(actionType).equals(FlowActionType.IF)) {
-                    String tIf = sc.getActionTarget();
-                    String tElse = sc.getActionTargetElse();
-                    String tJoin = sc.getActionContinuation();
-                    if (tIf != null && tIf.equals(t.getName())) {
-                        return false;
-                    }
-                    if (tElse != null && tElse.equals(t.getName())) {
-                        return false;
-                    }
-                    if (tJoin != null && tJoin.equals(t.getName())) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return entryPoint;
+    private boolean isEntryPoint(InternalTask t, Set<String> ifTargets) {
+        // an entry point has no dependency and is not target of an if
+        return !t.hasDependences() && !ifTargets.contains(t.getName());
     }
 
     /**
@@ -216,6 +210,16 @@ public class JobDescriptorImpl implements JobDescriptor {
         return hasChildren.contains(taskId);
     }
 
+    /**
+     * Return true if the task represented by the given taskId is in the eligible task view.
+     *
+     * @param taskId the id representing the real task.
+     * @return true if the task is eligible, false if it is running, paused, terminated or unknown.
+     */
+    public boolean isEligible(TaskId taskId) {
+        return eligibleTasks.containsKey(taskId);
+    }
+
     /**
      * Delete this task from eligible task view and add it to running view.
      * Visibility is package because user cannot use this method.
@@ -461,7 +465,7 @@ public class JobDescriptorImpl implements JobDescriptor {
         if (oldTask == null) {
             oldTask = (EligibleTaskDescriptorImpl) eligibleTasks.get(initiator);
         }
-        HashSet<TaskId> excl = new HashSet<>();
+        Set<TaskId> excl = new HashSet<>();
         EligibleTaskDescriptorImpl endTask = (EligibleTaskDescriptorImpl) findTask(oldTask, oldEnd, excl);
         if (endTask == null) {
             // findTask cannot walk weak dependencies (IF/ELSE) down, lets walk these branches ourselves
@@ -486,29 +490,30 @@ public class JobDescriptorImpl implements JobDescriptor {
     }
 
     /**
-     * Find a task given a parent task
+     * Find a task given a parent task, walking the subtree iteratively as it can be
+     * as deep as the number of tasks of the job
      *
      * @param haystack task from which the child subtree will be walked
      * @param needle task to find in <code>haystack's</code> subtree
+     * @param excl tasks already walked, they are not walked again
      * @return the TaskDescriptor corresponding <code>needle</code> if it is
      *  a child of <code>haystack's</code>, or null
      */
-    private TaskDescriptor findTask(TaskDescriptor haystack, TaskId needle, HashSet<TaskId> excl) {
-        if (excl.contains(haystack.getTaskId()))
-            return null;
-
-        excl.add(haystack.getTaskId());
-
-        if (needle.equals(haystack.getTaskId())) {
-            return haystack;
-        }
-        for (TaskDescriptor td : haystack.getChildren()) {
+    private TaskDescriptor findTask(TaskDescriptor haystack, TaskId needle, Set<TaskId> excl) {
+        Deque<TaskDescriptor> toWalk = new ArrayDeque<>();
+        toWalk.push(haystack);
+        while (!toWalk.isEmpty()) {
+            TaskDescriptor td = toWalk.pop();
+            if (!excl.add(td.getTaskId())) {
+                continue;
+            }
             if (needle.equals(td.getTaskId())) {
                 return td;
             }
-            TaskDescriptor ttd = findTask(td, needle, excl);
-            if (ttd != null) {
-                return ttd;
+            List<TaskDescriptor> children = td.getChildren();
+            // pushed in reverse order so that children are walked in order, depth first
+            for (int i = children.size() - 1; i >= 0; i--) {
+                toWalk.push(children.get(i));
             }
         }
         return null;
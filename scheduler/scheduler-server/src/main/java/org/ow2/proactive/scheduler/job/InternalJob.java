@@ -98,6 +98,10 @@ public abstract class InternalJob extends JobState {
     /** List of every tasks in this job. */
     protected Map<TaskId, InternalTask> tasks = new HashMap<>();
 
+    /** Tasks by readable name, updated when tasks are added, built on first use */
+    @XmlTransient
+    private transient volatile Map<String, InternalTask> tasksByName;
+
     /** Informations (that can be modified) about job execution */
     protected JobInfoImpl jobInfo = new JobInfoImpl();
 
@@ -213,6 +217,10 @@ public abstract class InternalJob extends JobState {
 
         if (result) {
             jobInfo.setTotalNumberOfTasks(jobInfo.getTotalNumberOfTasks() + 1);
+            Map<String, InternalTask> index = tasksByName;
+            if (index != null) {
+                index.put(task.getId().getReadableName(), task);
+            }
         }
 
         return result;
@@ -584,8 +592,9 @@ public abstract class InternalJob extends JobState {
                                 nt.setJobInfo(getJobInfo());
                                 int dupIndex = getNextReplicationIndex(InternalTask.getInitialName(nt
                                         .getName()), nt.getIterationIndex());
-                                this.addTask(nt);
+                                // renamed before being added so that it is indexed by its final name
                                 nt.setReplicationIndex(dupIndex);
+                                this.addTask(nt);
                             }
                             changesInfo.newTasksAdded(dup.values());
 
@@ -715,18 +724,14 @@ public abstract class InternalJob extends JobState {
                 .setNumberOfPendingTasks(this.getJobInfo().getNumberOfPendingTasks() + dup.size());
 
         // ensure naming unicity
-        // time-consuming but safe
+        Set<String> taskNames = new HashSet<>(tasks.size());
+        for (InternalTask task : tasks.values()) {
+            taskNames.add(task.getName());
+        }
         for (InternalTask nt : dup.values()) {
-            boolean ok;
-            do {
-                ok = true;
-                for (InternalTask task : tasks.values()) {
-                    if (nt.getName().equals(task.getName())) {
-                        nt.setIterationIndex(nt.getIterationIndex() + 1);
-                        ok = false;
-                    }
-                }
-            } while (!ok);
+            while (taskNames.contains(nt.getName())) {
+                nt.setIterationIndex(nt.getIterationIndex() + 1);
+            }
         }
 
         // configure the new tasks
@@ -928,6 +933,7 @@ public abstract class InternalJob extends JobState {
             td.setJobInfo(getJobInfo());
             tasks.put(newId, td);
         }
+        tasksByName = null;
     }
 
     /**
@@ -1051,6 +1057,7 @@ public abstract class InternalJob extends JobState {
         for (InternalTask task : tasksList) {
             tasks.put(task.getId(), task);
         }
+        tasksByName = null;
     }
 
     /**
@@ -1277,12 +1284,30 @@ public abstract class InternalJob extends JobState {
      * @throws UnknownTaskException if the given taskName does not exist.
      */
     public InternalTask getTask(String taskName) throws UnknownTaskException {
-        for (InternalTask task : tasks.values()) {
-            if (task.getId().getReadableName().equals(taskName)) {
-                return task;
-            }
+        Map<String, InternalTask> index = tasksByName;
+        InternalTask task = index == null ? null : index.get(taskName);
+        if (index == null || (task != null && !isIndexed(task, taskName))) {
+            // the tasks have been replaced, or renamed out of this job
+            index = indexTasks();
+            task = index.get(taskName);
+        }
+        if (task == null) {
+            throw new UnknownTaskException("'" + taskName + "' does not exist in this job.");
+        }
+        return task;
+    }
+
+    private boolean isIndexed(InternalTask task, String taskName) {
+        return task.getId().getReadableName().equals(taskName) && tasks.get(task.getId()) == task;
+    }
+
+    private Map<String, InternalTask> indexTasks() {
+        Map<String, InternalTask> index = new HashMap<>(tasks.size());
+        for (InternalTask t : tasks.values()) {
+            index.put(t.getId().getReadableName(), t);
         }
-        throw new UnknownTaskException("'" + taskName + "' does not exist in this job.");
+        tasksByName = index;
+        return index;
     }
 
     public InternalTask getTask(TaskId taskId) throws UnknownTaskException {
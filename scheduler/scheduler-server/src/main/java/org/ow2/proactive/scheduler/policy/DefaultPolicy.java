@@ -88,6 +88,16 @@ public class DefaultPolicy extends Policy {
         return toReturn;
     }
 
+    /**
+     * {@inheritDoc}
+     * FIFO priority ordering only depends on the jobs. Subclasses may order the tasks
+     * on time or resources, they have to override this method to declare a stable order.
+     */
+    @Override
+    public boolean isOrderStable() {
+        return getClass() == DefaultPolicy.class;
+    }
+
     public static final Comparator<JobDescriptor> FIFO_BY_PRIORITY_COMPARATOR = new Comparator<JobDescriptor>() {
         @Override
         public int compare(JobDescriptor job1, JobDescriptor job2) {
@@ -68,6 +68,9 @@ public class ExtendedSchedulerPolicy extends DefaultPolicy {
 
     public static final String GENERIC_INFORMATION_KEY_START_AT = "START_AT";
 
+    /* true if some tasks were filtered out by the last call because of their 'startAt' */
+    private boolean delayedTasks = false;
+
     /*
      * Utilize 'startAt' generic info and filter any tasks that should not be
      * scheduled for current execution cycle.
@@ -76,6 +79,7 @@ public class ExtendedSchedulerPolicy extends DefaultPolicy {
     public Vector<EligibleTaskDescriptor> getOrderedTasks(List<JobDescriptor> jobDescList) {
         Date now = new Date();
         Vector<EligibleTaskDescriptor> executionCycleTasks = new Vector<>();
+        boolean delayed = false;
 
         Collections.sort(jobDescList, FIFO_BY_PRIORITY_COMPARATOR);
 
@@ -91,6 +95,7 @@ public class ExtendedSchedulerPolicy extends DefaultPolicy {
                             executionCycleTasks.add(candidate);
 
                         } else {
+                            delayed = true;
                             if (logger.isTraceEnabled()) {
                                 logger.trace(String.format(
                                         "Task [jobId:\"%s\", taskId:\"%s\"] is scheduled to be executed at %s."
@@ -114,9 +119,19 @@ public class ExtendedSchedulerPolicy extends DefaultPolicy {
                 }
             }
         }
+        delayedTasks = delayed;
         return executionCycleTasks;
     }
 
+    /**
+     * {@inheritDoc}
+     * The order depends on the current date only if some tasks were postponed by their 'startAt'.
+     */
+    @Override
+    public boolean isOrderStable() {
+        return !delayedTasks;
+    }
+
     /*
      * START_AT property defined at task level always has the precedence over
      * the same property defined job level.
@@ -99,6 +99,21 @@ public abstract class Policy implements Serializable {
      */
     public abstract Vector<EligibleTaskDescriptor> getOrderedTasks(List<JobDescriptor> jobs);
 
+    /**
+     * Return true if the order returned by the last call to {@link #getOrderedTasks(List)} only
+     * depends on the given jobs and their eligible tasks.<br/>
+     * In this case, the scheduler will reuse this order as long as no job event (submission,
+     * task termination, priority change...) occurs, instead of asking the policy at every scheduling loop.
+     * Tasks started in the meantime are simply removed from the reused order.
+     * <br/><br/>
+     * Default is false, override this method if the order is not time or resource dependent.
+     *
+     * @return true if the last computed order can be reused while jobs are not modified.
+     */
+    public boolean isOrderStable() {
+        return false;
+    }
+
     /**
      * Set the RM state
      *
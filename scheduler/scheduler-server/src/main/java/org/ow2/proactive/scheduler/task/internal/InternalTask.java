@@ -51,7 +51,6 @@ import javax.xml.bind.annotation.XmlTransient;
 import org.objectweb.proactive.ActiveObjectCreationException;
 import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.node.NodeException;
-import org.objectweb.proactive.core.util.converter.ProActiveMakeDeepCopy;
 import org.ow2.proactive.scheduler.common.exception.ExecutableCreationException;
 import org.ow2.proactive.scheduler.common.job.JobId;
 import org.ow2.proactive.scheduler.common.job.JobInfo;
@@ -60,9 +59,11 @@ import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.common.task.TaskState;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.common.task.UpdatableProperties;
 import org.ow2.proactive.scheduler.common.task.flow.FlowAction;
 import org.ow2.proactive.scheduler.common.task.flow.FlowActionType;
 import org.ow2.proactive.scheduler.common.task.flow.FlowBlock;
+import org.ow2.proactive.scheduler.common.task.flow.FlowScript;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.task.SchedulerVars;
@@ -71,6 +72,7 @@ import org.ow2.proactive.scheduler.task.TaskInfoImpl;
 import org.ow2.proactive.scheduler.task.TaskLauncher;
 import org.ow2.proactive.scheduler.task.TaskLauncherInitializer;
 import org.ow2.proactive.scheduler.task.containers.ExecutableContainer;
+import org.ow2.proactive.scripting.InvalidScriptException;
 import org.ow2.proactive.utils.NodeSet;
 
 
@@ -84,7 +86,7 @@ import org.ow2.proactive.utils.NodeSet;
  * @since ProActive Scheduling 0.9
  */
 @XmlAccessorType(XmlAccessType.FIELD)
-public abstract class InternalTask extends TaskState {
+public abstract class InternalTask extends TaskState implements Cloneable {
 
     /** Parents list: null if no dependency */
     @XmlTransient
@@ -146,57 +148,70 @@ public abstract class InternalTask extends TaskState {
     @Override
     public TaskState replicate() throws ExecutableCreationException {
         /*
-         * this implementation deep copies everything using serialization. however the new
-         * InternalTask cannot be strictly identical and we have to handle the following special
-         * cases:
-         *
-         * - ExecutableContainer is transient and not copied during serialization. It needs to be
-         * manually copied, and added to the InternalTask replica
+         * the replica shares with this task the parts which are not modified once the job is
+         * submitted (scripts, selection scripts, environments, selectors), only the mutable
+         * state is copied:
          *
          * - Using the TaskInfo of _this_ gives us a FINISHED task, need to explicitely create a new
-         * clean one.
+         * clean one, with a copy of the task id as its readable name changes with the indexes.
+         *
+         * - The flow script targets are renamed along with the task, it needs to be copied.
          *
-         * - InternalTask dependencies need to be nulled as they contain references to other
-         * InternalTasks, and will be rewritten later anyway
+         * - Collections and updatable properties are copied so that updating the replica does
+         * not update this task.
          *
-         * - Most of the objects down the object graph contain Hibernate @Id fields. If all those
-         * fields are not set to 0 when inserting the object in DB, insertion will fail.
+         * - InternalTask dependencies and flow branches need to be nulled as they contain
+         * references to other InternalTasks, and will be rewritten later anyway
          *
-         * - Collections are mapped to specific Hibernate internal collections at runtime, which
-         * contain references to the @Id fields mentionned above. They need to be reset too.
+         * - ExecutableContainer is not copied, the one of this task is given to the replica
+         * when it is saved in DB, see getReplicatedFrom()
          */
 
-        InternalTask replicatedTask = null;
-        // SCHEDULING-1373 remains, but not replicating the container make the core hangs,
-        // while replicating it "only" loses tasks args in db...
-        //ExecutableContainer replicatedContainer = null;
+        InternalTask replicatedTask;
         try {
-            // Deep copy of the InternalTask using proactive serialization
-            replicatedTask = (InternalTask) ProActiveMakeDeepCopy.WithProActiveObjectStream
-                    .makeDeepCopy(this);
-        } catch (Throwable t) {
-            throw new ExecutableCreationException("Failed to serialize task", t);
+            replicatedTask = (InternalTask) clone();
+            if (flowScript != null) {
+                replicatedTask.flowScript = new FlowScript(flowScript);
+            }
+        } catch (CloneNotSupportedException | InvalidScriptException e) {
+            throw new ExecutableCreationException("Failed to replicate task", e);
         }
 
-        // ideps contain references to other InternalTasks, it needs to be removed.
-        // anyway, dependencies for the new task will not be the same as the original
         replicatedTask.ideps = null;
+        replicatedTask.joinedBranches = null;
+        replicatedTask.ifBranch = null;
+        replicatedTask.executerInformation = null;
+        replicatedTask.nodeExclusion = null;
+        replicatedTask.executableContainer = null;
 
         // the taskinfo needs to be cleaned so that we don't tag this task as finished
-        TaskId repId = replicatedTask.taskInfo.getTaskId();
+        TaskId id = taskInfo.getTaskId();
         replicatedTask.taskInfo = new TaskInfoImpl();
-        replicatedTask.taskInfo.setTaskId(repId); // we only need this id for the HashSet comparisons...
+        if (id != null) {
+            // we only need this id for the HashSet comparisons...
+            replicatedTask.taskInfo.setTaskId(TaskIdImpl.createTaskId(id.getJobId(), id.getReadableName(),
+                    Long.valueOf(id.value()), false));
+        }
         replicatedTask.taskInfo.setNumberOfExecutionLeft(getMaxNumberOfExecution());
         replicatedTask.taskInfo.setNumberOfExecutionOnFailureLeft(getMaxNumberOfExecutionOnFailure());
 
-        replicatedTask.setReplicatedFrom(this);
+        replicatedTask.cancelJobOnError = copy(cancelJobOnError);
+        replicatedTask.restartTaskOnError = copy(restartTaskOnError);
+        replicatedTask.maxNumberOfExecution = copy(maxNumberOfExecution);
+        if (genericInformations != null) {
+            replicatedTask.genericInformations = new HashMap<>(genericInformations);
+        }
+        if (sScripts != null) {
+            replicatedTask.sScripts = new ArrayList<>(sScripts);
+        }
+        if (inputFiles != null) {
+            replicatedTask.inputFiles = new ArrayList<>(inputFiles);
+        }
+        if (outputFiles != null) {
+            replicatedTask.outputFiles = new ArrayList<>(outputFiles);
+        }
 
-        /*
-         * uncomment this to have a close look at the serialized graph you will need to add some
-         * jars (http://xstream.codehaus.org/) to the classpath XStream x = new XStream(); String sx
-         * = x.toXML(replicatedTask); System.out.println("----------"); System.out.println(sx);
-         * System.out.println("----------");
-         */
+        replicatedTask.setReplicatedFrom(this);
 
         // We cannot register the newly created InternalTask for DB insertion now,
         // since it only makes sense to hibernate once it's added to the parent InternalJob
@@ -204,6 +219,14 @@ public abstract class InternalTask extends TaskState {
         return replicatedTask;
     }
 
+    private static <T> UpdatableProperties<T> copy(UpdatableProperties<T> property) {
+        UpdatableProperties<T> copy = new UpdatableProperties<>(property.getValue());
+        if (property.isSet()) {
+            copy.setValue(property.getValue());
+        }
+        return copy;
+    }
+
     /**
      * Accumulates in <code>acc</code>  replications of all the tasks that recursively
      * depend on <code>this</code> until <code>target</code> is met
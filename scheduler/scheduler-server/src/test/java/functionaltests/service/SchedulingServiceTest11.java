@@ -0,0 +1,66 @@
+package functionaltests.service;
+
+import java.util.Map;
+
+import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.job.JobPriority;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.JavaTask;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.descriptor.JobDescriptor;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Checks the scheduling revision used by the scheduling loop to reuse the policy order.
+ */
+public class SchedulingServiceTest11 extends BaseServiceTest {
+
+    private TaskFlowJob createTestJob() throws Exception {
+        TaskFlowJob job = new TaskFlowJob();
+        job.setName(this.getClass().getSimpleName());
+        JavaTask task1 = new JavaTask();
+        task1.setExecutableClassName("class");
+        task1.setName("task1");
+        job.addTask(task1);
+        JavaTask task2 = new JavaTask();
+        task2.setExecutableClassName("class");
+        task2.setName("task2");
+        job.addTask(task2);
+        return job;
+    }
+
+    @Test
+    public void testSchedulingRevision() throws Exception {
+        long revision = service.getSchedulingRevision();
+
+        service.submitJob(createJob(createTestJob()));
+        assertTrue(service.getSchedulingRevision() > revision);
+        revision = service.getSchedulingRevision();
+
+        // starting a task doesn't invalidate the policy order
+        Map<JobId, JobDescriptor> jobsMap = service.lockJobsToSchedule();
+        JobDescriptor jobDesc = jobsMap.values().iterator().next();
+        assertEquals(2, jobDesc.getEligibleTasks().size());
+        taskStarted(jobDesc, jobDesc.getEligibleTasks().iterator().next());
+        service.unlockJobsToSchedule(jobsMap.values());
+        assertEquals(revision, service.getSchedulingRevision());
+
+        service.changeJobPriority(jobDesc.getJobId(), JobPriority.HIGH);
+        assertTrue(service.getSchedulingRevision() > revision);
+        revision = service.getSchedulingRevision();
+
+        TaskId taskId = jobDesc.getRunningTasks().keySet().iterator().next();
+        service.taskTerminatedWithResult(taskId, new TaskResultImpl(taskId, "Result", null, 0));
+        assertTrue(service.getSchedulingRevision() > revision);
+        revision = service.getSchedulingRevision();
+
+        service.reloadPolicyConfiguration();
+        assertTrue(service.getSchedulingRevision() > revision);
+    }
+
+}
@@ -0,0 +1,159 @@
+package org.ow2.proactive.scheduler.core;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.objectweb.proactive.core.UniqueID;
+import org.ow2.proactive.scheduler.common.NotificationData;
+import org.ow2.proactive.scheduler.common.SchedulerEvent;
+import org.ow2.proactive.scheduler.common.SchedulerEventBatch;
+import org.ow2.proactive.scheduler.common.SchedulerEventBatchListener;
+import org.ow2.proactive.scheduler.common.SchedulerEventListener;
+import org.ow2.proactive.scheduler.common.job.JobInfo;
+import org.ow2.proactive.scheduler.common.job.JobState;
+import org.ow2.proactive.scheduler.common.job.UserIdentification;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
+import org.ow2.proactive.scheduler.core.jmx.SchedulerJMXHelper;
+import org.ow2.proactive.scheduler.core.jmx.mbean.RuntimeDataMBeanImpl;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
+import org.ow2.proactive.scheduler.task.TaskInfoImpl;
+import org.ow2.tests.ProActiveTest;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class ClientRequestHandlerTest extends ProActiveTest {
+
+    @Test
+    public void waiting_progress_events_of_a_task_should_be_coalesced() throws Exception {
+        SchedulerJMXHelper mockJMX = mock(SchedulerJMXHelper.class);
+        when(mockJMX.getSchedulerRuntimeMBean()).thenReturn(new RuntimeDataMBeanImpl(null));
+        SchedulerFrontendState frontendState = new SchedulerFrontendState(new SchedulerStateImpl(), mockJMX);
+
+        BlockingListener listener = new BlockingListener();
+        ClientRequestHandler handler = new ClientRequestHandler(frontendState, new UniqueID("client"),
+            listener);
+        Method taskStateUpdatedEvent = SchedulerEventListener.class.getMethod("taskStateUpdatedEvent",
+                NotificationData.class);
+
+        // the first event is being sent while the next ones are queued
+        handler.addEvent(taskStateUpdatedEvent, taskEvent(SchedulerEvent.TASK_PROGRESS, "task1", 10));
+        assertTrue(listener.sending.await(10, TimeUnit.SECONDS));
+        handler.addEvent(taskStateUpdatedEvent, taskEvent(SchedulerEvent.TASK_PROGRESS, "task1", 20));
+        handler.addEvent(taskStateUpdatedEvent, taskEvent(SchedulerEvent.TASK_PROGRESS, "task2", 5));
+        handler.addEvent(taskStateUpdatedEvent, taskEvent(SchedulerEvent.TASK_PROGRESS, "task1", 30));
+        handler.addEvent(taskStateUpdatedEvent, taskEvent(SchedulerEvent.TASK_RUNNING_TO_FINISHED,
+                "task1", 100));
+        listener.unblock.countDown();
+
+        List<String> expected = new ArrayList<>();
+        expected.add("task1 TASK_PROGRESS 10");
+        expected.add("task1 TASK_PROGRESS 30");
+        expected.add("task2 TASK_PROGRESS 5");
+        expected.add("task1 TASK_RUNNING_TO_FINISHED 100");
+        long timeout = System.currentTimeMillis() + 10000;
+        while (listener.received.size() < expected.size() && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, listener.received);
+    }
+
+    @Test
+    public void waiting_events_should_be_sent_at_once_to_a_batch_listener() throws Exception {
+        SchedulerJMXHelper mockJMX = mock(SchedulerJMXHelper.class);
+        when(mockJMX.getSchedulerRuntimeMBean()).thenReturn(new RuntimeDataMBeanImpl(null));
+        SchedulerFrontendState frontendState = new SchedulerFrontendState(new SchedulerStateImpl(), mockJMX);
+
+        BatchListener listener = new BatchListener();
+        ClientRequestHandler handler = new ClientRequestHandler(frontendState, new UniqueID("client"),
+            listener);
+        Method taskStateUpdatedEvent = SchedulerEventListener.class.getMethod("taskStateUpdatedEvent",
+                NotificationData.class);
+
+        handler.addEvent(taskStateUpdatedEvent, taskEvent(SchedulerEvent.TASK_PROGRESS, "task1", 10));
+        assertTrue(listener.sending.await(10, TimeUnit.SECONDS));
+        handler.addEvent(taskStateUpdatedEvent, taskEvent(SchedulerEvent.TASK_PROGRESS, "task2", 5));
+        handler.addEvent(taskStateUpdatedEvent, taskEvent(SchedulerEvent.TASK_RUNNING_TO_FINISHED,
+                "task1", 100));
+        listener.unblock.countDown();
+
+        List<String> expected = new ArrayList<>();
+        expected.add("task1 TASK_PROGRESS 10");
+        expected.add("task2 TASK_PROGRESS 5");
+        expected.add("task1 TASK_RUNNING_TO_FINISHED 100");
+        long timeout = System.currentTimeMillis() + 10000;
+        while (listener.received.size() < expected.size() && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, listener.received);
+        assertEquals(1, listener.batches.get());
+    }
+
+    private static NotificationData<TaskInfo> taskEvent(SchedulerEvent eventType, String taskName,
+            int progress) {
+        TaskInfoImpl taskInfo = new TaskInfoImpl();
+        taskInfo.setTaskId(TaskIdImpl.createTaskId(new JobIdImpl(1, "job"), taskName,
+                taskName.equals("task1") ? 1 : 2, false));
+        taskInfo.setProgress(progress);
+        return new NotificationData<TaskInfo>(eventType, taskInfo);
+    }
+
+    public static class BlockingListener implements SchedulerEventListener {
+
+        final CountDownLatch sending = new CountDownLatch(1);
+
+        final CountDownLatch unblock = new CountDownLatch(1);
+
+        final List<String> received = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public void taskStateUpdatedEvent(NotificationData<TaskInfo> notification) {
+            sending.countDown();
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(notification.getData().getTaskId().getReadableName() + " " +
+                notification.getEventType() + " " + notification.getData().getProgress());
+        }
+
+        @Override
+        public void schedulerStateUpdatedEvent(SchedulerEvent eventType) {
+        }
+
+        @Override
+        public void jobSubmittedEvent(JobState job) {
+        }
+
+        @Override
+        public void jobStateUpdatedEvent(NotificationData<JobInfo> notification) {
+        }
+
+        @Override
+        public void usersUpdatedEvent(NotificationData<UserIdentification> notification) {
+        }
+    }
+
+    public static class BatchListener extends BlockingListener implements SchedulerEventBatchListener {
+
+        private final AtomicInteger batches = new AtomicInteger();
+
+        @Override
+        public void schedulerEventsBatch(SchedulerEventBatch events) {
+            batches.incrementAndGet();
+            events.dispatch(this);
+        }
+    }
+
+}
@@ -9,13 +9,30 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.objectweb.proactive.core.UniqueID;
+import org.ow2.proactive.scheduler.common.NotificationData;
+import org.ow2.proactive.scheduler.common.SchedulerEvent;
+import org.ow2.proactive.scheduler.common.job.JobInfo;
+import org.ow2.proactive.scheduler.common.job.JobPriority;
+import org.ow2.proactive.scheduler.common.job.JobState;
+import org.ow2.proactive.scheduler.common.job.JobStatus;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
+import org.ow2.proactive.scheduler.common.task.TaskState;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.core.jmx.SchedulerJMXHelper;
 import org.ow2.proactive.scheduler.core.jmx.mbean.RuntimeDataMBeanImpl;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.job.InternalTaskFlowJob;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.job.JobInfoImpl;
 import org.ow2.proactive.scheduler.job.UserIdentificationImpl;
+import org.ow2.proactive.scheduler.task.TaskInfoImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalScriptTask;
 import org.ow2.tests.ProActiveTest;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -59,4 +76,49 @@ public class SchedulerFrontendStateTest extends ProActiveTest {
             // expected timeout exception after two seconds
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void snapshot_should_not_change_when_the_state_is_updated() throws Exception {
+        SchedulerJMXHelper mockJMX = mock(SchedulerJMXHelper.class);
+        when(mockJMX.getSchedulerRuntimeMBean()).thenReturn(new RuntimeDataMBeanImpl(null));
+        SchedulerFrontendState schedulerFrontendState = new SchedulerFrontendState(new SchedulerStateImpl(),
+            mockJMX);
+
+        InternalTaskFlowJob job = new InternalTaskFlowJob("test", JobPriority.NORMAL, true, "");
+        job.setId(JobIdImpl.makeJobId("1"));
+        job.setOwner("john");
+        InternalScriptTask task = new InternalScriptTask();
+        task.setName("task");
+        job.addTask(task);
+        schedulerFrontendState.jobSubmitted(job);
+
+        SchedulerStateImpl snapshot = schedulerFrontendState.getSnapshot();
+        assertSame(snapshot, schedulerFrontendState.getSnapshot());
+        JobState submitted = snapshot.getPendingJobs().get(0);
+
+        JobInfoImpl jobInfo = new JobInfoImpl((JobInfoImpl) job.getJobInfo());
+        jobInfo.setStatus(JobStatus.RUNNING);
+        schedulerFrontendState.jobStateUpdated("john", new NotificationData<JobInfo>(
+            SchedulerEvent.JOB_PENDING_TO_RUNNING, jobInfo));
+        TaskInfoImpl taskInfo = new TaskInfoImpl();
+        taskInfo.setTaskId(task.getId());
+        taskInfo.setJobInfo(jobInfo);
+        taskInfo.setStatus(TaskStatus.RUNNING);
+        schedulerFrontendState.taskStateUpdated("john", new NotificationData<TaskInfo>(
+            SchedulerEvent.TASK_PENDING_TO_RUNNING, taskInfo));
+
+        assertEquals(1, snapshot.getPendingJobs().size());
+        assertEquals(0, snapshot.getRunningJobs().size());
+        assertEquals(JobStatus.PENDING, submitted.getStatus());
+        assertEquals(TaskStatus.SUBMITTED, submitted.getHMTasks().get(task.getId()).getStatus());
+
+        SchedulerStateImpl updated = schedulerFrontendState.getSnapshot();
+        assertNotSame(snapshot, updated);
+        assertEquals(0, updated.getPendingJobs().size());
+        JobState running = updated.getRunningJobs().get(0);
+        assertNotSame(submitted, running);
+        assertEquals(JobStatus.RUNNING, running.getStatus());
+        TaskState runningTask = running.getHMTasks().get(task.getId());
+        assertEquals(TaskStatus.RUNNING, runningTask.getStatus());
+    }
+}
@@ -0,0 +1,64 @@
+package org.ow2.proactive.scheduler.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+
+public class SchedulingMethodImplTest {
+
+    @Test
+    public void groups_not_served_by_the_rm_are_requeued_in_order() {
+        EligibleTaskDescriptor first = mock(EligibleTaskDescriptor.class);
+        EligibleTaskDescriptor second = mock(EligibleTaskDescriptor.class);
+        EligibleTaskDescriptor third = mock(EligibleTaskDescriptor.class);
+        EligibleTaskDescriptor fourth = mock(EligibleTaskDescriptor.class);
+        EligibleTaskDescriptor remaining = mock(EligibleTaskDescriptor.class);
+        List<LinkedList<EligibleTaskDescriptor>> taskGroups = new ArrayList<>();
+        taskGroups.add(new LinkedList<>(Arrays.asList(first)));
+        taskGroups.add(new LinkedList<>(Arrays.asList(second)));
+        taskGroups.add(new LinkedList<>(Arrays.asList(third, fourth)));
+        LinkedList<EligibleTaskDescriptor> tasks = new LinkedList<>(Arrays.asList(remaining));
+
+        SchedulingMethodImpl.requeueUnservedGroups(tasks, taskGroups, 2);
+
+        assertEquals(Arrays.asList(third, fourth, remaining), tasks);
+    }
+
+    @Test
+    public void first_group_is_consumed_when_the_rm_serves_no_group() {
+        EligibleTaskDescriptor first = mock(EligibleTaskDescriptor.class);
+        EligibleTaskDescriptor second = mock(EligibleTaskDescriptor.class);
+        EligibleTaskDescriptor third = mock(EligibleTaskDescriptor.class);
+        List<LinkedList<EligibleTaskDescriptor>> taskGroups = new ArrayList<>();
+        taskGroups.add(new LinkedList<>(Arrays.asList(first)));
+        taskGroups.add(new LinkedList<>(Arrays.asList(second)));
+        taskGroups.add(new LinkedList<>(Arrays.asList(third)));
+        LinkedList<EligibleTaskDescriptor> tasks = new LinkedList<>();
+
+        SchedulingMethodImpl.requeueUnservedGroups(tasks, taskGroups, 0);
+
+        assertEquals(Arrays.asList(second, third), tasks);
+    }
+
+    @Test
+    public void nothing_is_requeued_when_the_rm_serves_all_groups() {
+        EligibleTaskDescriptor first = mock(EligibleTaskDescriptor.class);
+        EligibleTaskDescriptor second = mock(EligibleTaskDescriptor.class);
+        List<LinkedList<EligibleTaskDescriptor>> taskGroups = new ArrayList<>();
+        taskGroups.add(new LinkedList<>(Arrays.asList(first)));
+        taskGroups.add(new LinkedList<>(Arrays.asList(second)));
+        LinkedList<EligibleTaskDescriptor> tasks = new LinkedList<>();
+
+        SchedulingMethodImpl.requeueUnservedGroups(tasks, taskGroups, 2);
+
+        assertEquals(0, tasks.size());
+    }
+}
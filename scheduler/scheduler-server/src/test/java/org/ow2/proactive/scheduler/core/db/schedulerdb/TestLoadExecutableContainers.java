@@ -0,0 +1,73 @@
+package org.ow2.proactive.scheduler.core.db.schedulerdb;
+
+import java.util.Map;
+
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.NativeTask;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.containers.ExecutableContainer;
+import org.ow2.proactive.scheduler.task.containers.ScriptExecutableContainer;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class TestLoadExecutableContainers extends BaseSchedulerDBTest {
+
+    @Test
+    public void testLoadExecutableContainers() throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        jobDef.addTask(createDefaultTask("task2"));
+        NativeTask task3 = new NativeTask();
+        task3.setName("task3");
+        task3.setCommandLine("commandline");
+        jobDef.addTask(task3);
+
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+
+        Map<TaskId, ExecutableContainer> containers = dbManager.loadExecutableContainers(job.getITasks());
+        Assert.assertEquals(3, containers.size());
+
+        for (InternalTask task : job.getITasks()) {
+            ScriptExecutableContainer container = (ScriptExecutableContainer) containers.get(task.getId());
+            ScriptExecutableContainer expected = (ScriptExecutableContainer) dbManager
+                    .loadExecutableContainer(task);
+            Assert.assertEquals(expected.getScript().getScript(), container.getScript().getScript());
+            Assert.assertEquals(expected.getScript().getEngineName(), container.getScript().getEngineName());
+        }
+
+        ScriptExecutableContainer container1 = (ScriptExecutableContainer) containers.get(job.getTask(
+                "task1").getId());
+        ScriptExecutableContainer container2 = (ScriptExecutableContainer) containers.get(job.getTask(
+                "task2").getId());
+        ScriptExecutableContainer container3 = (ScriptExecutableContainer) containers.get(job.getTask(
+                "task3").getId());
+        Assert.assertNotSame(container1, container2);
+        Assert.assertSame(container1.getScript(), container2.getScript());
+        Assert.assertNotSame(container1.getScript(), container3.getScript());
+    }
+
+    @Test
+    public void testScriptsNotSharedBetweenJobs() throws Exception {
+        TaskFlowJob jobDef1 = new TaskFlowJob();
+        jobDef1.addTask(createDefaultTask("task1"));
+        InternalJob job1 = defaultSubmitJobAndLoadInternal(true, jobDef1);
+
+        TaskFlowJob jobDef2 = new TaskFlowJob();
+        jobDef2.addTask(createDefaultTask("task1"));
+        InternalJob job2 = defaultSubmitJobAndLoadInternal(true, jobDef2);
+
+        InternalTask task1 = job1.getTask("task1");
+        InternalTask task2 = job2.getTask("task1");
+        ScriptExecutableContainer container1 = (ScriptExecutableContainer) dbManager
+                .loadExecutableContainers(job1.getITasks()).get(task1.getId());
+        ScriptExecutableContainer container2 = (ScriptExecutableContainer) dbManager
+                .loadExecutableContainers(job2.getITasks()).get(task2.getId());
+
+        Assert.assertEquals(container1.getScript().getScript(), container2.getScript().getScript());
+        Assert.assertNotSame(container1.getScript(), container2.getScript());
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.ow2.proactive.scheduler.core.db.schedulerdb;
+
+import java.io.File;
+
+import org.ow2.proactive.scheduler.common.job.JobStatus;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.hibernate.cfg.Configuration;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestTaskStartedWriteBehind extends BaseSchedulerDBTest {
+
+    @Before
+    public void enableWriteBehind() throws Exception {
+        PASchedulerProperties.SCHEDULER_DB_WRITE_BEHIND.updateProperty("true");
+        PASchedulerProperties.SCHEDULER_DB_WRITE_BEHIND_PERIOD.updateProperty("60000");
+        dbManager.close();
+        Configuration config = new Configuration().configure(new File(this.getClass().getResource(
+                "/functionaltests/config/hibernate.cfg.xml").toURI()));
+        dbManager = new SchedulerDBManager(config, true);
+    }
+
+    @After
+    public void disableWriteBehind() {
+        PASchedulerProperties.SCHEDULER_DB_WRITE_BEHIND.unSet();
+        PASchedulerProperties.SCHEDULER_DB_WRITE_BEHIND_PERIOD.unSet();
+    }
+
+    @Test
+    public void testTaskStartedWrittenBeforeRead() throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        jobDef.addTask(createDefaultTask("task2"));
+        jobDef.addTask(createDefaultTask("task3"));
+
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+        job.start();
+        InternalTask task1 = startTask(job, job.getTask("task1"));
+        dbManager.jobTaskStarted(job, task1, true);
+        InternalTask task2 = startTask(job, job.getTask("task2"));
+        dbManager.jobTaskStarted(job, task2, false);
+
+        job = loadInternalJob(true, job.getId());
+        Assert.assertEquals(JobStatus.RUNNING, job.getStatus());
+        Assert.assertEquals(2, job.getNumberOfRunningTasks());
+        Assert.assertEquals(TaskStatus.RUNNING, job.getTask("task1").getStatus());
+        Assert.assertEquals(TaskStatus.RUNNING, job.getTask("task2").getStatus());
+        Assert.assertEquals(TaskStatus.PENDING, job.getTask("task3").getStatus());
+    }
+
+    @Test
+    public void testTaskStartedWrittenBeforeUpdate() throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+        job.start();
+        InternalTask task = startTask(job, job.getTask("task1"));
+        dbManager.jobTaskStarted(job, task, true);
+
+        task.setStatus(TaskStatus.FINISHED);
+        task.setFinishedTime(System.currentTimeMillis());
+        dbManager.updateAfterTaskFinished(job, task, null);
+
+        job = loadInternalJob(true, job.getId());
+        Assert.assertEquals(TaskStatus.FINISHED, job.getTask("task1").getStatus());
+    }
+
+    @Test
+    public void testTaskFinishedWrittenBeforeRead() throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        jobDef.addTask(createDefaultTask("task2"));
+
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+        job.start();
+        InternalTask task1 = startTask(job, job.getTask("task1"));
+        dbManager.jobTaskStarted(job, task1, true);
+
+        task1.setStatus(TaskStatus.FINISHED);
+        task1.setFinishedTime(System.currentTimeMillis());
+        dbManager.updateAfterTaskFinished(job, task1, new TaskResultImpl(null, new TestResult(0, "1_1"),
+            null, 0));
+
+        TestResult result = (TestResult) dbManager.loadLastTaskResult(task1.getId()).value();
+        Assert.assertEquals("1_1", result.getB());
+
+        job = loadInternalJob(true, job.getId());
+        Assert.assertEquals(JobStatus.RUNNING, job.getStatus());
+        Assert.assertEquals(TaskStatus.FINISHED, job.getTask("task1").getStatus());
+        Assert.assertEquals(TaskStatus.PENDING, job.getTask("task2").getStatus());
+    }
+
+}
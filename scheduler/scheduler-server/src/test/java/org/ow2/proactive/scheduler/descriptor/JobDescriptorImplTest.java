@@ -0,0 +1,93 @@
+package org.ow2.proactive.scheduler.descriptor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.ow2.proactive.scheduler.common.job.JobPriority;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.flow.FlowScript;
+import org.ow2.proactive.scheduler.job.InternalTaskFlowJob;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalScriptTask;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class JobDescriptorImplTest {
+
+    @Test
+    public void targets_of_if_actions_should_not_be_entry_points() throws Exception {
+        InternalTaskFlowJob job = new InternalTaskFlowJob("test", JobPriority.NORMAL, false, "");
+        job.setId(JobIdImpl.makeJobId("1"));
+        InternalTask ifTask = createTask(job, "if");
+        ifTask.setFlowScript(FlowScript.createIfFlowScript("branch = 'if';", "then", "else", "join"));
+        createTask(job, "then");
+        createTask(job, "else");
+        createTask(job, "join");
+        InternalTask independent = createTask(job, "independent");
+        InternalTask child = createTask(job, "child");
+        child.addDependence(ifTask);
+
+        JobDescriptorImpl descriptor = new JobDescriptorImpl(job);
+
+        Set<TaskId> eligible = new HashSet<>();
+        for (EligibleTaskDescriptor td : descriptor.getEligibleTasks()) {
+            eligible.add(td.getTaskId());
+        }
+        assertEquals(2, eligible.size());
+        assertTrue(eligible.contains(ifTask.getId()));
+        assertTrue(eligible.contains(independent.getId()));
+    }
+
+    @Test
+    public void parents_and_children_should_be_linked() throws Exception {
+        InternalTaskFlowJob job = new InternalTaskFlowJob("test", JobPriority.NORMAL, false, "");
+        job.setId(JobIdImpl.makeJobId("1"));
+        InternalTask root = createTask(job, "root");
+        InternalTask previous = root;
+        for (int i = 0; i < 10000; i++) {
+            InternalTask task = createTask(job, "task" + i);
+            task.addDependence(previous);
+            previous = task;
+        }
+        InternalTask sibling = createTask(job, "sibling");
+        sibling.addDependence(root);
+
+        JobDescriptorImpl descriptor = new JobDescriptorImpl(job);
+
+        assertEquals(1, descriptor.getEligibleTasks().size());
+        TaskDescriptor td = descriptor.getEligibleTasks().iterator().next();
+        assertEquals(root.getId(), td.getTaskId());
+        Set<TaskId> children = new HashSet<>();
+        for (TaskDescriptor child : td.getChildren()) {
+            children.add(child.getTaskId());
+        }
+        assertEquals(2, children.size());
+        assertTrue(children.contains(sibling.getId()));
+
+        int depth = 0;
+        while (!td.getChildren().isEmpty()) {
+            TaskDescriptor next = td.getChildren().get(0);
+            if (next.getTaskId().equals(sibling.getId())) {
+                next = td.getChildren().get(1);
+            }
+            assertEquals(1, next.getParents().size());
+            assertEquals(td, next.getParents().get(0));
+            td = next;
+            depth++;
+        }
+        assertEquals(10000, depth);
+        assertEquals(previous.getId(), td.getTaskId());
+    }
+
+    private static InternalTask createTask(InternalTaskFlowJob job, String name) {
+        InternalScriptTask task = new InternalScriptTask();
+        task.setName(name);
+        job.addTask(task);
+        return task;
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.ow2.proactive.scheduler.job;
+
+import java.util.Collections;
+
+import org.ow2.proactive.scheduler.common.exception.UnknownTaskException;
+import org.ow2.proactive.scheduler.common.job.JobPriority;
+import org.ow2.proactive.scheduler.task.internal.InternalScriptTask;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+
+public class InternalJobTest {
+
+    @Test
+    public void task_should_be_found_by_name_once_added() throws Exception {
+        InternalTaskFlowJob job = createJob("1");
+        InternalTask task1 = createTask(job, "task1");
+        assertSame(task1, job.getTask("task1"));
+
+        // added once the index is built, with a replicated name
+        InternalScriptTask task2 = new InternalScriptTask();
+        task2.setName("task2");
+        task2.setReplicationIndex(1);
+        job.addTask(task2);
+        assertSame(task2, job.getTask(task2.getName()));
+        assertUnknown(job, "task2");
+        assertUnknown(job, "task3");
+    }
+
+    @Test
+    public void task_should_be_found_by_name_after_the_tasks_are_replaced() throws Exception {
+        InternalTaskFlowJob job = createJob("1");
+        createTask(job, "task1");
+        job.getTask("task1");
+
+        InternalTask task2 = createTask(createJob("2"), "task2");
+        job.setTasks(Collections.singletonList(task2));
+        assertSame(task2, job.getTask("task2"));
+        assertUnknown(job, "task1");
+    }
+
+    private static InternalTaskFlowJob createJob(String id) {
+        InternalTaskFlowJob job = new InternalTaskFlowJob("test", JobPriority.NORMAL, false, "");
+        job.setId(JobIdImpl.makeJobId(id));
+        return job;
+    }
+
+    private static InternalTask createTask(InternalJob job, String name) {
+        InternalScriptTask task = new InternalScriptTask();
+        task.setName(name);
+        job.addTask(task);
+        return task;
+    }
+
+    private static void assertUnknown(InternalJob job, String taskName) {
+        try {
+            job.getTask(taskName);
+            fail(taskName + " should not be found");
+        } catch (UnknownTaskException e) {
+            // expected
+        }
+    }
+
+}
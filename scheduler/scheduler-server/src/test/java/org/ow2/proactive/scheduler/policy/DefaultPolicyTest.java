@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Vector;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 
@@ -31,6 +32,13 @@ public class DefaultPolicyTest {
         assertTrue(orderedTasks.isEmpty());
     }
 
+    @Test
+    public void order_is_only_stable_for_the_default_policy() throws Exception {
+        assertTrue(new DefaultPolicy().isOrderStable());
+        assertFalse(new DefaultPolicy() {
+        }.isOrderStable());
+    }
+
     @Test
     public void single_job() throws Exception {
         JobDescriptorImpl job = createSingleTaskJob();
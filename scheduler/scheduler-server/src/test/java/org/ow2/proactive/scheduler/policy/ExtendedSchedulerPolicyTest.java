@@ -163,6 +163,15 @@ public class ExtendedSchedulerPolicyTest {
         assertTrue(orderedTasks != null && orderedTasks.size() == 2);
     }
 
+    @Test
+    public void testOrderStable() {
+        policy.getOrderedTasks(asModifiableList(createJobDescWithTwoTasks(null, now, null)));
+        assertTrue(policy.isOrderStable());
+
+        policy.getOrderedTasks(asModifiableList(createJobDescWithTwoTasks(null, now, later)));
+        assertFalse(policy.isOrderStable());
+    }
+
     @Test
     public void job_with_same_priorities() throws Exception {
         JobDescriptor job1 = createJobDescWithTwoTasks(null, null, null);
@@ -0,0 +1,47 @@
+package org.ow2.proactive.scheduler.task.internal;
+
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.common.task.flow.FlowScript;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
+import org.ow2.proactive.scripting.SimpleScript;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+
+public class InternalTaskTest {
+
+    @Test
+    public void replica_should_share_scripts_and_not_mutable_state() throws Exception {
+        InternalScriptTask task = new InternalScriptTask();
+        task.setName("task");
+        task.setId(TaskIdImpl.createTaskId(new JobIdImpl(1, "job"), "task", 1, false));
+        task.setPreScript(new SimpleScript("print('pre')", "javascript"));
+        task.setFlowScript(FlowScript.createLoopFlowScript("loop = false", "task"));
+        task.addGenericInformation("key", "value");
+        task.setStatus(TaskStatus.FINISHED);
+
+        InternalTask replica = (InternalTask) task.replicate();
+        replica.setIterationIndex(1);
+        replica.addGenericInformation("other", "value");
+
+        assertSame(task.getPreScript(), replica.getPreScript());
+        assertSame(task, replica.getReplicatedFrom());
+        assertNull(replica.getIDependences());
+        assertEquals(TaskStatus.SUBMITTED, replica.getStatus());
+
+        assertEquals("task", task.getName());
+        assertEquals("task", task.getId().getReadableName());
+        assertEquals("task", task.getFlowScript().getActionTarget());
+        assertEquals(1, task.getGenericInformations(false).size());
+
+        assertEquals("task#1", replica.getName());
+        assertEquals("task#1", replica.getId().getReadableName());
+        assertEquals("task#1", replica.getFlowScript().getActionTarget());
+        assertEquals(2, replica.getGenericInformations(false).size());
+    }
+
+}